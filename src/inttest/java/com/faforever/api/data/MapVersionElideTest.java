@@ -1,13 +1,24 @@
 package com.faforever.api.data;
 
 import com.faforever.api.AbstractIntegrationTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
 
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Sql(executionPhase = ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:sql/prepDefaultUser.sql")
@@ -15,6 +26,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Sql(executionPhase = ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:sql/cleanMapVersion.sql")
 public class MapVersionElideTest extends AbstractIntegrationTest {
 
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
   private static final String MAP_VERSION_HIDE_FALSE_ID_1 = "{\n" +
     "  \"data\": {\n" +
     "    \"type\": \"mapVersion\",\n" +
@@ -93,4 +107,19 @@ public class MapVersionElideTest extends AbstractIntegrationTest {
         .content(MAP_VERSION_RANKED_TRUE_ID_1))
       .andExpect(status().isForbidden());
   }
+
+  @WithUserDetails(AUTH_USER)
+  @Test
+  public void sparseFieldsetDoesNotLoadUnrequestedAssociations() throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    mockMvc.perform(get("/data/mapVersion/1?fields[mapVersion]=version,folderName"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.data.attributes.*", hasSize(2)))
+      .andExpect(jsonPath("$.data.attributes.folderName", is("ghb")));
+
+    // Statistics and reviews summary would be loaded with additional statements if they were fetched eagerly
+    assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(1L));
+  }
 }
@@ -13,9 +13,11 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -67,6 +69,22 @@ public class TutorialElideTest extends AbstractIntegrationTest {
       .andExpect(status().isOk());
   }
 
+  @Test
+  @WithUserDetails(AUTH_USER)
+  public void unchangedTutorialsAreNotModified() throws Exception {
+    MvcResult mvcResult = mockMvc.perform(get("/data/tutorial"))
+      .andExpect(status().isOk())
+      .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+      .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+      .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+      .andReturn();
+
+    String eTag = mvcResult.getResponse().getHeader(HttpHeaders.ETAG);
+    mockMvc.perform(get("/data/tutorial").header(HttpHeaders.IF_NONE_MATCH, eTag))
+      .andExpect(status().isNotModified())
+      .andExpect(header().string(HttpHeaders.ETAG, eTag));
+  }
+
   @Test
   @WithUserDetails(AUTH_USER)
   public void cannotPostTutorialAsUser() throws Exception {
@@ -324,4 +324,19 @@ public class VotingElideTest extends AbstractIntegrationTest {
     mockMvc.perform(post("/data/votingSubject").contentType(MediaType.APPLICATION_JSON).content(votingSubject))
       .andExpect(status().is(400));
   }
+
+  @Test
+  @WithUserDetails(AUTH_USER)
+  public void voteTalliesAreCounted() throws Exception {
+    mockMvc.perform(get("/data/votingSubject/2"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.data.attributes.numberOfVotes", is(1)));
+    mockMvc.perform(get("/data/votingQuestion/2"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.data.attributes.numberOfAnswers", is(1)));
+    // Subject 2 doesn't reveal its winner
+    mockMvc.perform(get("/data/votingChoice/3"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.data.attributes.numberOfAnswers", is(0)));
+  }
 }
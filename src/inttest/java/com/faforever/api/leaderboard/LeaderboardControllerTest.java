@@ -1,7 +1,9 @@
 package com.faforever.api.leaderboard;
 
 import com.faforever.api.AbstractIntegrationTest;
+import org.junit.Before;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
 import org.springframework.test.web.servlet.MvcResult;
@@ -16,6 +18,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Sql(executionPhase = ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:sql/cleanLeaderboardData.sql")
 public class LeaderboardControllerTest extends AbstractIntegrationTest {
 
+  @Autowired
+  private LeaderboardService leaderboardService;
+
+  @Before
+  public void refreshLeaderboards() {
+    leaderboardService.refresh();
+  }
+
   @Test
   public void ladder1v1All() throws Exception {
     MvcResult mvcResult = mockMvc.perform(get("/leaderboards/ladder1v1"))
@@ -0,0 +1 @@
+DELETE FROM game_player_stats;
@@ -0,0 +1,8 @@
+DELETE FROM game_player_stats;
+
+INSERT INTO game_player_stats (id, gameId, playerId, AI, faction, color, team, place, mean, deviation, score) VALUES
+  (1, 1, 1, 0, 1, 1, 2, 1, 1500, 500, 0),
+  (2, 1, 2, 0, 2, 2, 3, 2, 1500, 500, 0),
+  (3, 1, 3, 0, 3, 3, 2, 3, 1500, 500, 0),
+  (4, 1, 4, 0, 4, 4, 3, 4, 1500, 500, 0),
+  (5, 1, 5, 0, 1, 5, 2, 5, 1500, 500, 0);
@@ -0,0 +1,57 @@
+package com.faforever.api.voting;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link InstantRunoffTally#tally(int, int[][])} on random ballots that rank between one and all choices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InstantRunoffTallyBenchmark {
+
+  @Param({"10000", "100000"})
+  private int ballotCount;
+
+  @Param({"10"})
+  private int choiceCount;
+
+  private int[][] ballots;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    ballots = new int[ballotCount][];
+    for (int ballot = 0; ballot < ballotCount; ballot++) {
+      int[] choices = new int[choiceCount];
+      for (int i = 0; i < choiceCount; i++) {
+        choices[i] = i;
+      }
+      // Partial Fisher-Yates shuffle, the ranked choices are the first ones
+      int ranks = 1 + random.nextInt(choiceCount);
+      for (int i = 0; i < ranks; i++) {
+        int swap = i + random.nextInt(choiceCount - i);
+        int choice = choices[swap];
+        choices[swap] = choices[i];
+        choices[i] = choice;
+      }
+      ballots[ballot] = Arrays.copyOf(choices, ranks);
+    }
+  }
+
+  @Benchmark
+  public InstantRunoffTally.Result tally() {
+    return InstantRunoffTally.tally(choiceCount, ballots);
+  }
+}
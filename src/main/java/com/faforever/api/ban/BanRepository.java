@@ -1,9 +1,35 @@
 package com.faforever.api.ban;
 
 import com.faforever.api.data.domain.BanInfo;
+import com.faforever.api.data.domain.BanLevel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+
 @Repository
 public interface BanRepository extends JpaRepository<BanInfo, Integer> {
+
+  /**
+   * Returns the IDs of all players whose bans have been created, updated, expired or revoked in the specified time
+   * range.
+   */
+  @Query("SELECT DISTINCT b.player.id FROM BanInfo b" +
+    " WHERE b.createTime > :since OR b.updateTime > :since" +
+    " OR (b.expiresAt > :since AND b.expiresAt <= :until)" +
+    " OR (b.revokeTime > :since AND b.revokeTime <= :until)")
+  List<Integer> findPlayerIdsChangedBetween(@Param("since") OffsetDateTime since, @Param("until") OffsetDateTime until);
+
+  /**
+   * Returns whether the specified player has a ban of the specified level that is neither expired nor revoked at the
+   * specified time, without loading any bans.
+   */
+  @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM BanInfo b" +
+    " WHERE b.player.id = :playerId AND b.level = :level" +
+    " AND (b.expiresAt IS NULL OR b.expiresAt > :at)" +
+    " AND (b.revokeTime IS NULL OR b.revokeTime >= :at)")
+  boolean existsActiveBan(@Param("playerId") int playerId, @Param("level") BanLevel level, @Param("at") OffsetDateTime at);
 }
@@ -1,19 +1,28 @@
 package com.faforever.api.ban;
 
+import com.faforever.api.data.domain.BanLevel;
 import com.faforever.api.data.domain.Player;
 import com.faforever.api.player.PlayerRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
+
 @Service
 public class BanService {
   private final PlayerRepository playerRepository;
+  private final BanRepository banRepository;
 
-  public BanService(PlayerRepository playerRepository) {
+  public BanService(PlayerRepository playerRepository, BanRepository banRepository) {
     this.playerRepository = playerRepository;
+    this.banRepository = banRepository;
+  }
+
+  public boolean hasActiveGlobalBan(int playerId) {
+    return banRepository.existsActiveBan(playerId, BanLevel.GLOBAL, OffsetDateTime.now());
   }
 
   public boolean hasActiveGlobalBan(Player player) {
-    return player.isGlobalBanned();
+    return hasActiveGlobalBan(player.getId());
   }
 
   public boolean hasActiveGlobalBan(String username) {
@@ -0,0 +1,31 @@
+package com.faforever.api.cache;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers cache evictions until the current transaction has been committed, so that the evicted entries can't be
+ * recomputed from data that is about to change.
+ */
+final class AfterCommit {
+
+  private AfterCommit() {
+    // Utility class
+  }
+
+  /**
+   * Runs the specified action after the current transaction has been committed, or immediately if there is none.
+   */
+  static void run(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
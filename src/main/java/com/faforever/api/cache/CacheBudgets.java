@@ -0,0 +1,46 @@
+package com.faforever.api.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Splits a total memory budget between caches.
+ */
+public final class CacheBudgets {
+
+  private CacheBudgets() {
+    // Utility class
+  }
+
+  /**
+   * Returns the budget of each of the specified caches. Caches with an explicit budget get exactly that; the rest of the
+   * total budget is split evenly between all other caches.
+   *
+   * @param totalBudget the budget of all caches together
+   * @param explicitBudgets budgets of individual caches by cache name, may contain caches that don't exist
+   * @param cacheNames the names of all caches
+   * @throws IllegalArgumentException if the explicit budgets exceed the total budget
+   */
+  public static Map<String, Long> distribute(long totalBudget, Map<String, Long> explicitBudgets, Collection<String> cacheNames) {
+    Map<String, Long> budgets = new HashMap<>();
+    cacheNames.stream()
+      .filter(explicitBudgets::containsKey)
+      .forEach(cacheName -> budgets.put(cacheName, explicitBudgets.get(cacheName)));
+
+    long explicitTotal = budgets.values().stream().mapToLong(Long::longValue).sum();
+    if (explicitTotal > totalBudget) {
+      throw new IllegalArgumentException("Cache budgets " + budgets + " exceed the total budget of " + totalBudget + " bytes");
+    }
+
+    Collection<String> remainingCaches = cacheNames.stream()
+      .filter(cacheName -> !budgets.containsKey(cacheName))
+      .collect(Collectors.toList());
+    if (!remainingCaches.isEmpty()) {
+      long sharedBudget = (totalBudget - explicitTotal) / remainingCaches.size();
+      remainingCaches.forEach(cacheName -> budgets.put(cacheName, sharedBudget));
+    }
+    return budgets;
+  }
+}
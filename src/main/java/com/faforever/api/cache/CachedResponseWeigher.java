@@ -0,0 +1,51 @@
+package com.faforever.api.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Weighs cached responses by the approximate number of bytes they occupy on the heap, so that caches can be bounded
+ * by memory rather than by their number of entries. Only keys and bodies are taken into account since everything else
+ * is negligible in comparison.
+ * <p>
+ * The gzip form of a {@link CompressibleResponseBody} is usually computed after the response has been cached, so its
+ * size is estimated.
+ * </p>
+ */
+public class CachedResponseWeigher implements Weigher<Object, Object> {
+
+  /** Strings are assumed to take two bytes per character, which is an upper bound. */
+  private static final int BYTES_PER_CHAR = 2;
+  /** JSON-API documents compress very well, typically to less than an eighth of their size. */
+  private static final int GZIP_RATIO_ESTIMATE = 8;
+  /** Weight of values whose size can't be determined. */
+  private static final int UNKNOWN_VALUE_WEIGHT = 1024;
+
+  @Override
+  public int weigh(Object key, Object value) {
+    long weight = weighObject(key) + weighValue(value);
+    return (int) Math.min(weight, Integer.MAX_VALUE);
+  }
+
+  private static long weighValue(Object value) {
+    if (!(value instanceof ResponseEntity)) {
+      return UNKNOWN_VALUE_WEIGHT;
+    }
+    Object body = ((ResponseEntity<?>) value).getBody();
+    if (body instanceof CompressibleResponseBody) {
+      int contentLength = ((CompressibleResponseBody) body).getContent().length();
+      return (long) contentLength * BYTES_PER_CHAR + contentLength / GZIP_RATIO_ESTIMATE;
+    }
+    return weighObject(body);
+  }
+
+  private static long weighObject(Object object) {
+    if (object == null) {
+      return 0;
+    }
+    if (object instanceof CharSequence) {
+      return (long) ((CharSequence) object).length() * BYTES_PER_CHAR;
+    }
+    return UNKNOWN_VALUE_WEIGHT;
+  }
+}
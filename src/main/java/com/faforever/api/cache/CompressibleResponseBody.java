@@ -0,0 +1,59 @@
+package com.faforever.api.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A textual response body that keeps its gzip-compressed form once it has been computed, so that cached responses
+ * don't need to be compressed again for every client that accepts gzip. The compressed form is computed the first time
+ * it's requested.
+ *
+ * @see CompressibleResponseBodyAdvice
+ * @see CompressibleResponseBodyHttpMessageConverter
+ */
+public final class CompressibleResponseBody {
+
+  private final String content;
+  private volatile byte[] gzipped;
+
+  public CompressibleResponseBody(String content) {
+    this.content = content;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  /**
+   * Returns the gzip-compressed UTF-8 representation of the content. Concurrent first calls may compress the content
+   * more than once, but all later calls return the same array, which must not be modified.
+   */
+  public byte[] getGzipped() {
+    byte[] result = gzipped;
+    if (result == null) {
+      result = gzip(content.getBytes(UTF_8));
+      gzipped = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return content;
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+      gzipOutputStream.write(bytes);
+    } catch (IOException e) {
+      // Can't happen when writing to memory
+      throw new UncheckedIOException(e);
+    }
+    return outputStream.toByteArray();
+  }
+}
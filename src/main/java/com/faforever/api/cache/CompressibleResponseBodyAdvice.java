@@ -0,0 +1,88 @@
+package com.faforever.api.cache;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+import static com.faforever.api.cache.CompressibleResponseBodyHttpMessageConverter.GZIP;
+
+/**
+ * Selects the gzip representation of a {@link CompressibleResponseBody} if the client accepts it. Bodies smaller than
+ * {@link #MIN_COMPRESSED_LENGTH} are always sent uncompressed since compressing them wouldn't pay off. Responses always
+ * vary by {@code Accept-Encoding}, and their ETag must therefore be weak since it's shared by both representations.
+ */
+@ControllerAdvice
+public class CompressibleResponseBodyAdvice implements ResponseBodyAdvice<CompressibleResponseBody> {
+
+  static final int MIN_COMPRESSED_LENGTH = 2048;
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return CompressibleResponseBodyHttpMessageConverter.class.isAssignableFrom(converterType);
+  }
+
+  @Override
+  public CompressibleResponseBody beforeBodyWrite(CompressibleResponseBody body, MethodParameter returnType,
+                                                  MediaType selectedContentType,
+                                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                                  ServerHttpRequest request, ServerHttpResponse response) {
+    if (body == null) {
+      return body;
+    }
+
+    // Caches in between must not serve a compressed response to clients that don't accept it
+    response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (body.getContent().length() < MIN_COMPRESSED_LENGTH) {
+      return body;
+    }
+    if (acceptsGzip(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING))) {
+      response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+    }
+    return body;
+  }
+
+  /**
+   * Returns whether the specified {@code Accept-Encoding} header values allow gzip, that is if they contain {@code gzip}
+   * with a nonzero quality, or {@code *} with a nonzero quality and no explicit {@code gzip}.
+   */
+  static boolean acceptsGzip(List<String> acceptEncodingHeaders) {
+    if (acceptEncodingHeaders == null) {
+      return false;
+    }
+    boolean wildcardAccepted = false;
+    for (String header : acceptEncodingHeaders) {
+      for (String coding : header.split(",")) {
+        String[] parts = coding.split(";");
+        String name = parts[0].trim();
+        if (name.equalsIgnoreCase(GZIP)) {
+          return !hasZeroQuality(parts);
+        }
+        if (name.equals("*")) {
+          wildcardAccepted = !hasZeroQuality(parts);
+        }
+      }
+    }
+    return wildcardAccepted;
+  }
+
+  private static boolean hasZeroQuality(String[] codingParts) {
+    for (int i = 1; i < codingParts.length; i++) {
+      String parameter = codingParts[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,50 @@
+package com.faforever.api.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes a {@link CompressibleResponseBody} as UTF-8, or as its precomputed gzip representation if the response's
+ * {@code Content-Encoding} has been set to {@code gzip} by {@link CompressibleResponseBodyAdvice}. Reading is not
+ * supported.
+ */
+public class CompressibleResponseBodyHttpMessageConverter extends AbstractHttpMessageConverter<CompressibleResponseBody> {
+
+  static final String GZIP = "gzip";
+
+  public CompressibleResponseBodyHttpMessageConverter() {
+    super(UTF_8, MediaType.ALL);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return CompressibleResponseBody.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected CompressibleResponseBody readInternal(Class<? extends CompressibleResponseBody> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Reading " + clazz.getSimpleName() + " is not supported");
+  }
+
+  @Override
+  protected void writeInternal(CompressibleResponseBody body, HttpOutputMessage outputMessage) throws IOException {
+    byte[] bytes = GZIP.equals(outputMessage.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+      ? body.getGzipped()
+      : body.getContent().getBytes(UTF_8);
+    outputMessage.getHeaders().setContentLength(bytes.length);
+    outputMessage.getBody().write(bytes);
+  }
+}
@@ -0,0 +1,80 @@
+package com.faforever.api.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator that registers every cached JSON-API response with a {@link ResponseDependencyIndex}, so that it can
+ * be evicted selectively when a resource it contains changes.
+ * <p>
+ * Entries that are removed by the underlying cache itself (e.g. because they expired) need to be reported to {@link
+ * ResponseDependencyIndex#untrack(String, Object, Object)} by the underlying cache's removal listener.
+ * </p>
+ */
+public class DependencyTrackingCache implements Cache {
+
+  private final Cache delegate;
+  private final ResponseDependencyIndex dependencyIndex;
+
+  public DependencyTrackingCache(Cache delegate, ResponseDependencyIndex dependencyIndex) {
+    this.delegate = delegate;
+    this.dependencyIndex = dependencyIndex;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    return delegate.get(key, () -> {
+      T value = valueLoader.call();
+      dependencyIndex.track(delegate, key, value);
+      return value;
+    });
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    delegate.put(key, value);
+    dependencyIndex.track(delegate, key, value);
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    ValueWrapper existing = delegate.putIfAbsent(key, value);
+    if (existing == null) {
+      dependencyIndex.track(delegate, key, value);
+    }
+    return existing;
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+    dependencyIndex.untrack(getName(), key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+    dependencyIndex.untrackAll(getName());
+  }
+}
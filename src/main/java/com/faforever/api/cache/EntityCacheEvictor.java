@@ -0,0 +1,32 @@
+package com.faforever.api.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Evicts entities from Hibernate's second-level cache. This is needed for cached entities whose state is derived from
+ * other entities, like the latest version of a map, since Hibernate doesn't know when such state changes.
+ * <p>
+ * Like {@link ResponseDependencyIndex}, evictions requested within a transaction are deferred until it has been
+ * committed.
+ * </p>
+ */
+@Component
+@Slf4j
+public class EntityCacheEvictor {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  public EntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  public void evict(Class<?> entityClass, Object id) {
+    AfterCommit.run(() -> {
+      log.trace("Evicting {} with id {} from the entity cache", entityClass.getSimpleName(), id);
+      entityManagerFactory.getCache().evict(entityClass, id);
+    });
+  }
+}
@@ -0,0 +1,145 @@
+package com.faforever.api.cache;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.RSQLParserException;
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.NoArgRSQLVisitorAdapter;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import cz.jirutka.rsql.parser.ast.RSQLOperators;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds canonical cache keys for JSON-API GET requests, so that requests that are bound to produce the same response
+ * share a cache entry. To achieve this:
+ * <ul>
+ * <li>Parameters that aren't interpreted by the JSON-API (like cache busters or access tokens) are ignored</li>
+ * <li>Parameters are ordered by name</li>
+ * <li>{@code include} and {@code fields[...]} values are sorted and deduplicated</li>
+ * <li>{@code filter} values are normalized RSQL, with the operands of {@code and}/{@code or} and the arguments of
+ * {@code =in=}/{@code =out=} sorted and all arguments quoted</li>
+ * <li>Numeric {@code page[...]} values are normalized</li>
+ * </ul>
+ * {@code sort} is kept as is since its order is significant.
+ */
+public final class JsonApiCacheKey {
+
+  private static final Set<ComparisonOperator> RSQL_OPERATORS = Stream.concat(
+    RSQLOperators.defaultOperators().stream(),
+    Stream.of(
+      new ComparisonOperator("=isnull="),
+      new ComparisonOperator("=isempty="),
+      new ComparisonOperator("=notempty="),
+      new ComparisonOperator("=hasmember="),
+      new ComparisonOperator("=hasnomember="),
+      new ComparisonOperator("=ini=", true),
+      new ComparisonOperator("=outi=", true)
+    )
+  ).collect(Collectors.toSet());
+  private static final RSQLParser RSQL_PARSER = new RSQLParser(RSQL_OPERATORS);
+
+  private JsonApiCacheKey() {
+    // Utility class
+  }
+
+  public static String of(String path, Map<String, String> requestParams) {
+    SortedMap<String, String> normalizedParams = new TreeMap<>();
+    requestParams.forEach((name, value) -> {
+      if (value == null) {
+        return;
+      }
+      if (name.equals("include") || name.startsWith("fields[")) {
+        normalizedParams.put(name, normalizeList(value));
+      } else if (name.equals("filter") || name.startsWith("filter[")) {
+        normalizedParams.put(name, normalizeFilter(value));
+      } else if (name.startsWith("page[")) {
+        normalizedParams.put(name, normalizeNumber(value));
+      } else if (name.equals("sort")) {
+        normalizedParams.put(name, value.trim());
+      }
+    });
+
+    StringBuilder key = new StringBuilder(path);
+    char separator = '?';
+    for (Map.Entry<String, String> param : normalizedParams.entrySet()) {
+      key.append(separator).append(param.getKey()).append('=').append(param.getValue());
+      separator = '&';
+    }
+    return key.toString();
+  }
+
+  private static String normalizeList(String value) {
+    return Arrays.stream(value.split(","))
+      .map(String::trim)
+      .filter(element -> !element.isEmpty())
+      .distinct()
+      .sorted()
+      .collect(Collectors.joining(","));
+  }
+
+  private static String normalizeNumber(String value) {
+    try {
+      return String.valueOf(Integer.parseInt(value.trim()));
+    } catch (NumberFormatException e) {
+      return value;
+    }
+  }
+
+  /**
+   * Returns the canonical form of the specified RSQL expression, or the expression itself if it can't be parsed (in
+   * which case Elide will reject it anyway).
+   */
+  private static String normalizeFilter(String value) {
+    try {
+      return RSQL_PARSER.parse(value).accept(new CanonicalRsqlVisitor());
+    } catch (RSQLParserException e) {
+      return value;
+    }
+  }
+
+  private static class CanonicalRsqlVisitor extends NoArgRSQLVisitorAdapter<String> {
+
+    @Override
+    public String visit(AndNode node) {
+      return visitLogical(node, ";");
+    }
+
+    @Override
+    public String visit(OrNode node) {
+      return visitLogical(node, ",");
+    }
+
+    @Override
+    public String visit(ComparisonNode node) {
+      Stream<String> arguments = node.getArguments().stream().map(CanonicalRsqlVisitor::quote);
+      String operator = node.getOperator().getSymbol();
+      if (node.getOperator().isMultiValue()) {
+        if (operator.equals("=in=") || operator.equals("=out=")) {
+          arguments = arguments.sorted().distinct();
+        }
+        return node.getSelector() + operator + arguments.collect(Collectors.joining(",", "(", ")"));
+      }
+      return node.getSelector() + operator + arguments.collect(Collectors.joining(","));
+    }
+
+    private String visitLogical(LogicalNode node, String separator) {
+      return node.getChildren().stream()
+        .map(child -> child.accept(this))
+        .sorted()
+        .collect(Collectors.joining(separator, "(", ")"));
+    }
+
+    private static String quote(String argument) {
+      return '"' + argument.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.faforever.api.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Extracts the identifiers of all resources contained in a serialized JSON-API document, without building an object
+ * tree. Only the primary data and included resources are considered; relationships merely reference other resources,
+ * which doesn't make a document stale if those change.
+ */
+final class JsonApiDocumentScanner {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private JsonApiDocumentScanner() {
+    // Utility class
+  }
+
+  static ScanResult scan(String document) throws IOException {
+    ScanResult result = new ScanResult();
+    try (JsonParser parser = JSON_FACTORY.createParser(document)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return result;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+        if ("data".equals(fieldName) || "included".equals(fieldName)) {
+          if (token == JsonToken.START_ARRAY) {
+            result.collection |= "data".equals(fieldName);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+              readResourceIdentifier(parser, result.resourceIds);
+            }
+          } else if (token == JsonToken.START_OBJECT) {
+            readResourceIdentifier(parser, result.resourceIds);
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Reads the resource object the parser is positioned at and adds its identifier, if it has one. */
+  private static void readResourceIdentifier(JsonParser parser, Set<String> resourceIds) throws IOException {
+    String type = null;
+    String id = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      if ("type".equals(fieldName)) {
+        type = parser.getValueAsString();
+      } else if ("id".equals(fieldName)) {
+        id = parser.getValueAsString();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (type != null && id != null) {
+      resourceIds.add(ResponseDependencyIndex.resourceKey(type, id));
+    }
+  }
+
+  @Getter
+  static class ScanResult {
+    /** Identifiers of all contained resources as returned by {@link ResponseDependencyIndex#resourceKey(String, Object)}. */
+    private final Set<String> resourceIds = new HashSet<>();
+    /** Whether the primary data is a collection of resources rather than a single one. */
+    private boolean collection;
+  }
+}
@@ -0,0 +1,218 @@
+package com.faforever.api.cache;
+
+import com.faforever.api.cache.JsonApiDocumentScanner.ScanResult;
+import com.faforever.api.config.FafApiProperties;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of which resources are contained in which cached JSON-API responses, so that a change to a resource
+ * only evicts the responses that contain it instead of the whole cache.
+ * <p>
+ * A cached response depends on every resource it contains. Collection responses additionally depend on the collection
+ * of their cache's type, since new resources may have to appear in them. Changes to resources that are not yet
+ * contained in a collection response (but would be after the change) are not detected; such responses remain stale
+ * until they expire.
+ * </p>
+ * Evictions requested within a transaction are deferred until the transaction has been committed, so that the evicted
+ * responses can't be recomputed from uncommitted data. They are repeated once the
+ * {@link FafApiProperties.Database#getReadYourWritesWindow() read-your-writes window} has passed, since responses
+ * recomputed in the meantime may have been read from a replica that didn't have the change yet.
+ */
+@Component
+@Slf4j
+public class ResponseDependencyIndex {
+
+  private final Map<TrackedResponse, Tracking> trackingByResponse = new HashMap<>();
+  private final Map<String, Set<TrackedResponse>> responsesByDependency = new HashMap<>();
+  private final Duration repeatedEvictionDelay;
+  private final ScheduledExecutorService repeatedEvictionScheduler;
+
+  @Inject
+  public ResponseDependencyIndex(FafApiProperties properties) {
+    this(properties.getDatabase().getReadYourWritesWindow(), Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setNameFormat("ResponseEviction-%d").setDaemon(true).build()));
+  }
+
+  ResponseDependencyIndex(Duration repeatedEvictionDelay, ScheduledExecutorService repeatedEvictionScheduler) {
+    this.repeatedEvictionDelay = repeatedEvictionDelay;
+    this.repeatedEvictionScheduler = repeatedEvictionScheduler;
+  }
+
+  static String resourceKey(String type, Object id) {
+    return type + ':' + id;
+  }
+
+  private static String collectionKey(String type) {
+    return type + "[]";
+  }
+
+  /**
+   * Evicts all cached responses that contain the specified resource.
+   */
+  public void evictResource(String type, Object id) {
+    evictDependents(resourceKey(type, id));
+  }
+
+  /**
+   * Evicts all cached collection responses of the specified type, for instance because a resource of that type has
+   * been created.
+   */
+  public void evictCollections(String type) {
+    evictDependents(collectionKey(type));
+  }
+
+  /**
+   * Records the dependencies of a response that has just been put into the specified cache. Values that aren't
+   * JSON-API documents are not tracked.
+   */
+  void track(Cache cache, Object key, Object value) {
+    String document = getDocument(value);
+    if (document == null) {
+      return;
+    }
+
+    ScanResult scanResult;
+    try {
+      scanResult = JsonApiDocumentScanner.scan(document);
+    } catch (IOException e) {
+      log.warn("Could not determine dependencies of cached response '{}', it won't be evicted on changes", key, e);
+      return;
+    }
+
+    Set<String> dependencies = scanResult.getResourceIds();
+    if (scanResult.isCollection()) {
+      dependencies.add(collectionKey(cache.getName()));
+    }
+
+    TrackedResponse response = new TrackedResponse(cache.getName(), key);
+    synchronized (this) {
+      removeDependencies(response, trackingByResponse.put(response, new Tracking(cache, value, dependencies)));
+      dependencies.forEach(dependency -> responsesByDependency.computeIfAbsent(dependency, k -> new HashSet<>()).add(response));
+    }
+  }
+
+  /**
+   * Stops tracking the specified response, for instance because it has been evicted.
+   */
+  synchronized void untrack(String cacheName, Object key) {
+    TrackedResponse response = new TrackedResponse(cacheName, key);
+    removeDependencies(response, trackingByResponse.remove(response));
+  }
+
+  /**
+   * Stops tracking the specified response, but only if it hasn't been replaced by another value in the meantime. This
+   * is used for removals that are reported asynchronously.
+   */
+  public synchronized void untrack(String cacheName, Object key, Object value) {
+    TrackedResponse response = new TrackedResponse(cacheName, key);
+    Tracking tracking = trackingByResponse.get(response);
+    if (tracking != null && tracking.value == value) {
+      removeDependencies(response, trackingByResponse.remove(response));
+    }
+  }
+
+  /**
+   * Stops tracking all responses of the specified cache.
+   */
+  synchronized void untrackAll(String cacheName) {
+    new ArrayList<>(trackingByResponse.keySet()).stream()
+      .filter(response -> response.cacheName.equals(cacheName))
+      .forEach(response -> removeDependencies(response, trackingByResponse.remove(response)));
+  }
+
+  private static String getDocument(Object value) {
+    if (!(value instanceof ResponseEntity)) {
+      return null;
+    }
+    Object body = ((ResponseEntity<?>) value).getBody();
+    if (body instanceof CompressibleResponseBody) {
+      return ((CompressibleResponseBody) body).getContent();
+    }
+    return body instanceof String ? (String) body : null;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    repeatedEvictionScheduler.shutdownNow();
+  }
+
+  private void evictDependents(String dependency) {
+    AfterCommit.run(() -> {
+      evictDependentsNow(dependency);
+      repeatedEvictionScheduler.schedule(() -> evictDependentsNow(dependency),
+        repeatedEvictionDelay.toMillis(), TimeUnit.MILLISECONDS);
+    });
+  }
+
+  private void evictDependentsNow(String dependency) {
+    Map<TrackedResponse, Cache> evicted = new HashMap<>();
+    synchronized (this) {
+      Set<TrackedResponse> dependents = responsesByDependency.get(dependency);
+      if (dependents == null) {
+        return;
+      }
+      for (TrackedResponse response : new ArrayList<>(dependents)) {
+        Tracking tracking = trackingByResponse.remove(response);
+        removeDependencies(response, tracking);
+        evicted.put(response, tracking.cache);
+      }
+    }
+
+    log.debug("Evicting {} cached response(s) that depend on '{}'", evicted.size(), dependency);
+    evicted.forEach((response, cache) -> cache.evict(response.key));
+  }
+
+  private void removeDependencies(TrackedResponse response, Tracking tracking) {
+    if (tracking == null) {
+      return;
+    }
+    for (String dependency : tracking.dependencies) {
+      Set<TrackedResponse> dependents = responsesByDependency.get(dependency);
+      if (dependents != null && dependents.remove(response) && dependents.isEmpty()) {
+        responsesByDependency.remove(dependency);
+      }
+    }
+  }
+
+  @EqualsAndHashCode
+  private static class TrackedResponse {
+    private final String cacheName;
+    private final Object key;
+
+    private TrackedResponse(String cacheName, Object key) {
+      this.cacheName = cacheName;
+      this.key = key;
+    }
+  }
+
+  private static class Tracking {
+    /** The underlying cache, not the tracking one, so that evicting doesn't call back into this index. */
+    private final Cache cache;
+    private final Object value;
+    private final Set<String> dependencies;
+
+    private Tracking(Cache cache, Object value, Set<String> dependencies) {
+      this.cache = cache;
+      this.value = value;
+      this.dependencies = dependencies;
+    }
+  }
+}
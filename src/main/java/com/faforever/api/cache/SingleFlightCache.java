@@ -0,0 +1,146 @@
+package com.faforever.api.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache decorator that coalesces concurrent loads of the same key: only the first caller that misses computes the
+ * value, all others wait for its result instead of computing it again. This is used with {@code @Cacheable(sync =
+ * true)}.
+ * <p>
+ * Unlike Caffeine's own atomic computation, no lock of the underlying map is held while a value is loaded, so slow
+ * loads don't block unrelated keys.
+ * </p>
+ * Lookups are counted as {@code faf.cache.gets} by result ({@code hit}, {@code miss} or {@code coalesced}), and {@code
+ * faf.cache.hit.ratio} reports the share of lookups that didn't need to load a value.
+ */
+public class SingleFlightCache implements Cache {
+
+  private final Cache delegate;
+  private final ConcurrentMap<Object, CompletableFuture<Object>> loadsInFlight = new ConcurrentHashMap<>();
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter coalesced;
+
+  public SingleFlightCache(Cache delegate, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+
+    hits = getsCounter(meterRegistry, "hit");
+    misses = getsCounter(meterRegistry, "miss");
+    coalesced = getsCounter(meterRegistry, "coalesced");
+    Gauge.builder("faf.cache.hit.ratio", this, SingleFlightCache::getHitRatio)
+      .description("Share of cache lookups that were served without loading the value")
+      .tag("cache", delegate.getName())
+      .register(meterRegistry);
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    ValueWrapper cached = delegate.get(key);
+    if (cached != null) {
+      hits.increment();
+      return (T) cached.get();
+    }
+
+    CompletableFuture<Object> load = new CompletableFuture<>();
+    CompletableFuture<Object> existingLoad = loadsInFlight.putIfAbsent(key, load);
+    if (existingLoad != null) {
+      coalesced.increment();
+      return (T) await(key, valueLoader, existingLoad);
+    }
+
+    try {
+      // Another load may have completed between the first lookup and registering this one
+      cached = delegate.get(key);
+      T value;
+      if (cached != null) {
+        hits.increment();
+        value = (T) cached.get();
+      } else {
+        misses.increment();
+        value = valueLoader.call();
+        delegate.put(key, value);
+      }
+      load.complete(value);
+      return value;
+    } catch (Throwable e) {
+      // Waiting callers must be released in any case
+      load.completeExceptionally(e);
+      throw new ValueRetrievalException(key, valueLoader, e);
+    } finally {
+      loadsInFlight.remove(key, load);
+    }
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    return delegate.putIfAbsent(key, value);
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  private Counter getsCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("faf.cache.gets")
+      .description("Cache lookups by result")
+      .tag("cache", delegate.getName())
+      .tag("result", result)
+      .register(meterRegistry);
+  }
+
+  private double getHitRatio() {
+    double served = hits.count() + coalesced.count();
+    double total = served + misses.count();
+    return total == 0 ? Double.NaN : served / total;
+  }
+
+  private static Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      // Rethrow the loader's exception the same way as the loading caller does
+      throw new ValueRetrievalException(key, valueLoader, e.getCause());
+    }
+  }
+}
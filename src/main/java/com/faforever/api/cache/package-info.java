@@ -0,0 +1,4 @@
+/**
+ * Contains classes that extend Spring's cache abstraction, mainly for caching responses of the JSON-API.
+ */
+package com.faforever.api.cache;
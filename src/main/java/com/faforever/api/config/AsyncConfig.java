@@ -1,5 +1,7 @@
 package com.faforever.api.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurerSupport;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -29,4 +31,18 @@ public class AsyncConfig extends AsyncConfigurerSupport {
     executor.initialize();
     return executor;
   }
+
+  /**
+   * Processes uploaded maps and mods. Separate from the async executor so that long running uploads can't starve
+   * asynchronous requests. The queue is bounded by the upload service, which persists queued uploads.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "faf-api.upload", name = "enabled", havingValue = "true")
+  public ThreadPoolTaskExecutor uploadJobExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(fafApiProperties.getUpload().getWorkerPoolSize());
+    executor.setMaxPoolSize(fafApiProperties.getUpload().getWorkerPoolSize());
+    executor.setThreadNamePrefix("UploadJob-");
+    return executor;
+  }
 }
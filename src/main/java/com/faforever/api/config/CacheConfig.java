@@ -1,5 +1,10 @@
 package com.faforever.api.config;
 
+import com.faforever.api.cache.CacheBudgets;
+import com.faforever.api.cache.CachedResponseWeigher;
+import com.faforever.api.cache.DependencyTrackingCache;
+import com.faforever.api.cache.ResponseDependencyIndex;
+import com.faforever.api.cache.SingleFlightCache;
 import com.faforever.api.config.elide.ElideConfig;
 import com.faforever.api.data.domain.Achievement;
 import com.faforever.api.data.domain.Avatar;
@@ -12,6 +17,10 @@ import com.faforever.api.data.domain.MapStatistics;
 import com.faforever.api.data.domain.MapVersion;
 import com.faforever.api.data.domain.Mod;
 import com.faforever.api.data.domain.ModVersion;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCache;
@@ -25,14 +34,14 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.web.servlet.HandlerMapping;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.faforever.api.challonge.ChallongeController.CHALLONGE_READ_CACHE_NAME;
 import static com.faforever.api.featuredmods.FeaturedModService.FEATURED_MOD_FILES_CACHE_NAME;
-import static com.faforever.api.leaderboard.LeaderboardService.LEADERBOARD_GLOBAL_CACHE_NAME;
-import static com.faforever.api.leaderboard.LeaderboardService.LEADERBOARD_RANKED_1V1_CACHE_NAME;
 import static com.faforever.api.security.OAuthClientDetailsService.CLIENTS_CACHE_NAME;
 import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -43,33 +52,72 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @Profile(ApplicationProfile.PRODUCTION)
 public class CacheConfig {
 
+  private final ResponseDependencyIndex responseDependencyIndex;
+  private final MeterRegistry meterRegistry;
+  private final FafApiProperties properties;
+
+  public CacheConfig(ResponseDependencyIndex responseDependencyIndex, MeterRegistry meterRegistry, FafApiProperties properties) {
+    this.responseDependencyIndex = responseDependencyIndex;
+    this.meterRegistry = meterRegistry;
+    this.properties = properties;
+  }
+
   @Bean
   public CacheManager cacheManager() {
+    java.util.Map<String, Caffeine<Object, Object>> elideCacheBuilders = ImmutableMap.<String, Caffeine<Object, Object>>builder()
+      .put(Avatar.TYPE_NAME, newBuilder().expireAfterWrite(5, MINUTES))
+      .put(AvatarAssignment.TYPE_NAME, newBuilder().expireAfterWrite(5, MINUTES))
+      .put(Achievement.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES))
+      .put(Clan.TYPE_NAME, newBuilder().expireAfterWrite(5, MINUTES))
+      .put(Event.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES))
+      .put(FeaturedMod.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES))
+      .put(Map.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES))
+      .put(MapVersion.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES))
+      .put(MapStatistics.TYPE_NAME, newBuilder().expireAfterWrite(1, MINUTES))
+      .put(Mod.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES))
+      .put(ModVersion.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES))
+      .build();
+    java.util.Map<String, Long> budgets = getElideCacheBudgets(elideCacheBuilders.keySet());
+
+    List<Cache> caches = new ArrayList<>();
+    // Elide entity caches
+    caches.add(new SingleFlightCache(new CaffeineCache(ElideConfig.DEFAULT_CACHE_NAME, newBuilder().maximumSize(0).build()), meterRegistry));
+    elideCacheBuilders.forEach((name, builder) -> caches.add(elideCache(name, builder, budgets.get(name))));
+    // Other caches
+    caches.add(new CaffeineCache(CHALLONGE_READ_CACHE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()));
+    caches.add(new CaffeineCache(FEATURED_MOD_FILES_CACHE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()));
+    caches.add(new CaffeineCache(CLIENTS_CACHE_NAME, newBuilder().expireAfterWrite(5, SECONDS).build()));
+
     SimpleCacheManager cacheManager = new SimpleCacheManager();
-    cacheManager.setCaches(Arrays.asList(
-      // Elide entity caches
-      new CaffeineCache(ElideConfig.DEFAULT_CACHE_NAME, newBuilder().maximumSize(0).build()),
-      new CaffeineCache(Avatar.TYPE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()),
-      new CaffeineCache(AvatarAssignment.TYPE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()),
-      new CaffeineCache(Achievement.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES).build()),
-      new CaffeineCache(Clan.TYPE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()),
-      new CaffeineCache(Event.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES).build()),
-      new CaffeineCache(FeaturedMod.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES).build()),
-      new CaffeineCache(Map.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES).build()),
-      new CaffeineCache(MapVersion.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES).build()),
-      new CaffeineCache(MapStatistics.TYPE_NAME, newBuilder().expireAfterWrite(1, MINUTES).build()),
-      new CaffeineCache(Mod.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES).build()),
-      new CaffeineCache(ModVersion.TYPE_NAME, newBuilder().expireAfterWrite(60, MINUTES).build()),
-      // Other caches
-      new CaffeineCache(CHALLONGE_READ_CACHE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()),
-      new CaffeineCache(LEADERBOARD_RANKED_1V1_CACHE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()),
-      new CaffeineCache(LEADERBOARD_GLOBAL_CACHE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()),
-      new CaffeineCache(FEATURED_MOD_FILES_CACHE_NAME, newBuilder().expireAfterWrite(5, MINUTES).build()),
-      new CaffeineCache(CLIENTS_CACHE_NAME, newBuilder().expireAfterWrite(5, SECONDS).build())
-    ));
+    cacheManager.setCaches(caches);
     return cacheManager;
   }
 
+  /**
+   * Creates a cache for JSON-API responses whose entries are evicted selectively when a resource they contain changes.
+   * Concurrent misses of the same key are computed only once. The cache holds at most {@code maxBytes} of responses;
+   * beyond that, the least valuable ones are evicted.
+   *
+   * @see ResponseDependencyIndex
+   * @see SingleFlightCache
+   * @see CachedResponseWeigher
+   */
+  private Cache elideCache(String name, Caffeine<Object, Object> builder, long maxBytes) {
+    CaffeineCache cache = new CaffeineCache(name, builder
+      .maximumWeight(maxBytes)
+      .weigher(new CachedResponseWeigher())
+      .removalListener((key, value, cause) -> responseDependencyIndex.untrack(name, key, value))
+      .build());
+    return new SingleFlightCache(new DependencyTrackingCache(cache, responseDependencyIndex), meterRegistry);
+  }
+
+  private java.util.Map<String, Long> getElideCacheBudgets(Collection<String> cacheNames) {
+    java.util.Map<String, Long> explicitBudgets = properties.getDataCache().getTypes().entrySet().stream()
+      .filter(entry -> entry.getValue().getMaxSize() != null)
+      .collect(Collectors.toMap(java.util.Map.Entry::getKey, entry -> entry.getValue().getMaxSize()));
+    return CacheBudgets.distribute(properties.getDataCache().getMaxSize(), explicitBudgets, cacheNames);
+  }
+
   /**
    * Returns a cache resolver that resolves cache names by JSON API type names. For instance, the type "map" will be
    * resolved to a cache named "map". If no dedicated cache config is available, the "default" config will be applied.
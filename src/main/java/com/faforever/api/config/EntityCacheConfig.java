@@ -0,0 +1,117 @@
+package com.faforever.api.config;
+
+import com.faforever.api.config.FafApiProperties.EntityCache;
+import com.faforever.api.config.FafApiProperties.EntityCacheRegion;
+import com.faforever.api.data.domain.Game;
+import com.faforever.api.data.domain.GamePlayerStats;
+import com.faforever.api.data.domain.GameReviewsSummary;
+import com.faforever.api.data.domain.Ladder1v1Map;
+import com.faforever.api.data.domain.Map;
+import com.faforever.api.data.domain.MapStatistics;
+import com.faforever.api.data.domain.MapVersionReviewsSummary;
+import com.faforever.api.data.domain.MapVersionStatistics;
+import com.faforever.api.data.domain.Mod;
+import com.faforever.api.data.domain.ModVersionReviewsSummary;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.google.common.collect.ImmutableList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.Cache;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Configures the regions of Hibernate's second-level cache, which is backed by Caffeine through JCache. Cached entities
+ * are shared between all requests, no matter which JSON-API query loaded them.
+ * <p>
+ * Hibernate creates unbounded regions that never expire for entities it doesn't find a region for, so every entity or
+ * collection annotated with {@link Cache} must be listed in {@link #CACHED_ENTITIES}. Only immutable entities are
+ * cached, and only collections of cached entities; caching the IDs of entities that then have to be loaded one by
+ * one would do more harm than good.
+ * </p>
+ */
+@Configuration
+@Slf4j
+public class EntityCacheConfig {
+
+  static final String ENTITY_CACHE_MANAGER = "entityCacheManager";
+
+  private static final List<Class<?>> CACHED_ENTITIES = ImmutableList.of(
+    Game.class,
+    GamePlayerStats.class,
+    GameReviewsSummary.class,
+    Ladder1v1Map.class,
+    Map.class,
+    MapStatistics.class,
+    MapVersionReviewsSummary.class,
+    MapVersionStatistics.class,
+    Mod.class,
+    ModVersionReviewsSummary.class
+  );
+  private static final String DOMAIN_PACKAGE = Game.class.getPackage().getName() + ".";
+
+  /**
+   * Creates the cache manager that Hibernate's {@code JCacheRegionFactory} picks up, with all regions already set up.
+   */
+  @Bean(name = ENTITY_CACHE_MANAGER)
+  public CacheManager entityCacheManager(FafApiProperties properties, MeterRegistry meterRegistry) {
+    CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+    EntityCache entityCache = properties.getEntityCache();
+
+    for (String regionName : getRegionNames()) {
+      EntityCacheRegion region = entityCache.getRegions().get(regionName.substring(DOMAIN_PACKAGE.length()));
+      long maxSize = region != null && region.getMaxSize() != null ? region.getMaxSize() : entityCache.getMaxSize();
+      Duration timeToLive = region != null && region.getTimeToLive() != null ? region.getTimeToLive() : entityCache.getTimeToLive();
+
+      CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+      configuration.setMaximumSize(OptionalLong.of(maxSize));
+      configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+      // Hibernate's cache entries are never modified, so there's no need to copy them
+      configuration.setStoreByValue(false);
+      configuration.setStatisticsEnabled(true);
+
+      log.debug("Creating entity cache region '{}' with maximum size {} and time to live {}", regionName, maxSize, timeToLive);
+      JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(regionName, configuration));
+    }
+    return cacheManager;
+  }
+
+  /**
+   * Returns the default region names of the cached entities and their cached collections, that is the entity's class
+   * name and, for collections, the class name followed by the property name.
+   */
+  private static List<String> getRegionNames() {
+    List<String> regionNames = new ArrayList<>();
+    for (Class<?> entityClass : CACHED_ENTITIES) {
+      regionNames.add(entityClass.getName());
+      for (Method method : entityClass.getMethods()) {
+        if (method.isAnnotationPresent(Cache.class) && method.getName().startsWith("get")) {
+          String propertyName = Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4);
+          regionNames.add(entityClass.getName() + "." + propertyName);
+        }
+      }
+    }
+    return regionNames;
+  }
+
+  /**
+   * Makes sure the regions have been created before Hibernate starts.
+   */
+  @Configuration
+  static class EntityManagerFactoryDependsOnEntityCacheManager extends EntityManagerFactoryDependsOnPostProcessor {
+    EntityManagerFactoryDependsOnEntityCacheManager() {
+      super(ENTITY_CACHE_MANAGER);
+    }
+  }
+}
@@ -7,6 +7,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Set;
 
 @Data
@@ -39,6 +41,11 @@ public class FafApiProperties {
   private Anope anope = new Anope();
   private Rating rating = new Rating();
   private Tutorial tutorial = new Tutorial();
+  private Leaderboard leaderboard = new Leaderboard();
+  private DataCache dataCache = new DataCache();
+  private EntityCache entityCache = new EntityCache();
+  private DataQuery dataQuery = new DataQuery();
+  private Upload upload = new Upload();
 
   @Data
   public static class OAuth2 {
@@ -96,6 +103,11 @@ public class FafApiProperties {
      * The size (in pixels) of large map previews.
      */
     private int previewSizeLarge = 512;
+    /**
+     * Directories of map previews in further sizes (in pixels), for instance {@code 1024: static/map_previews/xlarge}.
+     * The preview is rendered once in the largest of all sizes and scaled down to the others.
+     */
+    private java.util.Map<Integer, Path> additionalPreviewDirectories = new HashMap<>();
     /**
      * Allowed file extensions of uploaded maps.
      */
@@ -217,6 +229,15 @@ public class FafApiProperties {
      * The database schema version required to run this application.
      */
     private String schemaVersion;
+    /**
+     * How often a statement needs to be executed within a single Elide request to be reported as a likely N+1 select.
+     */
+    private int repeatedStatementThreshold = 10;
+    /**
+     * How long read-only requests of a user are served by the primary database after the user changed data. This
+     * should exceed the usual replication lag. Only relevant if a replica is configured.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
   }
 
   @Data
@@ -250,4 +271,151 @@ public class FafApiProperties {
   public static class Tutorial {
     private String thumbnailUrlFormat;
   }
+
+  @Data
+  public static class Leaderboard {
+    /**
+     * How often the database is polled for rating, ban and name changes that need to be applied to the in-memory
+     * leaderboards, in ISO-8601 format.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+    /**
+     * How often the in-memory leaderboards are completely reloaded from the database, in ISO-8601 format.
+     */
+    private Duration fullReloadInterval = Duration.ofHours(1);
+    /**
+     * How far polling for changes looks back before the last refresh, to catch changes that were committed late. Since
+     * full reloads may read from a database replica, this must also exceed the replication lag.
+     */
+    private Duration changeDetectionOverlap = Duration.ofMinutes(2);
+  }
+
+  @Data
+  public static class DataCache {
+    /**
+     * How many bytes all cached {@code /data} responses may occupy together. Types without a {@code max-size} of their
+     * own share what's left after subtracting the configured sizes.
+     */
+    private long maxSize = 256L * 1024 * 1024;
+    /**
+     * Client-side caching of {@code /data} responses by JSON-API type name, for instance {@code map}. Responses of types
+     * that aren't configured here must be revalidated by clients on every use. Type names containing upper case letters
+     * need to be quoted in brackets, like {@code "[featuredMod]"}.
+     */
+    private java.util.Map<String, DataCacheType> types = new HashMap<>();
+  }
+
+  @Data
+  public static class DataCacheType {
+    /**
+     * How long clients may use a response without revalidating it, in ISO-8601 format. If not set, clients need to
+     * revalidate every time, which is cheap since unchanged responses are answered with {@code 304 Not Modified}.
+     */
+    private Duration clientMaxAge;
+    /**
+     * How many bytes cached responses of this type may occupy. If not set, the type gets its share of the remaining
+     * {@link DataCache#maxSize}.
+     */
+    private Long maxSize;
+  }
+
+  @Data
+  public static class EntityCache {
+    /**
+     * How many entities or collections each region of Hibernate's second-level cache may hold, unless configured
+     * otherwise in {@link #regions}.
+     */
+    private long maxSize = 10_000;
+    /**
+     * How long cached entities are used before they're loaded again, unless configured otherwise in {@link #regions}.
+     * Since the cached entities may be changed by other applications, this is the maximum staleness.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+    /**
+     * Settings of individual regions by entity name, for instance {@code "[Game]"}, or for collections by entity and
+     * property name, for instance {@code "[Game.playerStats]"}.
+     */
+    private java.util.Map<String, EntityCacheRegion> regions = new HashMap<>();
+  }
+
+  @Data
+  public static class EntityCacheRegion {
+    private Long maxSize;
+    private Duration timeToLive;
+  }
+
+  @Data
+  public static class DataQuery {
+    /**
+     * The maximum estimated cost of a {@code /data} GET request, which is roughly the number of rows the database needs
+     * to visit. Requests that rely on the default page size are served smaller pages to stay within this budget, others
+     * are rejected.
+     */
+    private int maxCost = 20_000;
+    /**
+     * The smallest page size requests are reduced to in order to stay within {@link #maxCost}. Requests that exceed the
+     * budget even with this page size are rejected.
+     */
+    private int minPageSize = 10;
+    /**
+     * How long all SQL statements of a {@code /data} request may take together, in ISO-8601 format. Hibernate applies
+     * the remaining time as JDBC statement timeout, so that the database cancels statements that take longer.
+     */
+    private Duration transactionTimeout = Duration.ofSeconds(30);
+    /**
+     * How {@code page[totals]} of collection requests are answered.
+     */
+    private PageTotalsMode pageTotals = PageTotalsMode.EXACT;
+    /**
+     * How long counted totals are reused for requests with the same path and filter, in ISO-8601 format. Only relevant
+     * if {@link #pageTotals} is {@link PageTotalsMode#APPROXIMATE}.
+     */
+    private Duration pageTotalsTimeToLive = Duration.ofMinutes(1);
+    /**
+     * JSON-API types whose unfiltered totals are estimated by the database instead of counted, for instance {@code
+     * game}. Only relevant if {@link #pageTotals} is {@link PageTotalsMode#APPROXIMATE}.
+     */
+    private Set<String> estimatedTotalsTypes = new HashSet<>();
+  }
+
+  @Data
+  public static class Upload {
+    /**
+     * Whether uploaded maps and mods are queued and processed in the background. Requires the {@code upload_job}
+     * table. If disabled, uploads are processed within their request.
+     */
+    private boolean enabled;
+    /**
+     * The directory in which uploaded maps and mods are kept until they have been processed. Must survive restarts,
+     * since pending uploads are resumed on startup. Uploads are processed by the instance that accepted them; other
+     * instances only take over the uploads of a stopped instance if this directory is shared by all instances.
+     */
+    private Path directory = Paths.get("uploads");
+    /**
+     * The number of uploads that are processed concurrently. Independent of {@link Async}, since processing an upload
+     * takes several seconds of CPU time.
+     */
+    private int workerPoolSize = 2;
+    /**
+     * The maximum number of uploads waiting to be processed. Further uploads are rejected.
+     */
+    private int queueCapacity = 50;
+    /**
+     * How long the status of processed uploads can be queried, in ISO-8601 format.
+     */
+    private Duration finishedJobTimeToLive = Duration.ofDays(7);
+    /**
+     * How long an upload is reserved for the instance that accepted or is processing it, in ISO-8601 format. The lease
+     * is renewed every minute until the upload has been processed, so this must be well above a minute. Uploads whose
+     * lease expired, for instance because their instance has been stopped, are processed again.
+     */
+    private Duration processingLease = Duration.ofMinutes(5);
+  }
+
+  public enum PageTotalsMode {
+    /** Totals are counted for every request. */
+    EXACT,
+    /** Totals are reused or estimated if possible, and flagged as approximate if they weren't counted. */
+    APPROXIMATE
+  }
 }
@@ -1,18 +1,31 @@
 package com.faforever.api.config;
 
+import com.faforever.api.cache.CompressibleResponseBodyHttpMessageConverter;
+import com.faforever.api.config.datasource.ReadYourWritesInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @EnableWebMvc
 @Configuration
 public class MvcConfig implements WebMvcConfigurer {
 
+  private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+  public MvcConfig(ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor) {
+    this.readYourWritesInterceptor = readYourWritesInterceptor;
+  }
+
   @Override
   public void addViewControllers(ViewControllerRegistry registry) {
     registry.addViewController("/login").setViewName("login");
@@ -37,4 +50,15 @@ public class MvcConfig implements WebMvcConfigurer {
     // Turn off suffix-based content negotiation
     configurer.favorPathExtension(false);
   }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    // Not available in web slice tests
+    readYourWritesInterceptor.ifAvailable(registry::addInterceptor);
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(0, new CompressibleResponseBodyHttpMessageConverter());
+  }
 }
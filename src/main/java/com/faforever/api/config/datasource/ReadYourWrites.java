@@ -0,0 +1,27 @@
+package com.faforever.api.config.datasource;
+
+/**
+ * Holds whether the current thread has to read from the primary database, even in read-only transactions. This is
+ * the case for requests of users who recently changed data, since the replica may not have caught up with their
+ * changes yet.
+ */
+public final class ReadYourWrites {
+
+  private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+  private ReadYourWrites() {
+    // Utility class
+  }
+
+  public static boolean isActive() {
+    return ACTIVE.get() != null;
+  }
+
+  public static void activate() {
+    ACTIVE.set(Boolean.TRUE);
+  }
+
+  public static void deactivate() {
+    ACTIVE.remove();
+  }
+}
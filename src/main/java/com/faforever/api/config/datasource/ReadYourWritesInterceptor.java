@@ -0,0 +1,72 @@
+package com.faforever.api.config.datasource;
+
+import com.faforever.api.config.FafApiProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Remembers users who successfully changed data and makes their requests {@link ReadYourWrites read from the primary
+ * database} for {@link FafApiProperties.Database#getReadYourWritesWindow() a while}, so that they see their own changes
+ * even if the replica lags behind. Their requests also bypass the response cache, which may still hold responses read
+ * from the replica.
+ */
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+  private static final Set<HttpMethod> MUTATING_METHODS = EnumSet.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+  /** Names of the users who recently changed data. */
+  private final Cache<String, Boolean> recentWriters;
+
+  public ReadYourWritesInterceptor(FafApiProperties properties) {
+    recentWriters = Caffeine.newBuilder()
+      .expireAfterWrite(properties.getDatabase().getReadYourWritesWindow())
+      .build();
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    String userName = getUserName();
+    if (userName != null && recentWriters.getIfPresent(userName) != null) {
+      ReadYourWrites.activate();
+    }
+    return true;
+  }
+
+  /**
+   * Asynchronous requests are completed on another thread, so the flag has to be cleared before this one is reused.
+   */
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    ReadYourWrites.deactivate();
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    ReadYourWrites.deactivate();
+
+    HttpMethod method = HttpMethod.resolve(request.getMethod());
+    if (ex != null || response.getStatus() >= 400 || method == null || !MUTATING_METHODS.contains(method)) {
+      return;
+    }
+    String userName = getUserName();
+    if (userName != null) {
+      recentWriters.put(userName, Boolean.TRUE);
+    }
+  }
+
+  private static String getUserName() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+  }
+}
@@ -0,0 +1,71 @@
+package com.faforever.api.config.datasource;
+
+import com.faforever.api.config.datasource.ReplicaRoutingDataSource.Target;
+import com.google.common.collect.ImmutableMap;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sets up a second connection pool to a database replica if {@code spring.datasource.replica.url} is configured.
+ * Read-only transactions that {@link ReplicaReads opted in}, like those of Elide GET requests, use the replica while
+ * everything else uses the primary database configured by {@code spring.datasource}. The replica's pool is configured by {@code
+ * spring.datasource.replica.hikari}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @Primary
+  @ConfigurationProperties("spring.datasource")
+  public DataSourceProperties dataSourceProperties() {
+    return new DataSourceProperties();
+  }
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.replica")
+  public DataSourceProperties replicaDataSourceProperties() {
+    return new DataSourceProperties();
+  }
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    return createHikariDataSource(dataSourceProperties, "primary");
+  }
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(@Qualifier("replicaDataSourceProperties") DataSourceProperties replicaDataSourceProperties) {
+    return createHikariDataSource(replicaDataSourceProperties, "replica");
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                               @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+    ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource();
+    routingDataSource.setTargetDataSources(ImmutableMap.of(
+      Target.PRIMARY, primaryDataSource,
+      Target.REPLICA, replicaDataSource
+    ));
+    routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+    routingDataSource.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  private static HikariDataSource createHikariDataSource(DataSourceProperties properties, String poolName) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName(poolName);
+    return dataSource;
+  }
+}
@@ -0,0 +1,55 @@
+package com.faforever.api.config.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds whether read-only transactions of the current thread may be served by the database replica. Reads have to opt
+ * in, since most of them can't tolerate replication lag: repositories' inherited finders, for instance, run in
+ * read-only transactions as well, and are used by background jobs and right after writes.
+ */
+public final class ReplicaReads {
+
+  private static final ThreadLocal<Boolean> ALLOWED = new ThreadLocal<>();
+
+  private ReplicaReads() {
+    // Utility class
+  }
+
+  public static boolean isAllowed() {
+    return ALLOWED.get() != null;
+  }
+
+  /**
+   * Performs the specified work, allowing its read-only transactions to read from the replica.
+   */
+  public static <T> T call(Supplier<T> work) {
+    if (isAllowed()) {
+      return work.get();
+    }
+    ALLOWED.set(Boolean.TRUE);
+    try {
+      return work.get();
+    } finally {
+      ALLOWED.remove();
+    }
+  }
+
+  /**
+   * Allows the current transaction to read from the replica if it's read-only, until it completes.
+   */
+  public static void allowForCurrentTransaction() {
+    if (isAllowed() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    ALLOWED.set(Boolean.TRUE);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCompletion(int status) {
+        ALLOWED.remove();
+      }
+    });
+  }
+}
@@ -0,0 +1,30 @@
+package com.faforever.api.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections of read-only transactions that are {@link ReplicaReads allowed to read from the replica} to the
+ * replica and all others to the primary database, unless the current request needs to {@link ReadYourWrites read its
+ * own writes}.
+ * <p>
+ * Spring marks a transaction as read-only only after its connection has been requested, so this data source needs to
+ * be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that defers getting the
+ * connection until the first statement is executed.
+ * </p>
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Target {
+    PRIMARY, REPLICA
+  }
+
+  @Override
+  protected Target determineCurrentLookupKey() {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && ReplicaReads.isAllowed()
+      && !ReadYourWrites.isActive()) {
+      return Target.REPLICA;
+    }
+    return Target.PRIMARY;
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains classes to configure the data sources and route read-only work to a database replica.
+ */
+package com.faforever.api.config.datasource;
@@ -1,5 +1,6 @@
 package com.faforever.api.config.elide;
 
+import com.faforever.api.config.FafApiProperties;
 import com.faforever.api.data.checks.BooleanChange;
 import com.faforever.api.data.checks.IsAuthenticated;
 import com.faforever.api.data.checks.IsClanMembershipDeletable;
@@ -39,9 +40,8 @@ public class ElideConfig {
   public static final String DEFAULT_CACHE_NAME = "Elide.defaultCache";
 
   @Bean
-  public Elide elide(SpringHibernateDataStore springHibernateDataStore, ObjectMapper objectMapper, EntityDictionary entityDictionary, ExtendedAuditLogger extendedAuditLogger) {
-    RSQLFilterDialect rsqlFilterDialect = new RSQLFilterDialect(entityDictionary, new CaseSensitivityStrategy.UseColumnCollation());
-
+  public Elide elide(SpringHibernateDataStore springHibernateDataStore, ObjectMapper objectMapper, EntityDictionary entityDictionary,
+                     ExtendedAuditLogger extendedAuditLogger, RSQLFilterDialect rsqlFilterDialect) {
     registerAdditionalConverters();
 
     return new Elide(new ElideSettingsBuilder(springHibernateDataStore)
@@ -53,11 +53,21 @@ public class ElideConfig {
       .build());
   }
 
+  @Bean
+  public RSQLFilterDialect rsqlFilterDialect(EntityDictionary entityDictionary) {
+    return new RSQLFilterDialect(entityDictionary, new CaseSensitivityStrategy.UseColumnCollation());
+  }
+
   @Bean
   SpringHibernateDataStore springHibernateDataStore(PlatformTransactionManager txManager,
                                                     AutowireCapableBeanFactory beanFactory,
-                                                    EntityManager entityManager) {
-    return new SpringHibernateDataStore(txManager, beanFactory, entityManager, false, true, ScrollMode.FORWARD_ONLY);
+                                                    EntityManager entityManager,
+                                                    SqlStatisticsReporter sqlStatisticsReporter,
+                                                    FafApiProperties fafApiProperties) {
+    return new SpringHibernateDataStore(txManager, beanFactory, entityManager, false, true, ScrollMode.FORWARD_ONLY,
+      (session, transactionManager, txStatus, isScrollEnabled, scrollMode) -> new SqlAccountingHibernateTransaction(
+        session, transactionManager, txStatus, isScrollEnabled, scrollMode, sqlStatisticsReporter),
+      (int) fafApiProperties.getDataQuery().getTransactionTimeout().getSeconds());
   }
 
   /**
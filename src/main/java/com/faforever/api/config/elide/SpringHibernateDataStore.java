@@ -16,6 +16,7 @@
 
 package com.faforever.api.config.elide;
 
+import com.faforever.api.config.datasource.ReplicaReads;
 import com.google.common.base.Preconditions;
 import com.yahoo.elide.core.DataStore;
 import com.yahoo.elide.core.DataStoreTransaction;
@@ -51,6 +52,7 @@ public class SpringHibernateDataStore implements DataStore {
   protected final boolean isScrollEnabled;
   protected final ScrollMode scrollMode;
   protected final HibernateTransactionSupplier transactionSupplier;
+  protected final int transactionTimeout;
 
   /**
    * Constructor.
@@ -68,7 +70,7 @@ public class SpringHibernateDataStore implements DataStore {
                                   boolean isScrollEnabled,
                                   ScrollMode scrollMode) {
     this(txManager, beanFactory, entityManager, isSpringDependencyInjection,
-      isScrollEnabled, scrollMode, SpringHibernateTransaction::new);
+      isScrollEnabled, scrollMode, SpringHibernateTransaction::new, TransactionDefinition.TIMEOUT_DEFAULT);
   }
 
   /**
@@ -81,6 +83,7 @@ public class SpringHibernateDataStore implements DataStore {
    * @param isScrollEnabled Whether or not scrolling is enabled on driver
    * @param scrollMode Scroll mode to use for scrolling driver
    * @param transactionSupplier Supplier for transaction
+   * @param transactionTimeout Timeout of each transaction in seconds, which Hibernate applies to every statement
    */
   protected SpringHibernateDataStore(PlatformTransactionManager txManager,
                                      AutowireCapableBeanFactory beanFactory,
@@ -88,7 +91,8 @@ public class SpringHibernateDataStore implements DataStore {
                                      boolean isSpringDependencyInjection,
                                      boolean isScrollEnabled,
                                      ScrollMode scrollMode,
-                                     HibernateTransactionSupplier transactionSupplier) {
+                                     HibernateTransactionSupplier transactionSupplier,
+                                     int transactionTimeout) {
     this.txManager = txManager;
     this.beanFactory = beanFactory;
     this.entityManager = entityManager;
@@ -96,6 +100,7 @@ public class SpringHibernateDataStore implements DataStore {
     this.isScrollEnabled = isScrollEnabled;
     this.scrollMode = scrollMode;
     this.transactionSupplier = transactionSupplier;
+    this.transactionTimeout = transactionTimeout;
   }
 
   @Override
@@ -134,11 +139,29 @@ public class SpringHibernateDataStore implements DataStore {
 
   @Override
   public DataStoreTransaction beginTransaction() {
+    return beginTransaction(false);
+  }
+
+  /**
+   * Begins a read-only transaction, which Elide uses for GET requests. These transactions may be served by a database
+   * replica.
+   */
+  @Override
+  public DataStoreTransaction beginReadTransaction() {
+    return beginTransaction(true);
+  }
+
+  private DataStoreTransaction beginTransaction(boolean readOnly) {
     // begin a spring transaction
     DefaultTransactionDefinition def = new DefaultTransactionDefinition();
-    def.setName("elide transaction");
+    def.setName(readOnly ? "elide read transaction" : "elide transaction");
     def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+    def.setReadOnly(readOnly);
+    def.setTimeout(transactionTimeout);
     TransactionStatus txStatus = txManager.getTransaction(def);
+    if (readOnly) {
+      ReplicaReads.allowForCurrentTransaction();
+    }
 
     Session session = entityManager.unwrap(Session.class);
     Preconditions.checkNotNull(session);
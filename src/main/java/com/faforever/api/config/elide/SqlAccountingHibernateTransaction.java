@@ -0,0 +1,57 @@
+package com.faforever.api.config.elide;
+
+import com.yahoo.elide.core.RequestScope;
+import org.hibernate.ScrollMode;
+import org.hibernate.Session;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.IOException;
+
+/**
+ * Transaction that accounts for all SQL statements executed from its start until it's closed, and reports them to a
+ * {@link SqlStatisticsReporter}. Since Elide uses one transaction per request, this covers a whole request.
+ */
+class SqlAccountingHibernateTransaction extends SpringHibernateTransaction {
+
+  private final Session session;
+  private final SqlStatisticsReporter reporter;
+  private final SqlStatistics statistics;
+
+  SqlAccountingHibernateTransaction(Session session,
+                                    PlatformTransactionManager txManager,
+                                    TransactionStatus txStatus,
+                                    boolean isScrollEnabled,
+                                    ScrollMode scrollMode,
+                                    SqlStatisticsReporter reporter) {
+    super(session, txManager, txStatus, isScrollEnabled, scrollMode);
+    this.session = session;
+    this.reporter = reporter;
+    statistics = SqlStatistics.start();
+    session.addEventListeners(statistics);
+  }
+
+  @Override
+  public void commit(RequestScope scope) {
+    // The session may be closed along with the transaction
+    recordEntityCount();
+    super.commit(scope);
+  }
+
+  @Override
+  public void close() throws IOException {
+    recordEntityCount();
+    try {
+      super.close();
+    } finally {
+      statistics.stop();
+      reporter.report(statistics);
+    }
+  }
+
+  private void recordEntityCount() {
+    if (session.isOpen()) {
+      statistics.setEntityCount(session.getStatistics().getEntityCount());
+    }
+  }
+}
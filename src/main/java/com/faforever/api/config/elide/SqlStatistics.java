@@ -0,0 +1,126 @@
+package com.faforever.api.config.elide;
+
+import org.hibernate.BaseSessionEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Accounts for the SQL statements executed on behalf of a single Elide request. Statements are reported by {@link
+ * SqlStatisticsStatementInspector} for the statistics that are current on the executing thread; execution times are
+ * measured by registering the statistics as a listener of the Hibernate session.
+ * <p>
+ * Hibernate doesn't expose the number of rows read, so the number of entities in the session is used instead.
+ * </p>
+ */
+class SqlStatistics extends BaseSessionEventListener {
+
+  private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+  /** Matches parameter lists like {@code ?, ?, ?} as generated for batch fetching. */
+  private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+  private final SqlStatistics previous;
+  private final Map<String, Integer> statementCountsByShape = new HashMap<>();
+  private boolean active = true;
+  private int statementCount;
+  private int entityCount;
+  private long jdbcNanos;
+  private long executionStartedAt;
+
+  private SqlStatistics(SqlStatistics previous) {
+    this.previous = previous;
+  }
+
+  /**
+   * Starts accounting for the current thread until {@link #stop()} is called.
+   */
+  static SqlStatistics start() {
+    SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+    CURRENT.set(statistics);
+    return statistics;
+  }
+
+  static SqlStatistics current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Returns the statement with parameter lists collapsed to a single parameter, so that statements that only differ in
+   * the number of batch-fetched IDs have the same shape.
+   */
+  static String shapeOf(String sql) {
+    return PARAMETER_LIST.matcher(sql).replaceAll("?");
+  }
+
+  void stop() {
+    active = false;
+    if (CURRENT.get() != this) {
+      return;
+    }
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  void statementPrepared(String sql) {
+    if (!active) {
+      return;
+    }
+    statementCount++;
+    statementCountsByShape.merge(shapeOf(sql), 1, Integer::sum);
+  }
+
+  void setEntityCount(int entityCount) {
+    this.entityCount = Math.max(this.entityCount, entityCount);
+  }
+
+  int getStatementCount() {
+    return statementCount;
+  }
+
+  int getEntityCount() {
+    return entityCount;
+  }
+
+  long getJdbcNanos() {
+    return jdbcNanos;
+  }
+
+  /**
+   * Returns the statement shapes that have been executed at least {@code threshold} times, with their counts. These
+   * usually indicate N+1 selects.
+   */
+  Map<String, Integer> getRepeatedStatements(int threshold) {
+    return statementCountsByShape.entrySet().stream()
+      .filter(entry -> entry.getValue() >= threshold)
+      .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    executionStartedAt = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    if (active) {
+      jdbcNanos += System.nanoTime() - executionStartedAt;
+    }
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    executionStartedAt = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    if (active) {
+      jdbcNanos += System.nanoTime() - executionStartedAt;
+    }
+  }
+}
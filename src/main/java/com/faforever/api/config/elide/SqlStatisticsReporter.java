@@ -0,0 +1,61 @@
+package com.faforever.api.config.elide;
+
+import com.faforever.api.config.FafApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the {@link SqlStatistics} of Elide requests as metrics and logs statements that have been repeated often
+ * enough to indicate N+1 selects. Log messages carry the request ID like any other, so they can be related to the
+ * request that caused them.
+ */
+@Component
+@Slf4j
+class SqlStatisticsReporter {
+
+  private final FafApiProperties properties;
+  private final DistributionSummary statements;
+  private final DistributionSummary entities;
+  private final Timer jdbcTime;
+  private final Counter repeatedStatements;
+
+  SqlStatisticsReporter(FafApiProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+
+    statements = DistributionSummary.builder("faf.elide.request.statements")
+      .description("SQL statements executed per Elide request")
+      .publishPercentiles(0.5, 0.95, 0.99)
+      .register(meterRegistry);
+    entities = DistributionSummary.builder("faf.elide.request.entities")
+      .description("Entities loaded per Elide request")
+      .publishPercentiles(0.5, 0.95, 0.99)
+      .register(meterRegistry);
+    jdbcTime = Timer.builder("faf.elide.request.jdbc")
+      .description("Time spent executing SQL statements per Elide request")
+      .publishPercentiles(0.5, 0.95, 0.99)
+      .register(meterRegistry);
+    repeatedStatements = Counter.builder("faf.elide.request.repeated.statements")
+      .description("Statements that have been executed repeatedly within a single Elide request, likely N+1 selects")
+      .register(meterRegistry);
+  }
+
+  void report(SqlStatistics statistics) {
+    statements.record(statistics.getStatementCount());
+    entities.record(statistics.getEntityCount());
+    jdbcTime.record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+    log.debug("Elide request executed {} SQL statement(s) in {} ms and loaded {} entities",
+      statistics.getStatementCount(), TimeUnit.NANOSECONDS.toMillis(statistics.getJdbcNanos()), statistics.getEntityCount());
+
+    statistics.getRepeatedStatements(properties.getDatabase().getRepeatedStatementThreshold()).forEach((sql, count) -> {
+      repeatedStatements.increment();
+      log.warn("Statement has been executed {} times within a single request, check its fetching strategy: {}", count, sql);
+    });
+  }
+}
@@ -0,0 +1,19 @@
+package com.faforever.api.config.elide;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Reports every statement Hibernate prepares to the {@link SqlStatistics} of the current thread, if any. Registered
+ * using the Hibernate property {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatisticsStatementInspector implements StatementInspector {
+
+  @Override
+  public String inspect(String sql) {
+    SqlStatistics statistics = SqlStatistics.current();
+    if (statistics != null) {
+      statistics.statementPrepared(sql);
+    }
+    return sql;
+  }
+}
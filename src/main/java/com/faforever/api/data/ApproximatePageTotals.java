@@ -0,0 +1,167 @@
+package com.faforever.api.data;
+
+import com.faforever.api.cache.JsonApiCacheKey;
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.config.FafApiProperties.DataQuery;
+import com.faforever.api.config.FafApiProperties.PageTotalsMode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yahoo.elide.ElideResponse;
+import com.yahoo.elide.core.EntityDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Table;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Answers {@code page[totals]} of JSON-API collection requests without counting, if configured so (see {@link
+ * DataQuery#getPageTotals()}). Elide counts the matching rows with a separate query that joins the same tables as the
+ * page query, which often costs just as much, and clients ask for totals with every page.
+ * <p>
+ * Instead, totals are counted once per path and filter and then reused for {@link DataQuery#getPageTotalsTimeToLive()
+ * a while}, so that paging through results only counts them for the first page. Unfiltered collections of {@link
+ * DataQuery#getEstimatedTotalsTypes() very large tables} aren't counted at all; their totals are the row count the
+ * database estimates for its query plan. Totals that weren't counted for the request are flagged with {@code
+ * "approximate": true} in {@code meta.page}.
+ * </p>
+ */
+@Component
+@Slf4j
+public class ApproximatePageTotals {
+
+  private static final String PAGE_TOTALS_PARAM = "page[totals]";
+  /** Elide's page size for requests that don't specify one. */
+  private static final int DEFAULT_PAGE_SIZE = 500;
+
+  private final FafApiProperties properties;
+  private final EntityDictionary dictionary;
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  /** Total number of results by normalized path and filter. */
+  private final Cache<String, Long> totals;
+
+  public ApproximatePageTotals(FafApiProperties properties, EntityDictionary dictionary, JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper) {
+    this.properties = properties;
+    this.dictionary = dictionary;
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    totals = Caffeine.newBuilder()
+      .maximumSize(10_000)
+      .expireAfterWrite(properties.getDataQuery().getPageTotalsTimeToLive())
+      .build();
+  }
+
+  /**
+   * Executes a JSON-API GET request using the specified function, but answers {@code page[totals]} from previously
+   * counted or estimated totals if possible.
+   */
+  public ElideResponse get(String path, Map<String, String> requestParams,
+                           Function<Map<String, String>, ElideResponse> query) {
+    if (properties.getDataQuery().getPageTotals() != PageTotalsMode.APPROXIMATE
+      || !requestParams.containsKey(PAGE_TOTALS_PARAM)) {
+      return query.apply(requestParams);
+    }
+
+    Map<String, String> filterParams = new HashMap<>();
+    requestParams.forEach((name, value) -> {
+      if (name.equals("filter") || name.startsWith("filter[")) {
+        filterParams.put(name, value);
+      }
+    });
+    String key = JsonApiCacheKey.of(path, filterParams);
+
+    Long total = totals.getIfPresent(key);
+    if (total == null && filterParams.isEmpty()) {
+      total = estimateTotal(path);
+      if (total != null) {
+        totals.put(key, total);
+      }
+    }
+
+    if (total == null) {
+      ElideResponse response = query.apply(requestParams);
+      Long countedTotal = readTotal(response);
+      if (countedTotal != null) {
+        totals.put(key, countedTotal);
+      }
+      return response;
+    }
+
+    Map<String, String> paramsWithoutTotals = new HashMap<>(requestParams);
+    paramsWithoutTotals.remove(PAGE_TOTALS_PARAM);
+    return addTotal(query.apply(paramsWithoutTotals), total, requestParams);
+  }
+
+  /**
+   * Returns the number of rows the database expects in the table of the specified root collection, or {@code null} if
+   * the path isn't the root collection of a type whose totals are estimated.
+   */
+  private Long estimateTotal(String path) {
+    String type = path.replace("/", "");
+    if (!path.equals("/" + type) || !properties.getDataQuery().getEstimatedTotalsTypes().contains(type)) {
+      return null;
+    }
+    Class<?> entityClass = dictionary.getEntityClass(type);
+    Table table = entityClass != null ? entityClass.getAnnotation(Table.class) : null;
+    if (table == null) {
+      return null;
+    }
+
+    // The table name is taken from the mapping, never from the request
+    return jdbcTemplate.query("EXPLAIN SELECT * FROM " + table.name(),
+      resultSet -> resultSet.next() ? resultSet.getLong("rows") : null);
+  }
+
+  private Long readTotal(ElideResponse response) {
+    if (response.getResponseCode() != HttpStatus.OK.value()) {
+      return null;
+    }
+    try {
+      JsonNode totalRecords = objectMapper.readTree(response.getBody()).path("meta").path("page").path("totalRecords");
+      return totalRecords.canConvertToLong() ? totalRecords.asLong() : null;
+    } catch (IOException e) {
+      log.warn("Could not read the total number of results from response", e);
+      return null;
+    }
+  }
+
+  private ElideResponse addTotal(ElideResponse response, long total, Map<String, String> requestParams) {
+    if (response.getResponseCode() != HttpStatus.OK.value()) {
+      return response;
+    }
+    try {
+      JsonNode document = objectMapper.readTree(response.getBody());
+      if (!document.isObject()) {
+        return response;
+      }
+      ObjectNode page = ((ObjectNode) document).with("meta").with("page");
+      int pageSize = Math.max(1, page.path("limit").asInt(getPageSize(requestParams)));
+      page.put("totalRecords", total);
+      page.put("totalPages", (total + pageSize - 1) / pageSize);
+      page.put("approximate", true);
+      return new ElideResponse(response.getResponseCode(), objectMapper.writeValueAsString(document));
+    } catch (IOException e) {
+      log.warn("Could not add the total number of results to response", e);
+      return response;
+    }
+  }
+
+  private static int getPageSize(Map<String, String> requestParams) {
+    String pageSize = requestParams.getOrDefault("page[size]", requestParams.get("page[limit]"));
+    try {
+      return pageSize != null ? Integer.parseInt(pageSize.trim()) : DEFAULT_PAGE_SIZE;
+    } catch (NumberFormatException e) {
+      return DEFAULT_PAGE_SIZE;
+    }
+  }
+}
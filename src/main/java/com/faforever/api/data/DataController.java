@@ -1,14 +1,22 @@
 package com.faforever.api.data;
 
+import com.faforever.api.cache.CompressibleResponseBody;
+import com.faforever.api.cache.JsonApiCacheKey;
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.config.FafApiProperties.DataCacheType;
 import com.yahoo.elide.Elide;
 import com.yahoo.elide.ElideResponse;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -23,6 +31,8 @@ import java.util.Map;
 
 import static com.faforever.api.data.JsonApiMediaType.JSON_API_MEDIA_TYPE;
 import static com.faforever.api.data.JsonApiMediaType.JSON_API_PATCH_MEDIA_TYPE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * JSON-API compliant data API.
@@ -34,9 +44,16 @@ public class DataController {
   public static final String PATH_PREFIX = "/data";
 
   private final Elide elide;
+  private final FafApiProperties properties;
+  private final QueryCostGuard queryCostGuard;
+  private final ApproximatePageTotals approximatePageTotals;
 
-  public DataController(Elide elide) {
+  public DataController(Elide elide, FafApiProperties properties, QueryCostGuard queryCostGuard,
+                        ApproximatePageTotals approximatePageTotals) {
     this.elide = elide;
+    this.properties = properties;
+    this.queryCostGuard = queryCostGuard;
+    this.approximatePageTotals = approximatePageTotals;
   }
 
   private static Object getPrincipal(final Authentication authentication) {
@@ -48,16 +65,29 @@ public class DataController {
     method = RequestMethod.GET,
     produces = JSON_API_MEDIA_TYPE,
     value = {"/{entity}", "/{entity}/{id}/relationships/{entity2}", "/{entity}/{id}/{child}", "/{entity}/{id}"})
-  @Cacheable(cacheResolver = "elideCacheResolver", keyGenerator = GetCacheKeyGenerator.NAME)
-  public ResponseEntity<String> get(@RequestParam final Map<String, String> allRequestParams,
-                                    final HttpServletRequest request,
-                                    final Authentication authentication) {
-    ElideResponse response = elide.get(
-      getJsonApiPath(request),
-      new MultivaluedHashMap<>(allRequestParams),
-      getPrincipal(authentication)
-    );
-    return wrapResponse(response);
+  // sync: concurrent requests for the same uncached response wait for the first one instead of querying as well
+  // condition: users who recently changed data must not get cached responses that were read from a lagging replica
+  @Cacheable(cacheResolver = "elideCacheResolver", keyGenerator = GetCacheKeyGenerator.NAME, sync = true,
+    condition = "!T(com.faforever.api.config.datasource.ReadYourWrites).isActive()")
+  public ResponseEntity<CompressibleResponseBody> get(@RequestParam final Map<String, String> allRequestParams,
+                                                      final HttpServletRequest request,
+                                                      final Authentication authentication,
+                                                      @PathVariable("entity") final String entity) {
+    String path = getJsonApiPath(request);
+    ElideResponse response = approximatePageTotals.get(path, queryCostGuard.check(path, allRequestParams),
+      params -> elide.get(path, new MultivaluedHashMap<>(params), getPrincipal(authentication)));
+    CompressibleResponseBody body = new CompressibleResponseBody(response.getBody());
+    if (response.getResponseCode() != HttpStatus.OK.value()) {
+      return ResponseEntity.status(response.getResponseCode()).body(body);
+    }
+
+    // Since the ETag and the compressed body are part of the (cached) response, they're only computed once per cache
+    // miss. Spring answers requests with a matching If-None-Match header with 304 Not Modified. The ETag is weak
+    // because the same cached response is sent as identity or gzip representation, depending on the client.
+    return ResponseEntity.ok()
+      .eTag("W/\"" + DigestUtils.md5DigestAsHex(response.getBody().getBytes(UTF_8)) + "\"")
+      .cacheControl(getCacheControl(entity))
+      .body(body);
   }
 
   //!!! No @Transactional - transactions are being handled by Elide
@@ -140,6 +170,14 @@ public class DataController {
     return ResponseEntity.status(response.getResponseCode()).body(response.getBody());
   }
 
+  private CacheControl getCacheControl(String entity) {
+    DataCacheType dataCacheType = properties.getDataCache().getTypes().get(entity);
+    if (dataCacheType == null || dataCacheType.getClientMaxAge() == null) {
+      return CacheControl.noCache();
+    }
+    return CacheControl.maxAge(dataCacheType.getClientMaxAge().getSeconds(), SECONDS);
+  }
+
   private static String getJsonApiPath(HttpServletRequest request) {
     return ((String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)).replace(PATH_PREFIX, "");
   }
@@ -154,7 +192,7 @@ public class DataController {
       Map<String, String> allRequestParams = (Map<String, String>) params[0];
       final HttpServletRequest request = (HttpServletRequest) params[1];
 
-      return method.getName() + getJsonApiPath(request) + allRequestParams;
+      return JsonApiCacheKey.of(getJsonApiPath(request), allRequestParams);
     }
   }
 }
@@ -0,0 +1,276 @@
+package com.faforever.api.data;
+
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.config.FafApiProperties.DataQuery;
+import com.faforever.api.error.ApiException;
+import com.faforever.api.error.Error;
+import com.faforever.api.error.ErrorCode;
+import com.google.common.collect.ImmutableSet;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.Path.PathElement;
+import com.yahoo.elide.core.RelationshipType;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.dialect.ParseException;
+import com.yahoo.elide.core.filter.dialect.RSQLFilterDialect;
+import com.yahoo.elide.core.filter.expression.AndFilterExpression;
+import com.yahoo.elide.core.filter.expression.FilterExpressionVisitor;
+import com.yahoo.elide.core.filter.expression.NotFilterExpression;
+import com.yahoo.elide.core.filter.expression.OrFilterExpression;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the cost of JSON-API GET requests before they're executed, and keeps requests within the configured
+ * budget (see {@link DataQuery}). Requests that rely on the default page size are served smaller pages if that's
+ * enough to meet the budget; all other requests over budget are rejected.
+ * <p>
+ * The estimate is the number of results times the cost per result. Each result costs 1, plus for every filter
+ * predicate, sort field and included relationship the product of its joins (to-one relationships double the cost,
+ * to-many relationships multiply it by 10). Filters that match a value's end or middle ({@code ==*foo},
+ * {@code ==*foo*}) can't use an index and cost 10 times as much.
+ * </p>
+ * Malformed requests are estimated as far as possible and left to Elide to reject.
+ */
+@Component
+@Slf4j
+public class QueryCostGuard {
+
+  /** Elide's page size for requests that don't specify one. */
+  private static final int DEFAULT_PAGE_SIZE = 500;
+  private static final int TO_ONE_JOIN_FACTOR = 2;
+  private static final int TO_MANY_JOIN_FACTOR = 10;
+  private static final int UNINDEXED_MATCH_FACTOR = 10;
+  private static final Set<String> PAGING_PARAMS = ImmutableSet.of("page[size]", "page[number]", "page[limit]", "page[offset]");
+
+  private final EntityDictionary dictionary;
+  private final RSQLFilterDialect filterDialect;
+  private final FafApiProperties properties;
+
+  public QueryCostGuard(EntityDictionary dictionary, RSQLFilterDialect filterDialect, FafApiProperties properties) {
+    this.dictionary = dictionary;
+    this.filterDialect = filterDialect;
+    this.properties = properties;
+  }
+
+  /**
+   * Returns the request parameters to execute the specified request with, which may request a smaller page than the
+   * specified ones.
+   *
+   * @param path the JSON-API path, like {@code /map/1/versions}
+   * @throws ApiException if the request exceeds the budget
+   */
+  public Map<String, String> check(String path, Map<String, String> requestParams) {
+    Target target = resolveTarget(path);
+    if (target == null) {
+      return requestParams;
+    }
+
+    long costPerResult = estimateCostPerResult(path, target.type, requestParams);
+    if (!target.collection) {
+      checkBudget(costPerResult);
+      return requestParams;
+    }
+
+    // Changing the page size of a request for another than the first page would change which results it returns
+    if (PAGING_PARAMS.stream().anyMatch(requestParams::containsKey)) {
+      Integer requestedPageSize = getRequestedPageSize(requestParams);
+      checkBudget(costPerResult * (requestedPageSize != null ? requestedPageSize : DEFAULT_PAGE_SIZE));
+      return requestParams;
+    }
+
+    DataQuery dataQuery = properties.getDataQuery();
+    long affordablePageSize = dataQuery.getMaxCost() / costPerResult;
+    if (affordablePageSize >= DEFAULT_PAGE_SIZE) {
+      return requestParams;
+    }
+    if (affordablePageSize < dataQuery.getMinPageSize()) {
+      throw tooExpensive(costPerResult * dataQuery.getMinPageSize());
+    }
+
+    log.debug("Reducing page size of request '{}' with estimated cost {} per result to {}",
+      path, costPerResult, affordablePageSize);
+    Map<String, String> reducedParams = new HashMap<>(requestParams);
+    reducedParams.put("page[size]", String.valueOf(affordablePageSize));
+    return reducedParams;
+  }
+
+  private long estimateCostPerResult(String path, Class<?> type, Map<String, String> requestParams) {
+    long cost = 1;
+    for (Map.Entry<String, String> param : requestParams.entrySet()) {
+      String name = param.getKey();
+      String value = param.getValue();
+      if (value == null) {
+        continue;
+      }
+      if (name.equals("filter") || name.startsWith("filter[")) {
+        cost += estimateFilterCost(path, name, value);
+      } else if (name.equals("include")) {
+        for (String include : value.split(",")) {
+          cost += estimateIncludeCost(type, include.trim());
+        }
+      } else if (name.equals("sort")) {
+        for (String sort : value.split(",")) {
+          cost += estimateSortCost(type, sort.trim().replaceFirst("^[+-]", ""));
+        }
+      }
+    }
+    return cost;
+  }
+
+  private void checkBudget(long cost) {
+    if (cost > properties.getDataQuery().getMaxCost()) {
+      throw tooExpensive(cost);
+    }
+  }
+
+  private ApiException tooExpensive(long cost) {
+    return new ApiException(new Error(ErrorCode.QUERY_TOO_EXPENSIVE, cost, properties.getDataQuery().getMaxCost()));
+  }
+
+  private long estimateFilterCost(String path, String name, String value) {
+    MultivaluedMap<String, String> filterParams = new MultivaluedHashMap<>();
+    filterParams.putSingle(name, value);
+    try {
+      if (name.equals("filter")) {
+        return filterDialect.parseGlobalExpression(path, filterParams).accept(new FilterCostVisitor());
+      }
+      return filterDialect.parseTypedExpression(path, filterParams).values().stream()
+        .mapToLong(expression -> expression.accept(new FilterCostVisitor()))
+        .sum();
+    } catch (ParseException e) {
+      return 0;
+    }
+  }
+
+  /** Every relationship on the way adds the cost of loading it for all results of the previous one. */
+  private long estimateIncludeCost(Class<?> type, String include) {
+    long cost = 0;
+    long factor = 1;
+    for (String relationship : include.split("\\.")) {
+      RelationshipType relationshipType = dictionary.getRelationshipType(type, relationship);
+      if (relationshipType == null || relationshipType == RelationshipType.NONE) {
+        break;
+      }
+      factor *= relationshipType.isToMany() ? TO_MANY_JOIN_FACTOR : TO_ONE_JOIN_FACTOR;
+      cost += factor;
+      type = dictionary.getParameterizedType(type, relationship);
+    }
+    return cost;
+  }
+
+  private long estimateSortCost(Class<?> type, String sort) {
+    List<String> fields = Arrays.asList(sort.split("\\."));
+    long factor = 1;
+    for (String relationship : fields.subList(0, fields.size() - 1)) {
+      RelationshipType relationshipType = dictionary.getRelationshipType(type, relationship);
+      if (relationshipType == null || relationshipType == RelationshipType.NONE) {
+        break;
+      }
+      factor *= relationshipType.isToMany() ? TO_MANY_JOIN_FACTOR : TO_ONE_JOIN_FACTOR;
+      type = dictionary.getParameterizedType(type, relationship);
+    }
+    return factor;
+  }
+
+  private static Integer getRequestedPageSize(Map<String, String> requestParams) {
+    String pageSize = requestParams.getOrDefault("page[size]", requestParams.get("page[limit]"));
+    if (pageSize == null) {
+      return null;
+    }
+    try {
+      return Integer.parseInt(pageSize.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Determines the type of the resources returned for the specified path and whether it's a collection, or returns
+   * {@code null} if the path is invalid.
+   */
+  private Target resolveTarget(String path) {
+    String[] segments = Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toArray(String[]::new);
+    if (segments.length == 0) {
+      return null;
+    }
+    Class<?> type = dictionary.getEntityClass(segments[0]);
+    if (type == null) {
+      return null;
+    }
+
+    boolean collection = true;
+    boolean expectId = true;
+    for (int i = 1; i < segments.length; i++) {
+      if (expectId) {
+        collection = false;
+        expectId = false;
+        continue;
+      }
+      String relationship = segments[i];
+      if (relationship.equals("relationships") && i + 1 < segments.length) {
+        relationship = segments[++i];
+      }
+      RelationshipType relationshipType = dictionary.getRelationshipType(type, relationship);
+      if (relationshipType == null || relationshipType == RelationshipType.NONE) {
+        return null;
+      }
+      collection = relationshipType.isToMany();
+      type = dictionary.getParameterizedType(type, relationship);
+      expectId = true;
+    }
+    return new Target(type, collection);
+  }
+
+  private static class Target {
+    private final Class<?> type;
+    private final boolean collection;
+
+    private Target(Class<?> type, boolean collection) {
+      this.type = type;
+      this.collection = collection;
+    }
+  }
+
+  private class FilterCostVisitor implements FilterExpressionVisitor<Long> {
+
+    @Override
+    public Long visitPredicate(FilterPredicate filterPredicate) {
+      List<PathElement> pathElements = filterPredicate.getPath().getPathElements();
+      long factor = 1;
+      for (PathElement pathElement : pathElements.subList(0, pathElements.size() - 1)) {
+        RelationshipType relationshipType = dictionary.getRelationshipType(pathElement.getType(), pathElement.getFieldName());
+        factor *= relationshipType != null && relationshipType.isToMany() ? TO_MANY_JOIN_FACTOR : TO_ONE_JOIN_FACTOR;
+      }
+
+      // Also covers the case insensitive variants
+      String operator = filterPredicate.getOperator().name();
+      if (operator.startsWith("INFIX") || operator.startsWith("POSTFIX")) {
+        factor *= UNINDEXED_MATCH_FACTOR;
+      }
+      return factor;
+    }
+
+    @Override
+    public Long visitAndExpression(AndFilterExpression expression) {
+      return expression.getLeft().accept(this) + expression.getRight().accept(this);
+    }
+
+    @Override
+    public Long visitOrExpression(OrFilterExpression expression) {
+      return expression.getLeft().accept(this) + expression.getRight().accept(this);
+    }
+
+    @Override
+    public Long visitNotExpression(NotFilterExpression expression) {
+      return expression.getNegated().accept(this);
+    }
+  }
+}
@@ -18,6 +18,7 @@ import javax.persistence.Table;
 import javax.persistence.Transient;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.function.Supplier;
 
 @Entity
 @Table(name = "achievement_definitions")
@@ -47,9 +48,9 @@ public class Achievement {
   private Long unlockersAvgDuration;
   private Long unlockersMaxDuration;
 
-  // Set by AchievementLocalizationListener
-  private String name;
-  private String description;
+  // Translated on first access, set by AchievementLocalizationListener
+  private Supplier<String> name;
+  private Supplier<String> description;
 
   @Id
   @Column(name = "id")
@@ -71,7 +72,7 @@ public class Achievement {
   @Transient
   @ComputedAttribute
   public String getName() {
-    return name;
+    return name != null ? name.get() : null;
   }
 
   @Column(name = "description_key")
@@ -83,7 +84,7 @@ public class Achievement {
   @Transient
   @ComputedAttribute
   public String getDescription() {
-    return description;
+    return description != null ? description.get() : null;
   }
 
   @Column(name = "type")
@@ -14,6 +14,7 @@ import javax.persistence.Enumerated;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import java.util.function.Supplier;
 
 @Entity
 @Table(name = "coop_map")
@@ -28,11 +29,11 @@ public class CoopMap {
   private String description;
   private Integer version;
   private String filename;
-  // Set by CoopMapEnhancer
-  private String downloadUrl;
-  private String thumbnailUrlLarge;
-  private String thumbnailUrlSmall;
-  private String folderName;
+  // Computed on first access, set by CoopMapEnricher
+  private Supplier<String> downloadUrl;
+  private Supplier<String> thumbnailUrlLarge;
+  private Supplier<String> thumbnailUrlSmall;
+  private Supplier<String> folderName;
 
   @Column(name = "type")
   @Enumerated(EnumType.ORDINAL)
@@ -70,25 +71,25 @@ public class CoopMap {
   @Transient
   @ComputedAttribute
   public String getDownloadUrl() {
-    return downloadUrl;
+    return downloadUrl != null ? downloadUrl.get() : null;
   }
 
   @Transient
   @ComputedAttribute
   public String getThumbnailUrlLarge() {
-    return thumbnailUrlLarge;
+    return thumbnailUrlLarge != null ? thumbnailUrlLarge.get() : null;
   }
 
   @Transient
   @ComputedAttribute
   public String getThumbnailUrlSmall() {
-    return thumbnailUrlSmall;
+    return thumbnailUrlSmall != null ? thumbnailUrlSmall.get() : null;
   }
 
   @Transient
   @ComputedAttribute
   public String getFolderName() {
-    return folderName;
+    return folderName != null ? folderName.get() : null;
   }
 
   private enum MissionType {
@@ -14,6 +14,7 @@ import javax.persistence.Enumerated;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import java.util.function.Supplier;
 
 @Entity
 @Table(name = "event_definitions")
@@ -29,8 +30,8 @@ public class Event {
   private String imageUrl;
   private Type type;
 
-  // Set by EventLocalizationListener
-  private String name;
+  // Translated on first access, set by EventLocalizationListener
+  private Supplier<String> name;
 
   @Id
   @Column(name = "id")
@@ -47,7 +48,7 @@ public class Event {
   @Transient
   @ComputedAttribute
   public String getName() {
-    return name;
+    return name != null ? name.get() : null;
   }
 
   @Column(name = "image_url")
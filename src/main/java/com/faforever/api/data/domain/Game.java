@@ -5,7 +5,11 @@ import com.yahoo.elide.annotation.ComputedAttribute;
 import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.UpdatePermission;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
 import org.jetbrains.annotations.Nullable;
 
 import javax.persistence.Column;
@@ -23,11 +27,13 @@ import javax.persistence.Table;
 import javax.persistence.Transient;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Entity
 @Table(name = "game_stats")
 @Include(rootLevel = true, type = "game")
 @Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Setter
 @EntityListeners(GameEnricher.class)
 public class Game {
@@ -42,7 +48,7 @@ public class Game {
   private String name;
   private Validity validity;
   private List<GamePlayerStats> playerStats;
-  private String replayUrl;
+  private Supplier<String> replayUrl;
   private List<GameReview> reviews;
   private GameReviewsSummary reviewsSummary;
 
@@ -92,6 +98,7 @@ public class Game {
   }
 
   @OneToMany(mappedBy = "game")
+  @Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
   public List<GamePlayerStats> getPlayerStats() {
     return playerStats;
   }
@@ -105,7 +112,7 @@ public class Game {
   @Transient
   @ComputedAttribute
   public String getReplayUrl() {
-    return replayUrl;
+    return replayUrl != null ? replayUrl.get() : null;
   }
 
   @OneToMany(mappedBy = "game")
@@ -114,7 +121,8 @@ public class Game {
     return reviews;
   }
 
-  @OneToOne(mappedBy = "game")
+  @OneToOne(mappedBy = "game", fetch = FetchType.LAZY)
+  @LazyToOne(LazyToOneOption.NO_PROXY)
   @UpdatePermission(expression = "Prefab.Role.All")
   public GameReviewsSummary getReviewsSummary() {
     return reviewsSummary;
@@ -2,6 +2,8 @@ package com.faforever.api.data.domain;
 
 import com.yahoo.elide.annotation.Include;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Immutable;
 
 import javax.persistence.Column;
@@ -17,6 +19,7 @@ import java.time.OffsetDateTime;
 @Table(name = "game_player_stats")
 @Include(rootLevel = true, type = "gamePlayerStats")
 @Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Setter
 public class GamePlayerStats {
 
@@ -3,6 +3,8 @@ package com.faforever.api.data.domain;
 import com.yahoo.elide.annotation.Include;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Immutable;
 
 import javax.persistence.Column;
@@ -16,9 +18,12 @@ import javax.persistence.Table;
 @Entity
 @Setter
 @Table(name = "game_reviews_summary")
-@Include(rootLevel = true, type = "gameReviewsSummary")
+@Include(rootLevel = true, type = GameReviewsSummary.TYPE_NAME)
 @Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class GameReviewsSummary {
+  public static final String TYPE_NAME = "gameReviewsSummary";
+
   private int id;
   private float positive;
   private float negative;
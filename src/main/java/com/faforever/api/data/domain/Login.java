@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.UpdatePermission;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.Column;
 import javax.persistence.FetchType;
@@ -71,14 +72,16 @@ public abstract class Login extends AbstractEntity implements OwnableEntity {
     return userAgent;
   }
 
-  @OneToMany(mappedBy = "player", fetch = FetchType.EAGER)
+  @OneToMany(mappedBy = "player", fetch = FetchType.LAZY)
+  @BatchSize(size = 1000)
   // Permission is managed by BanInfo class
   @UpdatePermission(expression = IsModerator.EXPRESSION)
   public Set<BanInfo> getBans() {
     return this.bans;
   }
 
-  @OneToMany(mappedBy = "player", fetch = FetchType.EAGER)
+  @OneToMany(mappedBy = "player", fetch = FetchType.LAZY)
+  @BatchSize(size = 1000)
   @UpdatePermission(expression = IsModerator.EXPRESSION)
   public Set<UserNote> getUserNotes() {
     return this.userNotes;
@@ -89,6 +92,10 @@ public abstract class Login extends AbstractEntity implements OwnableEntity {
     return getBans().stream().filter(ban -> ban.getBanStatus() == BanStatus.BANNED).collect(Collectors.toSet());
   }
 
+  /**
+   * Loads all bans of this login if they haven't been loaded yet. To only check for a ban, use {@code
+   * BanService#hasActiveGlobalBan} instead.
+   */
   @Transient
   public boolean isGlobalBanned() {
     return getActiveBans().stream().anyMatch(ban -> ban.getLevel() == BanLevel.GLOBAL);
@@ -4,11 +4,15 @@ import com.faforever.api.data.listeners.MapChangeListener;
 import com.yahoo.elide.annotation.Include;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.Immutable;
 import org.hibernate.annotations.JoinColumnOrFormula;
 import org.hibernate.annotations.JoinColumnsOrFormulas;
 import org.hibernate.annotations.JoinFormula;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.jetbrains.annotations.Nullable;
 
@@ -37,6 +41,7 @@ import java.util.List;
 @Table(name = "map")
 @Include(rootLevel = true, type = Map.TYPE_NAME)
 @Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @EntityListeners(MapChangeListener.class)
 public class Map {
 
@@ -112,7 +117,8 @@ public class Map {
     return author;
   }
 
-  @OneToOne(mappedBy = "map")
+  @OneToOne(mappedBy = "map", fetch = FetchType.LAZY)
+  @LazyToOne(LazyToOneOption.NO_PROXY)
   public MapStatistics getStatistics() {
     return statistics;
   }
@@ -2,6 +2,8 @@ package com.faforever.api.data.domain;
 
 import com.yahoo.elide.annotation.Include;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Immutable;
 
 import javax.persistence.Column;
@@ -17,6 +19,7 @@ import javax.persistence.Table;
 @Table(name = "map_statistics")
 @Include(rootLevel = true, type = MapStatistics.TYPE_NAME)
 @Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class MapStatistics {
   public static final String TYPE_NAME = "mapStatistics";
 
@@ -11,7 +11,10 @@ import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.UpdatePermission;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
 
+import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
@@ -24,6 +27,7 @@ import javax.persistence.Table;
 import javax.persistence.Transient;
 import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Entity
 @Setter
@@ -40,20 +44,22 @@ public class MapVersion extends AbstractEntity implements OwnableEntity {
   private int height;
   private int version;
   private String filename;
-  private String folderName;
+  private Supplier<String> folderName;
   private boolean ranked;
   private boolean hidden;
   private Map map;
   private MapVersionStatistics statistics;
-  private String thumbnailUrlSmall;
-  private String thumbnailUrlLarge;
-  private String downloadUrl;
+  private Supplier<String> thumbnailUrlSmall;
+  private Supplier<String> thumbnailUrlLarge;
+  private Supplier<String> downloadUrl;
   private List<MapVersionReview> reviews;
   private MapVersionReviewsSummary reviewsSummary;
   private Ladder1v1Map ladder1v1Map;
 
   @UpdatePermission(expression = IsEntityOwner.EXPRESSION + " or " + IsModerator.EXPRESSION)
   @Column(name = "description")
+  // Only loaded if requested, map vault lists don't show it
+  @Basic(fetch = FetchType.LAZY)
   public String getDescription() {
     return description;
   }
@@ -110,7 +116,8 @@ public class MapVersion extends AbstractEntity implements OwnableEntity {
     return this.map;
   }
 
-  @OneToOne(mappedBy = "mapVersion", fetch = FetchType.EAGER)
+  @OneToOne(mappedBy = "mapVersion", fetch = FetchType.LAZY)
+  @LazyToOne(LazyToOneOption.NO_PROXY)
   public MapVersionStatistics getStatistics() {
     return statistics;
   }
@@ -118,25 +125,25 @@ public class MapVersion extends AbstractEntity implements OwnableEntity {
   @Transient
   @ComputedAttribute
   public String getThumbnailUrlSmall() {
-    return thumbnailUrlSmall;
+    return thumbnailUrlSmall != null ? thumbnailUrlSmall.get() : null;
   }
 
   @Transient
   @ComputedAttribute
   public String getThumbnailUrlLarge() {
-    return thumbnailUrlLarge;
+    return thumbnailUrlLarge != null ? thumbnailUrlLarge.get() : null;
   }
 
   @Transient
   @ComputedAttribute
   public String getDownloadUrl() {
-    return downloadUrl;
+    return downloadUrl != null ? downloadUrl.get() : null;
   }
 
   @Transient
   @ComputedAttribute
   public String getFolderName() {
-    return folderName;
+    return folderName != null ? folderName.get() : null;
   }
 
   @OneToMany(mappedBy = "mapVersion")
@@ -145,7 +152,8 @@ public class MapVersion extends AbstractEntity implements OwnableEntity {
     return reviews;
   }
 
-  @OneToOne(mappedBy = "mapVersion")
+  @OneToOne(mappedBy = "mapVersion", fetch = FetchType.LAZY)
+  @LazyToOne(LazyToOneOption.NO_PROXY)
   @UpdatePermission(expression = "Prefab.Role.All")
   public MapVersionReviewsSummary getReviewsSummary() {
     return reviewsSummary;
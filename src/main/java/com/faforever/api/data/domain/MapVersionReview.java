@@ -1,6 +1,7 @@
 package com.faforever.api.data.domain;
 
 import com.faforever.api.data.checks.IsEntityOwner;
+import com.faforever.api.data.listeners.ReviewChangeListener;
 import com.yahoo.elide.annotation.CreatePermission;
 import com.yahoo.elide.annotation.DeletePermission;
 import com.yahoo.elide.annotation.Include;
@@ -8,6 +9,7 @@ import com.yahoo.elide.annotation.UpdatePermission;
 import lombok.Setter;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
@@ -16,6 +18,7 @@ import javax.persistence.Table;
 @Setter
 @Include(rootLevel = true, type = "mapVersionReview")
 @Entity
+@EntityListeners(ReviewChangeListener.class)
 @Table(name = "map_version_review")
 @CreatePermission(expression = "Prefab.Role.All")
 @DeletePermission(expression = IsEntityOwner.EXPRESSION)
@@ -3,6 +3,8 @@ package com.faforever.api.data.domain;
 import com.yahoo.elide.annotation.Include;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Immutable;
 
 import javax.persistence.Column;
@@ -18,6 +20,7 @@ import javax.persistence.Table;
 @Table(name = "map_version_statistics")
 @Include(rootLevel = true, type = "mapVersionStatistics")
 @Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class MapVersionStatistics {
   private int id;
   private int downloads;
@@ -2,6 +2,8 @@ package com.faforever.api.data.domain;
 
 import com.yahoo.elide.annotation.Include;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.Immutable;
 import org.hibernate.annotations.JoinColumnOrFormula;
@@ -29,6 +31,7 @@ import java.util.List;
 @Table(name = "\"mod\"")
 @Include(rootLevel = true, type = Mod.TYPE_NAME)
 @Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Setter
 public class Mod {
 
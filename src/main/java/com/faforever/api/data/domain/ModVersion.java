@@ -9,7 +9,10 @@ import com.yahoo.elide.annotation.Exclude;
 import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.UpdatePermission;
 import lombok.Setter;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
 
+import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
@@ -27,6 +30,7 @@ import javax.persistence.Table;
 import javax.persistence.Transient;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Entity
 @Table(name = "mod_version")
@@ -49,8 +53,8 @@ public class ModVersion {
   private OffsetDateTime createTime;
   private OffsetDateTime updateTime;
   private Mod mod;
-  private String thumbnailUrl;
-  private String downloadUrl;
+  private Supplier<String> thumbnailUrl;
+  private Supplier<String> downloadUrl;
   private List<ModVersionReview> reviews;
   private ModVersionReviewsSummary reviewsSummary;
 
@@ -73,6 +77,7 @@ public class ModVersion {
   }
 
   @Column(name = "description")
+  @Basic(fetch = FetchType.LAZY)
   public String getDescription() {
     return description;
   }
@@ -127,13 +132,13 @@ public class ModVersion {
   @Transient
   @ComputedAttribute
   public String getThumbnailUrl() {
-    return thumbnailUrl;
+    return thumbnailUrl != null ? thumbnailUrl.get() : null;
   }
 
   @Transient
   @ComputedAttribute
   public String getDownloadUrl() {
-    return downloadUrl;
+    return downloadUrl != null ? downloadUrl.get() : null;
   }
 
   @OneToMany(mappedBy = "modVersion")
@@ -142,7 +147,8 @@ public class ModVersion {
     return reviews;
   }
 
-  @OneToOne(mappedBy = "modVersion")
+  @OneToOne(mappedBy = "modVersion", fetch = FetchType.LAZY)
+  @LazyToOne(LazyToOneOption.NO_PROXY)
   @UpdatePermission(expression = "Prefab.Role.All")
   public ModVersionReviewsSummary getReviewsSummary() {
     return reviewsSummary;
@@ -3,6 +3,8 @@ package com.faforever.api.data.domain;
 import com.yahoo.elide.annotation.Include;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Immutable;
 
 import javax.persistence.Column;
@@ -16,9 +18,12 @@ import javax.persistence.Table;
 @Entity
 @Setter
 @Table(name = "mod_version_reviews_summary")
-@Include(type = "modVersionReviewsSummary")
+@Include(type = ModVersionReviewsSummary.TYPE_NAME)
 @Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class ModVersionReviewsSummary {
+  public static final String TYPE_NAME = "modVersionReviewsSummary";
+
   private int id;
   private float positive;
   private float negative;
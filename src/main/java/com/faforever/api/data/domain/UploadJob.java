@@ -0,0 +1,103 @@
+package com.faforever.api.data.domain;
+
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.OffsetDateTime;
+
+/**
+ * An uploaded map or mod that is processed in the background. Not exposed via JSON-API; uploaders query the status of
+ * their jobs through the upload endpoints.
+ */
+@Entity
+@Table(name = "upload_job")
+@Setter
+public class UploadJob {
+
+  private int id;
+  private UploadJobType type;
+  private UploadJobStatus status;
+  private int uploaderId;
+  private String filename;
+  private String filePath;
+  private boolean ranked;
+  /** The errors of a failed job as JSON-API error objects. */
+  private String errors;
+  /** The instance processing the job, or the last one that did. */
+  private String owner;
+  /** Until when the owner may process the job; afterwards, the job is queued again. */
+  private OffsetDateTime leaseExpiresAt;
+  private OffsetDateTime createTime;
+  private OffsetDateTime updateTime;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  public int getId() {
+    return id;
+  }
+
+  @Column(name = "type")
+  @Enumerated(EnumType.STRING)
+  public UploadJobType getType() {
+    return type;
+  }
+
+  @Column(name = "status")
+  @Enumerated(EnumType.STRING)
+  public UploadJobStatus getStatus() {
+    return status;
+  }
+
+  @Column(name = "uploader_id")
+  public int getUploaderId() {
+    return uploaderId;
+  }
+
+  @Column(name = "filename")
+  public String getFilename() {
+    return filename;
+  }
+
+  @Column(name = "file_path")
+  public String getFilePath() {
+    return filePath;
+  }
+
+  @Column(name = "ranked")
+  public boolean isRanked() {
+    return ranked;
+  }
+
+  @Column(name = "errors")
+  public String getErrors() {
+    return errors;
+  }
+
+  @Column(name = "owner")
+  public String getOwner() {
+    return owner;
+  }
+
+  @Column(name = "lease_expires_at")
+  public OffsetDateTime getLeaseExpiresAt() {
+    return leaseExpiresAt;
+  }
+
+  @Column(name = "create_time")
+  public OffsetDateTime getCreateTime() {
+    return createTime;
+  }
+
+  @Column(name = "update_time")
+  public OffsetDateTime getUpdateTime() {
+    return updateTime;
+  }
+}
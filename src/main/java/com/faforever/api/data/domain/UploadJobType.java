@@ -0,0 +1,5 @@
+package com.faforever.api.data.domain;
+
+public enum UploadJobType {
+  MAP, MOD
+}
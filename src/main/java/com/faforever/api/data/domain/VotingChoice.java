@@ -14,6 +14,7 @@ import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.UpdatePermission;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -80,8 +81,12 @@ public class VotingChoice extends AbstractEntity {
     return ordinal;
   }
 
-  @Transient
-  @ComputedAttribute
+  /**
+   * The number of answers for this choice, which is only revealed (i.e. not 0) if the subject reveals the winner.
+   */
+  @Formula("(SELECT COUNT(*) FROM voting_answer WHERE voting_answer.voting_choice_id = id AND voting_question_id IN" +
+    " (SELECT voting_question.id FROM voting_question WHERE voting_question.voting_subject_id IN" +
+    " (SELECT voting_subject.id FROM voting_subject WHERE voting_subject.reveal_winner = 1)))")
   public Integer getNumberOfAnswers() {
     return numberOfAnswers;
   }
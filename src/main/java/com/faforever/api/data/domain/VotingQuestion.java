@@ -13,6 +13,7 @@ import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.UpdatePermission;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -118,8 +119,8 @@ public class VotingQuestion extends AbstractEntity {
     return maxAnswers;
   }
 
-  @Transient
-  @ComputedAttribute
+  @Formula("(SELECT COUNT(*) FROM voting_answer WHERE voting_answer.voting_choice_id IN" +
+    " (SELECT voting_choice.id FROM voting_choice WHERE voting_choice.voting_question_id = id))")
   public Integer getNumberOfAnswers() {
     return numberOfAnswers;
   }
@@ -15,6 +15,7 @@ import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.UpdatePermission;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -74,8 +75,7 @@ public class VotingSubject extends AbstractEntity {
     return descriptionKey;
   }
 
-  @Transient
-  @ComputedAttribute
+  @Formula("(SELECT COUNT(*) FROM vote WHERE vote.voting_subject_id = id)")
   public int getNumberOfVotes() {
     return numberOfVotes;
   }
@@ -1,6 +1,7 @@
 package com.faforever.api.data.listeners;
 
 import com.faforever.api.data.domain.Achievement;
+import com.google.common.base.Suppliers;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.stereotype.Component;
@@ -19,9 +20,15 @@ public class AchievementLocalizationListener {
     AchievementLocalizationListener.messageSourceAccessor = messageSourceAccessor;
   }
 
+  /**
+   * Sets up the translated name and description, which are only looked up when they're first accessed. Since this
+   * happens while the response is being serialized, the request's locale is used.
+   */
   @PostLoad
   public void translate(Achievement achievement) {
-    achievement.setName(messageSourceAccessor.getMessage(achievement.getNameKey()));
-    achievement.setDescription(messageSourceAccessor.getMessage(achievement.getDescriptionKey()));
+    String nameKey = achievement.getNameKey();
+    String descriptionKey = achievement.getDescriptionKey();
+    achievement.setName(Suppliers.memoize(() -> messageSourceAccessor.getMessage(nameKey)));
+    achievement.setDescription(Suppliers.memoize(() -> messageSourceAccessor.getMessage(descriptionKey)));
   }
 }
@@ -2,6 +2,7 @@ package com.faforever.api.data.listeners;
 
 import com.faforever.api.config.FafApiProperties;
 import com.faforever.api.data.domain.CoopMap;
+import com.google.common.base.Suppliers;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
@@ -17,12 +18,15 @@ public class CoopMapEnricher {
     CoopMapEnricher.fafApiProperties = fafApiProperties;
   }
 
+  /**
+   * Sets up the computed attributes, which are only computed when they're first accessed.
+   */
   @PostLoad
   public void enhance(CoopMap coopMap) {
     String filename = coopMap.getFilename();
-    coopMap.setFolderName(filename.substring(filename.indexOf('/') + 1, filename.indexOf(".zip")));
-    coopMap.setDownloadUrl(String.format(fafApiProperties.getMap().getDownloadUrlFormat(), filename.replace("maps/", "")));
-    coopMap.setThumbnailUrlSmall(String.format(fafApiProperties.getMap().getSmallPreviewsUrlFormat(), filename.replace("maps/", "").replace(".zip", ".png")));
-    coopMap.setThumbnailUrlLarge(String.format(fafApiProperties.getMap().getLargePreviewsUrlFormat(), filename.replace("maps/", "").replace(".zip", ".png")));
+    coopMap.setFolderName(Suppliers.memoize(() -> filename.substring(filename.indexOf('/') + 1, filename.indexOf(".zip"))));
+    coopMap.setDownloadUrl(Suppliers.memoize(() -> String.format(fafApiProperties.getMap().getDownloadUrlFormat(), filename.replace("maps/", ""))));
+    coopMap.setThumbnailUrlSmall(Suppliers.memoize(() -> String.format(fafApiProperties.getMap().getSmallPreviewsUrlFormat(), filename.replace("maps/", "").replace(".zip", ".png"))));
+    coopMap.setThumbnailUrlLarge(Suppliers.memoize(() -> String.format(fafApiProperties.getMap().getLargePreviewsUrlFormat(), filename.replace("maps/", "").replace(".zip", ".png"))));
   }
 }
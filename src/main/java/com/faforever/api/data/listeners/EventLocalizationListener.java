@@ -1,6 +1,7 @@
 package com.faforever.api.data.listeners;
 
 import com.faforever.api.data.domain.Event;
+import com.google.common.base.Suppliers;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.stereotype.Component;
@@ -19,8 +20,12 @@ public class EventLocalizationListener {
     EventLocalizationListener.messageSourceAccessor = messageSourceAccessor;
   }
 
+  /**
+   * Sets up the translated name, which is only looked up when it's first accessed.
+   */
   @PostLoad
   public void translate(Event event) {
-    event.setName(messageSourceAccessor.getMessage(event.getNameKey()));
+    String nameKey = event.getNameKey();
+    event.setName(Suppliers.memoize(() -> messageSourceAccessor.getMessage(nameKey)));
   }
 }
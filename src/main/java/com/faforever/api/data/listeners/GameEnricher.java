@@ -2,6 +2,7 @@ package com.faforever.api.data.listeners;
 
 import com.faforever.api.config.FafApiProperties;
 import com.faforever.api.data.domain.Game;
+import com.google.common.base.Suppliers;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.springframework.stereotype.Component;
 
@@ -18,9 +19,17 @@ public class GameEnricher {
     GameEnricher.fafApiProperties = fafApiProperties;
   }
 
+  /**
+   * Sets up the replay URL, which is only computed when it's first accessed, and unescapes the game name.
+   */
   @PostLoad
   public void enrich(Game game) {
-    game.setReplayUrl(String.format(fafApiProperties.getReplay().getDownloadUrlFormat(), game.getId()));
-    game.setName(StringEscapeUtils.unescapeHtml4(game.getName()));
+    int id = game.getId();
+    game.setReplayUrl(Suppliers.memoize(() -> String.format(fafApiProperties.getReplay().getDownloadUrlFormat(), id)));
+    String name = game.getName();
+    // Most names don't contain any entities, which is much cheaper to check than to unescape
+    if (name != null && name.indexOf('&') >= 0) {
+      game.setName(StringEscapeUtils.unescapeHtml4(name));
+    }
   }
 }
@@ -1,11 +1,12 @@
 package com.faforever.api.data.listeners;
 
+import com.faforever.api.cache.ResponseDependencyIndex;
 import com.faforever.api.data.domain.Map;
-import com.faforever.api.data.domain.MapVersion;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Component;
 
+import javax.inject.Inject;
+import javax.persistence.PostPersist;
 import javax.persistence.PostRemove;
 import javax.persistence.PostUpdate;
 
@@ -13,10 +14,25 @@ import javax.persistence.PostUpdate;
 @Slf4j
 public class MapChangeListener {
 
-  @CacheEvict(allEntries = true, cacheNames = {Map.TYPE_NAME, MapVersion.TYPE_NAME})
+  private static ResponseDependencyIndex responseDependencyIndex;
+
+  @Inject
+  public void init(ResponseDependencyIndex responseDependencyIndex) {
+    MapChangeListener.responseDependencyIndex = responseDependencyIndex;
+  }
+
+  @PostPersist
+  public void mapCreated(Map map) {
+    log.debug("Map collections evicted from cache, due to new map with id: {}", map.getId());
+    responseDependencyIndex.evictCollections(Map.TYPE_NAME);
+  }
+
   @PostUpdate
   @PostRemove
   public void mapChanged(Map map) {
-    log.debug("Map and MapVersion cache evicted, due to change on MapVersion with id: {}", map.getId());
+    log.debug("Cached responses containing map with id {} and map collections evicted, due to change", map.getId());
+    responseDependencyIndex.evictResource(Map.TYPE_NAME, map.getId());
+    // The change may make the map match filtered collections it wasn't part of before
+    responseDependencyIndex.evictCollections(Map.TYPE_NAME);
   }
 }
@@ -1,14 +1,17 @@
 package com.faforever.api.data.listeners;
 
+import com.faforever.api.cache.EntityCacheEvictor;
+import com.faforever.api.cache.ResponseDependencyIndex;
 import com.faforever.api.config.FafApiProperties;
 import com.faforever.api.data.domain.Map;
 import com.faforever.api.data.domain.MapVersion;
+import com.google.common.base.Suppliers;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.PostRemove;
 import javax.persistence.PostUpdate;
 
@@ -17,25 +20,47 @@ import javax.persistence.PostUpdate;
 public class MapVersionEnricher {
 
   private static FafApiProperties apiProperties;
+  private static ResponseDependencyIndex responseDependencyIndex;
+  private static EntityCacheEvictor entityCacheEvictor;
 
   @Inject
-  public void init(FafApiProperties apiProperties) {
+  public void init(FafApiProperties apiProperties, ResponseDependencyIndex responseDependencyIndex, EntityCacheEvictor entityCacheEvictor) {
     MapVersionEnricher.apiProperties = apiProperties;
+    MapVersionEnricher.responseDependencyIndex = responseDependencyIndex;
+    MapVersionEnricher.entityCacheEvictor = entityCacheEvictor;
   }
 
+  /**
+   * Sets up the computed attributes, which are only computed when they're first accessed. Most loaded map versions
+   * are never serialized with all of them, or at all.
+   */
   @PostLoad
   public void enhance(MapVersion mapVersion) {
     String filename = mapVersion.getFilename();
-    mapVersion.setDownloadUrl(String.format(apiProperties.getMap().getDownloadUrlFormat(), filename.replace("maps/", "")));
-    mapVersion.setThumbnailUrlLarge(String.format(apiProperties.getMap().getLargePreviewsUrlFormat(), filename.replace("maps/", "").replace(".zip", ".png")));
-    mapVersion.setThumbnailUrlSmall(String.format(apiProperties.getMap().getSmallPreviewsUrlFormat(), filename.replace("maps/", "").replace(".zip", ".png")));
-    mapVersion.setFolderName(filename.substring(filename.indexOf('/') + 1, filename.indexOf(".zip")));
+    mapVersion.setDownloadUrl(Suppliers.memoize(() -> String.format(apiProperties.getMap().getDownloadUrlFormat(), filename.replace("maps/", ""))));
+    mapVersion.setThumbnailUrlLarge(Suppliers.memoize(() -> String.format(apiProperties.getMap().getLargePreviewsUrlFormat(), filename.replace("maps/", "").replace(".zip", ".png"))));
+    mapVersion.setThumbnailUrlSmall(Suppliers.memoize(() -> String.format(apiProperties.getMap().getSmallPreviewsUrlFormat(), filename.replace("maps/", "").replace(".zip", ".png"))));
+    mapVersion.setFolderName(Suppliers.memoize(() -> filename.substring(filename.indexOf('/') + 1, filename.indexOf(".zip"))));
+  }
+
+  @PostPersist
+  public void mapVersionCreated(MapVersion mapVersion) {
+    log.debug("MapVersion collections evicted from cache, due to new MapVersion with id: {}", mapVersion.getId());
+    responseDependencyIndex.evictCollections(MapVersion.TYPE_NAME);
+    // The map's latest version changes
+    responseDependencyIndex.evictResource(Map.TYPE_NAME, mapVersion.getMap().getId());
+    entityCacheEvictor.evict(Map.class, mapVersion.getMap().getId());
   }
 
-  @CacheEvict(allEntries = true, cacheNames = {Map.TYPE_NAME, MapVersion.TYPE_NAME})
   @PostUpdate
   @PostRemove
   public void mapVersionChanged(MapVersion mapVersion) {
-    log.debug("Map and MapVersion cache evicted, due to change on MapVersion with id: {}", mapVersion.getId());
+    log.debug("Cached responses containing MapVersion with id {} or its map and MapVersion collections evicted, due to change",
+      mapVersion.getId());
+    responseDependencyIndex.evictResource(MapVersion.TYPE_NAME, mapVersion.getId());
+    // The change may make the version match filtered collections it wasn't part of before, like ranked or hidden ones
+    responseDependencyIndex.evictCollections(MapVersion.TYPE_NAME);
+    responseDependencyIndex.evictResource(Map.TYPE_NAME, mapVersion.getMap().getId());
+    entityCacheEvictor.evict(Map.class, mapVersion.getMap().getId());
   }
 }
@@ -1,11 +1,17 @@
 package com.faforever.api.data.listeners;
 
+import com.faforever.api.cache.EntityCacheEvictor;
 import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.data.domain.Mod;
 import com.faforever.api.data.domain.ModVersion;
+import com.google.common.base.Suppliers;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
 
 import static com.faforever.api.mod.ModService.MOD_PATH_PREFIX;
 
@@ -13,22 +19,35 @@ import static com.faforever.api.mod.ModService.MOD_PATH_PREFIX;
 public class ModVersionEnricher {
 
   private static FafApiProperties apiProperties;
+  private static EntityCacheEvictor entityCacheEvictor;
 
   @Inject
-  public void init(FafApiProperties apiProperties) {
+  public void init(FafApiProperties apiProperties, EntityCacheEvictor entityCacheEvictor) {
     ModVersionEnricher.apiProperties = apiProperties;
+    ModVersionEnricher.entityCacheEvictor = entityCacheEvictor;
   }
 
+  /**
+   * Sets up the computed attributes, which are only computed when they're first accessed.
+   */
   @PostLoad
   public void enhance(ModVersion modVersion) {
     String filename = modVersion.getFilename();
-    modVersion.setThumbnailUrl(String.format(
+    modVersion.setThumbnailUrl(Suppliers.memoize(() -> String.format(
         apiProperties.getMod().getPreviewUrlFormat(),
         filename.replace(MOD_PATH_PREFIX, "").replace(".zip", ".png")
-    ));
-    modVersion.setDownloadUrl(String.format(
+    )));
+    modVersion.setDownloadUrl(Suppliers.memoize(() -> String.format(
         apiProperties.getMod().getDownloadUrlFormat(),
         filename.replace(MOD_PATH_PREFIX, "")
-    ));
+    )));
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void modVersionChanged(ModVersion modVersion) {
+    // The mod's latest version and update time change
+    entityCacheEvictor.evict(Mod.class, modVersion.getMod().getId());
   }
 }
@@ -0,0 +1,58 @@
+package com.faforever.api.data.listeners;
+
+import com.faforever.api.cache.EntityCacheEvictor;
+import com.faforever.api.cache.ResponseDependencyIndex;
+import com.faforever.api.data.domain.GameReview;
+import com.faforever.api.data.domain.GameReviewsSummary;
+import com.faforever.api.data.domain.MapVersionReview;
+import com.faforever.api.data.domain.MapVersionReviewsSummary;
+import com.faforever.api.data.domain.ModVersionReview;
+import com.faforever.api.data.domain.ModVersionReviewsSummary;
+import com.faforever.api.data.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Evicts the cached reviews summary of the reviewed game, map version or mod version whenever one of its reviews is
+ * created, changed or deleted, since the summaries are computed by the database and Hibernate doesn't know they
+ * depend on the reviews.
+ */
+@Component
+@Slf4j
+public class ReviewChangeListener {
+
+  private static ResponseDependencyIndex responseDependencyIndex;
+  private static EntityCacheEvictor entityCacheEvictor;
+
+  @Inject
+  public void init(ResponseDependencyIndex responseDependencyIndex, EntityCacheEvictor entityCacheEvictor) {
+    ReviewChangeListener.responseDependencyIndex = responseDependencyIndex;
+    ReviewChangeListener.entityCacheEvictor = entityCacheEvictor;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void reviewChanged(Review review) {
+    if (review instanceof GameReview) {
+      evictSummary(GameReviewsSummary.class, GameReviewsSummary.TYPE_NAME, ((GameReview) review).getGame().getId());
+    } else if (review instanceof MapVersionReview) {
+      evictSummary(MapVersionReviewsSummary.class, MapVersionReviewsSummary.TYPE_NAME,
+        ((MapVersionReview) review).getMapVersion().getId());
+    } else if (review instanceof ModVersionReview) {
+      evictSummary(ModVersionReviewsSummary.class, ModVersionReviewsSummary.TYPE_NAME,
+        ((ModVersionReview) review).getModVersion().getId());
+    }
+  }
+
+  private void evictSummary(Class<?> summaryClass, String summaryType, int id) {
+    log.debug("{} with id {} evicted from cache, due to changed review", summaryClass.getSimpleName(), id);
+    entityCacheEvictor.evict(summaryClass, id);
+    responseDependencyIndex.evictResource(summaryType, id);
+  }
+}
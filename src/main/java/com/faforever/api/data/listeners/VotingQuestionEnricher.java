@@ -19,17 +19,6 @@ public class VotingQuestionEnricher {
 
   @PostLoad
   public void enhance(VotingQuestion votingQuestion) {
-    if (votingQuestion.getVotingChoices() != null) {
-      int numberOfAnswers = votingQuestion.getVotingChoices().stream()
-        .mapToInt(votingChoice -> {
-          if (votingChoice.getVotingAnswers() == null) {
-            return 0;
-          }
-          return votingChoice.getVotingAnswers().size();
-        })
-        .sum();
-      votingQuestion.setNumberOfAnswers(numberOfAnswers);
-    }
     votingQuestion.setQuestion(messageSourceAccessor.getMessage(votingQuestion.getQuestionKey()));
     if (!Strings.isNullOrEmpty(votingQuestion.getDescriptionKey())) {
       votingQuestion.setDescription(messageSourceAccessor.getMessage(votingQuestion.getDescriptionKey()));
@@ -91,7 +91,12 @@ public enum ErrorCode {
   VOTING_CHOICE_DOES_NOT_EXIST(181, "Invalid choice", "There is no voting choice with the ID ''{0}''."),
   STEAM_ID_ALREADY_LINKED(182, " Steam account already linked to a FAF account", "You linked this account already to user with name ''{0}''."),
   MAP_NAME_INVALID(183, "Map name invalid", "The name of the map in the scenario file can only contain printable ASCII characters and blanks."),
-  MOD_NAME_INVALID(184, "Mod name invalid", "The name of the mod in the scenario file can only contain printable ASCII characters and blanks.");
+  MOD_NAME_INVALID(184, "Mod name invalid", "The name of the mod in the scenario file can only contain printable ASCII characters and blanks."),
+  QUERY_INVALID_PAGE_CURSOR(185, "Invalid page cursor", "Page cursor is not valid: {0}"),
+  QUERY_TOO_EXPENSIVE(186, "Query too expensive", "The estimated cost of the query is {0, number}, but at most {1, number} is allowed. Request fewer results per page, include fewer relationships or use simpler filters."),
+  UPLOAD_QUEUE_FULL(187, "Too many pending uploads", "There are already {0, number} uploads waiting to be processed. Please try again later."),
+  UPLOAD_JOB_NOT_FOUND(188, "Upload not found", "There is no upload with the ID ''{0}''."),
+  UPLOAD_PROCESSING_FAILED(189, "Upload could not be processed", "The upload could not be processed due to an internal error.");
 
 
   private final int code;
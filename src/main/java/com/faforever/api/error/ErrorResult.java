@@ -5,7 +5,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 
+import java.text.MessageFormat;
 import java.util.Map;
 import java.util.Optional;
 
@@ -22,6 +24,18 @@ public class ErrorResult {
   private String appCode;
   private Meta meta;
 
+  public static ErrorResult of(Error error, HttpStatus status) {
+    ErrorCode errorCode = error.getErrorCode();
+    Object[] args = error.getArgs();
+    return new ErrorResult(
+      String.valueOf(status.value()),
+      errorCode.getTitle(),
+      MessageFormat.format(errorCode.getDetail(), args),
+      String.valueOf(errorCode.getCode()),
+      createMeta(args, null).orElse(null)
+    );
+  }
+
   public static Optional<Meta> createMeta(Object[] args, Map<String, String> additionalInfo) {
     if ((args == null || args.length == 0) && (additionalInfo == null || additionalInfo.isEmpty())) {
       return Optional.empty();
@@ -13,7 +13,6 @@ import org.springframework.web.multipart.support.MissingServletRequestPartExcept
 
 import javax.validation.ConstraintViolationException;
 import javax.validation.ValidationException;
-import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.concurrent.CompletionException;
 
@@ -143,17 +142,8 @@ class GlobalControllerExceptionHandler {
 
   private ErrorResponse createResponseFromApiException(ApiException apiException, HttpStatus status) {
     ErrorResponse response = new ErrorResponse();
-    Arrays.stream(apiException.getErrors()).forEach(error -> {
-      ErrorCode errorCode = error.getErrorCode();
-      final Object[] args = error.getArgs();
-      response.addError(new ErrorResult(
-        String.valueOf(status.value()),
-        errorCode.getTitle(),
-        MessageFormat.format(errorCode.getDetail(), args),
-        String.valueOf(errorCode.getCode()),
-        ErrorResult.createMeta(args, null).orElse(null)
-      ));
-    });
+    Arrays.stream(apiException.getErrors())
+      .forEach(error -> response.addError(ErrorResult.of(error, status)));
     return response;
   }
 }
@@ -23,6 +23,7 @@ public class FeaturedModService {
   }
 
   @Cacheable(FEATURED_MOD_FILES_CACHE_NAME)
+  @Transactional(readOnly = true)
   public List<FeaturedModFile> getFiles(String modName, @Nullable Integer version) {
     return legacyFeaturedModFileRepository.getFiles(modName, version);
   }
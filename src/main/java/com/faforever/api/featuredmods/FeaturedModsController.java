@@ -1,5 +1,6 @@
 package com.faforever.api.featuredmods;
 
+import com.faforever.api.config.datasource.ReplicaReads;
 import com.faforever.api.data.domain.FeaturedMod;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -46,7 +47,10 @@ public class FeaturedModsController {
 
     Integer innerVersion = "latest".equals(version) ? null : Integer.valueOf(version);
 
-    List<Resource> values = featuredModService.getFiles(featuredMod.getTechnicalName(), innerVersion).stream()
+    // Deployments read the files from the primary database, since they need to see the latest version
+    List<FeaturedModFile> files = ReplicaReads.call(() ->
+      featuredModService.getFiles(featuredMod.getTechnicalName(), innerVersion));
+    List<Resource> values = files.stream()
       .map(modFileMapper())
       .collect(Collectors.toList());
 
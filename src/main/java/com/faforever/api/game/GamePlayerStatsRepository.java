@@ -4,7 +4,19 @@ import com.faforever.api.data.domain.GamePlayerStats;
 import com.faforever.api.data.domain.Player;
 import com.faforever.api.data.domain.Validity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
 
 public interface GamePlayerStatsRepository extends JpaRepository<GamePlayerStats, Integer> {
   int countByPlayerAndGameValidity(Player player, Validity validity);
+
+  /**
+   * Returns the IDs of all players whose game score has been reported after the specified time, which is when their
+   * ratings get updated.
+   */
+  @Query("SELECT DISTINCT s.player.id FROM GamePlayerStats s WHERE s.scoreTime > :since")
+  List<Integer> findPlayerIdsScoredSince(@Param("since") OffsetDateTime since);
 }
@@ -1,49 +1,53 @@
 package com.faforever.api.leaderboard;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface GlobalLeaderboardRepository extends Repository<GlobalLeaderboardEntry, Integer> {
 
+  /**
+   * Returns all entries that are eligible for the leaderboard, unordered and without rank. Ranking is done by {@link
+   * LeaderboardService}. Since this reads a lot of rows, the service reads it from the database replica if there is
+   * one.
+   */
+  @Transactional(readOnly = true)
   @Query(value = "SELECT" +
     "    global_rating.id," +
     "    login.login," +
     "    global_rating.mean," +
     "    global_rating.deviation," +
     "    global_rating.numGames," +
-    "    @s \\:= @s + 1 rank" +
-    "  FROM global_rating JOIN login on login.id = global_rating.id," +
-    "    (SELECT @s \\:= ?#{#pageable.offset}) AS s" +
+    "    0 rank" +
+    "  FROM global_rating JOIN login on login.id = global_rating.id" +
     "  WHERE is_active = 1" +
     "   AND login.id NOT IN (" +
     "     SELECT player_id FROM ban" +
     "     WHERE (expires_at is null or expires_at > NOW()) AND (revoke_time IS NULL OR revoke_time > NOW())" +
-    "  ) " +
-    "  ORDER BY round(mean - 3 * deviation) DESC LIMIT ?#{#pageable.offset},?#{#pageable.pageSize}",
-    countQuery = "SELECT count(*) FROM ladder1v1_rating WHERE is_active = 1 AND ladder1v1_rating.numGames > 0" +
-      "   AND id NOT IN (" +
-      "     SELECT player_id FROM ban" +
-      "     WHERE (expires_at is null or expires_at > NOW()) AND (revoke_time IS NULL OR revoke_time > NOW())" +
-      "  ) -- Dummy placeholder for pageable, prevents 'Unknown parameter position': ?,?,?", nativeQuery = true)
-  Page<GlobalLeaderboardEntry> getLeaderboardByPage(Pageable pageable);
+    "  )", nativeQuery = true)
+  List<GlobalLeaderboardEntry> findAllActive();
 
-  @Query(value = "SELECT * FROM (SELECT\n" +
-    "                 global_rating.id,\n" +
-    "                 login.login,\n" +
-    "                 global_rating.mean,\n" +
-    "                 global_rating.deviation,\n" +
-    "                 global_rating.numGames,\n" +
-    "                 @s \\:= @s + 1 rank\n" +
-    "FROM global_rating JOIN login on login.id = global_rating.id,\n" +
-    "(SELECT @s \\:= 0) AS s\n" +
-    "WHERE is_active = 1\n" +
+  /**
+   * Like {@link #findAllActive()} but restricted to the specified players. Players that are not eligible for the
+   * leaderboard (anymore) are not returned.
+   */
+  @Query(value = "SELECT" +
+    "    global_rating.id," +
+    "    login.login," +
+    "    global_rating.mean," +
+    "    global_rating.deviation," +
+    "    global_rating.numGames," +
+    "    0 rank" +
+    "  FROM global_rating JOIN login on login.id = global_rating.id" +
+    "  WHERE is_active = 1" +
+    "   AND global_rating.id IN (:playerIds)" +
     "   AND login.id NOT IN (" +
     "     SELECT player_id FROM ban" +
-    "     WHERE (expires_at is null or expires_at <= NOW()) AND (revoke_time IS NULL OR revoke_time > NOW())" +
-    "  ) " +
-    "ORDER BY round(mean - 3 * deviation) DESC) as leaderboard WHERE id = :playerId", nativeQuery = true)
-  GlobalLeaderboardEntry findByPlayerId(@Param("playerId") int playerId);
+    "     WHERE (expires_at is null or expires_at > NOW()) AND (revoke_time IS NULL OR revoke_time > NOW())" +
+    "  )", nativeQuery = true)
+  List<GlobalLeaderboardEntry> findAllActiveByIdIn(@Param("playerIds") Collection<Integer> playerIds);
 }
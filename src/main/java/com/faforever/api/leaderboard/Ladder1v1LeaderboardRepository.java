@@ -1,13 +1,21 @@
 package com.faforever.api.leaderboard;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface Ladder1v1LeaderboardRepository extends Repository<Ladder1v1LeaderboardEntry, Integer> {
 
+  /**
+   * Returns all entries that are eligible for the leaderboard, unordered and without rank. Ranking is done by {@link
+   * LeaderboardService}. Since this reads a lot of rows, the service reads it from the database replica if there is
+   * one.
+   */
+  @Transactional(readOnly = true)
   @Query(value = "SELECT" +
     "    ladder1v1_rating.id," +
     "    login.login," +
@@ -15,38 +23,33 @@ public interface Ladder1v1LeaderboardRepository extends Repository<Ladder1v1Lead
     "    ladder1v1_rating.deviation," +
     "    ladder1v1_rating.numGames," +
     "    ladder1v1_rating.winGames," +
-    "    @s \\:= @s + 1 rank" +
-    "  FROM ladder1v1_rating JOIN login on login.id = ladder1v1_rating.id," +
-    "    (SELECT @s \\:= ?#{#pageable.offset}) AS s" +
+    "    0 rank" +
+    "  FROM ladder1v1_rating JOIN login on login.id = ladder1v1_rating.id" +
     "  WHERE is_active = 1 AND ladder1v1_rating.numGames > 0" +
     "   AND login.id NOT IN (" +
     "     SELECT player_id FROM ban" +
     "     WHERE (expires_at is null or expires_at > NOW()) AND (revoke_time IS NULL OR revoke_time > NOW())" +
-    "  ) " +
-    "  ORDER BY round(mean - 3 * deviation) DESC LIMIT ?#{#pageable.offset},?#{#pageable.pageSize}",
-    countQuery = "SELECT count(*) FROM ladder1v1_rating WHERE is_active = 1 AND ladder1v1_rating.numGames > 0" +
-      "   AND id NOT IN (" +
-      "     SELECT player_id FROM ban" +
-      "     WHERE (expires_at is null or expires_at > NOW()) AND (revoke_time IS NULL OR revoke_time > NOW())" +
-      "  ) -- Dummy placeholder for pageable, prevents 'Unknown parameter position': ?,?,?",
-    nativeQuery = true)
-  Page<Ladder1v1LeaderboardEntry> getLeaderboardByPage(Pageable pageable);
+    "  )", nativeQuery = true)
+  List<Ladder1v1LeaderboardEntry> findAllActive();
 
-  @Query(value = "SELECT * FROM (SELECT\n" +
-    "                 ladder1v1_rating.id,\n" +
-    "                 login.login,\n" +
-    "                 ladder1v1_rating.mean,\n" +
-    "                 ladder1v1_rating.deviation,\n" +
-    "                 ladder1v1_rating.numGames,\n" +
-    "                 ladder1v1_rating.winGames," +
-    "                 @s \\:= @s + 1 rank\n" +
-    "FROM ladder1v1_rating JOIN login on login.id = ladder1v1_rating.id,\n" +
-    "(SELECT @s \\:= 0) AS s\n" +
-    "WHERE is_active = 1\n" +
+  /**
+   * Like {@link #findAllActive()} but restricted to the specified players. Players that are not eligible for the
+   * leaderboard (anymore) are not returned.
+   */
+  @Query(value = "SELECT" +
+    "    ladder1v1_rating.id," +
+    "    login.login," +
+    "    ladder1v1_rating.mean," +
+    "    ladder1v1_rating.deviation," +
+    "    ladder1v1_rating.numGames," +
+    "    ladder1v1_rating.winGames," +
+    "    0 rank" +
+    "  FROM ladder1v1_rating JOIN login on login.id = ladder1v1_rating.id" +
+    "  WHERE is_active = 1 AND ladder1v1_rating.numGames > 0" +
+    "   AND ladder1v1_rating.id IN (:playerIds)" +
     "   AND login.id NOT IN (" +
     "     SELECT player_id FROM ban" +
     "     WHERE (expires_at is null or expires_at > NOW()) AND (revoke_time IS NULL OR revoke_time > NOW())" +
-    "  ) " +
-    "ORDER BY round(mean - 3 * deviation) DESC) as leaderboard WHERE id = :playerId", nativeQuery = true)
-  Ladder1v1LeaderboardEntry findByPlayerId(@Param("playerId") int playerId);
+    "  )", nativeQuery = true)
+  List<Ladder1v1LeaderboardEntry> findAllActiveByIdIn(@Param("playerIds") Collection<Integer> playerIds);
 }
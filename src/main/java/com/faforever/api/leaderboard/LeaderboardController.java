@@ -1,76 +1,67 @@
 package com.faforever.api.leaderboard;
 
+import com.faforever.api.leaderboard.LeaderboardRanking.RankedEntry;
 import com.faforever.api.web.ResourceNotFoundException;
 import com.google.common.collect.ImmutableMap;
 import com.yahoo.elide.jsonapi.models.Data;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import com.yahoo.elide.jsonapi.models.Resource;
 import io.swagger.annotations.ApiOperation;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 @RestController
 @RequestMapping(path = "/leaderboards")
 public class LeaderboardController {
-  private static final String GLOBAL_LEADERBOARD_ENTRY = "globalLeaderboardEntry";
-  private static final String LADDER_1V1_LEADERBOARD_ENTRY = "ladder1v1LeaderboardEntry";
-
   private final LeaderboardService leaderboardService;
+  private final LeaderboardJsonApiWriter leaderboardJsonApiWriter;
 
-  public LeaderboardController(LeaderboardService leaderboardService) {
+  public LeaderboardController(LeaderboardService leaderboardService, LeaderboardJsonApiWriter leaderboardJsonApiWriter) {
     this.leaderboardService = leaderboardService;
+    this.leaderboardJsonApiWriter = leaderboardJsonApiWriter;
   }
 
-  @Async
   @RequestMapping(path = "/ladder1v1", method = RequestMethod.GET)
-  @ApiOperation("Lists the ladder1v1 leaderboard")
-  public CompletableFuture<JsonApiDocument> getLadder1v1(@RequestParam(value = "page[number]", required = false) Integer page,
-                                                         @RequestParam(value = "page[size]", required = false) Integer pageSize) {
-    List<Resource> values = StreamSupport.stream(leaderboardService.getLadder1v1Leaderboard(page, pageSize).spliterator(), false)
-      .map(entry -> new Resource(LADDER_1V1_LEADERBOARD_ENTRY, String.valueOf(entry.getId()),
-        ImmutableMap.<String, Object>builder()
-          .put("name", entry.getPlayerName())
-          .put("mean", entry.getMean())
-          .put("deviation", entry.getDeviation())
-          .put("numGames", entry.getNumGames())
-          .put("wonGames", entry.getWonGames())
-          .put("rank", entry.getRank())
-          .put("rating", (int) (entry.getMean() - 3 * entry.getDeviation()))
-          .build(),
-        null, null, null))
-      .collect(Collectors.toList());
-
-    return CompletableFuture.completedFuture(new JsonApiDocument(new Data<>(values)));
+  @ApiOperation(value = "Lists the ladder1v1 leaderboard",
+    notes = "Pass page[cursor] (empty for the first page) to use keyset pagination instead of page numbers. The cursor of the next page is returned as meta.page.cursor.")
+  public ResponseEntity<StreamingResponseBody> getLadder1v1(@RequestParam(value = "page[number]", required = false) Integer page,
+                                                            @RequestParam(value = "page[size]", required = false) Integer pageSize,
+                                                            @RequestParam(value = "page[cursor]", required = false) String cursor) {
+    if (cursor == null) {
+      List<RankedEntry<Ladder1v1LeaderboardEntry>> entries = leaderboardService.getLadder1v1Leaderboard(page, pageSize);
+      return streamingResponse(outputStream -> leaderboardJsonApiWriter.writeLadder1v1(entries, null, outputStream));
+    }
+
+    List<RankedEntry<Ladder1v1LeaderboardEntry>> entries = leaderboardService.getLadder1v1LeaderboardAfter(parseCursor(cursor), pageSize);
+    LeaderboardCursor nextCursor = nextLadder1v1Cursor(entries);
+    return streamingResponse(outputStream -> leaderboardJsonApiWriter.writeLadder1v1(entries, nextCursor, outputStream));
   }
 
-  @Async
   @RequestMapping(path = "/global", method = RequestMethod.GET)
-  @ApiOperation("Lists the global leaderboard")
-  public CompletableFuture<JsonApiDocument> getGlobal(@RequestParam(value = "page[number]", required = false) Integer page,
-                                                      @RequestParam(value = "page[size]", required = false) Integer pageSize) {
-    List<Resource> values = StreamSupport.stream(leaderboardService.getGlobalLeaderboard(page, pageSize).spliterator(), false)
-      .map(entry -> new Resource(GLOBAL_LEADERBOARD_ENTRY, String.valueOf(entry.getId()),
-        ImmutableMap.<String, Object>builder()
-          .put("name", entry.getPlayerName())
-          .put("mean", entry.getMean())
-          .put("deviation", entry.getDeviation())
-          .put("numGames", entry.getNumGames())
-          .put("rank", entry.getRank())
-          .put("rating", (int) (entry.getMean() - 3 * entry.getDeviation()))
-          .build(),
-        null, null, null))
-      .collect(Collectors.toList());
-
-    return CompletableFuture.completedFuture(new JsonApiDocument(new Data<>(values)));
+  @ApiOperation(value = "Lists the global leaderboard",
+    notes = "Pass page[cursor] (empty for the first page) to use keyset pagination instead of page numbers. The cursor of the next page is returned as meta.page.cursor.")
+  public ResponseEntity<StreamingResponseBody> getGlobal(@RequestParam(value = "page[number]", required = false) Integer page,
+                                                         @RequestParam(value = "page[size]", required = false) Integer pageSize,
+                                                         @RequestParam(value = "page[cursor]", required = false) String cursor) {
+    if (cursor == null) {
+      List<RankedEntry<GlobalLeaderboardEntry>> entries = leaderboardService.getGlobalLeaderboard(page, pageSize);
+      return streamingResponse(outputStream -> leaderboardJsonApiWriter.writeGlobal(entries, null, outputStream));
+    }
+
+    List<RankedEntry<GlobalLeaderboardEntry>> entries = leaderboardService.getGlobalLeaderboardAfter(parseCursor(cursor), pageSize);
+    LeaderboardCursor nextCursor = nextGlobalCursor(entries);
+    return streamingResponse(outputStream -> leaderboardJsonApiWriter.writeGlobal(entries, nextCursor, outputStream));
   }
 
   @Async
@@ -82,18 +73,7 @@ public class LeaderboardController {
       throw new ResourceNotFoundException("No ladder1v1 entry found for player: " + playerId);
     }
 
-    Resource resource = new Resource(LADDER_1V1_LEADERBOARD_ENTRY, playerId, ImmutableMap.<String, Object>builder()
-      .put("name", entry.getPlayerName())
-      .put("mean", entry.getMean())
-      .put("deviation", entry.getDeviation())
-      .put("numGames", entry.getNumGames())
-      .put("wonGames", entry.getWonGames())
-      .put("rank", entry.getRank())
-      .put("rating", (int) (entry.getMean() - 3 * entry.getDeviation()))
-      .build(),
-      null, null, null);
-
-    return CompletableFuture.completedFuture(new JsonApiDocument(new Data<>(resource)));
+    return CompletableFuture.completedFuture(new JsonApiDocument(new Data<>(toLadder1v1Resource(entry))));
   }
 
   @Async
@@ -105,16 +85,67 @@ public class LeaderboardController {
       throw new ResourceNotFoundException("No global leaderboard entry found for player: " + playerId);
     }
 
-    Resource resource = new Resource(GLOBAL_LEADERBOARD_ENTRY, playerId, ImmutableMap.<String, Object>builder()
-      .put("name", entry.getPlayerName())
-      .put("mean", entry.getMean())
-      .put("deviation", entry.getDeviation())
-      .put("numGames", entry.getNumGames())
-      .put("rank", entry.getRank())
-      .put("rating", (int) (entry.getMean() - 3 * entry.getDeviation()))
-      .build(),
+    return CompletableFuture.completedFuture(new JsonApiDocument(new Data<>(toGlobalResource(entry))));
+  }
+
+  /**
+   * Parses the specified cursor, where an empty cursor stands for the beginning of the leaderboard.
+   */
+  @Nullable
+  private static LeaderboardCursor parseCursor(String cursor) {
+    return cursor.isEmpty() ? null : LeaderboardCursor.parse(cursor);
+  }
+
+  /** Returns the cursor of the page after the specified one, or {@code null} if there are no more entries. */
+  @Nullable
+  private static LeaderboardCursor nextLadder1v1Cursor(List<RankedEntry<Ladder1v1LeaderboardEntry>> entries) {
+    if (entries.isEmpty()) {
+      return null;
+    }
+    Ladder1v1LeaderboardEntry last = entries.get(entries.size() - 1).getPayload();
+    return LeaderboardService.cursorOf(last.getId(), last.getMean(), last.getDeviation());
+  }
+
+  /** Returns the cursor of the page after the specified one, or {@code null} if there are no more entries. */
+  @Nullable
+  private static LeaderboardCursor nextGlobalCursor(List<RankedEntry<GlobalLeaderboardEntry>> entries) {
+    if (entries.isEmpty()) {
+      return null;
+    }
+    GlobalLeaderboardEntry last = entries.get(entries.size() - 1).getPayload();
+    return LeaderboardService.cursorOf(last.getId(), last.getMean(), last.getDeviation());
+  }
+
+  private static ResponseEntity<StreamingResponseBody> streamingResponse(StreamingResponseBody body) {
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_JSON_UTF8)
+      .body(body);
+  }
+
+  private static Resource toLadder1v1Resource(Ladder1v1LeaderboardEntry entry) {
+    return new Resource(LeaderboardJsonApiWriter.LADDER_1V1_LEADERBOARD_ENTRY, String.valueOf(entry.getId()),
+      ImmutableMap.<String, Object>builder()
+        .put("name", entry.getPlayerName())
+        .put("mean", entry.getMean())
+        .put("deviation", entry.getDeviation())
+        .put("numGames", entry.getNumGames())
+        .put("wonGames", entry.getWonGames())
+        .put("rank", entry.getRank())
+        .put("rating", (int) (entry.getMean() - 3 * entry.getDeviation()))
+        .build(),
       null, null, null);
+  }
 
-    return CompletableFuture.completedFuture(new JsonApiDocument(new Data<>(resource)));
+  private static Resource toGlobalResource(GlobalLeaderboardEntry entry) {
+    return new Resource(LeaderboardJsonApiWriter.GLOBAL_LEADERBOARD_ENTRY, String.valueOf(entry.getId()),
+      ImmutableMap.<String, Object>builder()
+        .put("name", entry.getPlayerName())
+        .put("mean", entry.getMean())
+        .put("deviation", entry.getDeviation())
+        .put("numGames", entry.getNumGames())
+        .put("rank", entry.getRank())
+        .put("rating", (int) (entry.getMean() - 3 * entry.getDeviation()))
+        .build(),
+      null, null, null);
   }
 }
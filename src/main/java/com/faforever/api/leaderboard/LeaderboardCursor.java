@@ -0,0 +1,46 @@
+package com.faforever.api.leaderboard;
+
+import com.faforever.api.error.ApiException;
+import com.faforever.api.error.Error;
+import com.faforever.api.error.ErrorCode;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Position in a leaderboard, used for keyset pagination. Its string representation is {@code <rating>:<playerId>} of
+ * the last entry of the previous page, like {@code 1140:42}.
+ */
+@Getter
+@EqualsAndHashCode
+public class LeaderboardCursor {
+
+  private static final char SEPARATOR = ':';
+
+  private final int rating;
+  private final int playerId;
+
+  public LeaderboardCursor(int rating, int playerId) {
+    this.rating = rating;
+    this.playerId = playerId;
+  }
+
+  public static LeaderboardCursor parse(String value) {
+    int separatorIndex = value.indexOf(SEPARATOR);
+    if (separatorIndex < 0) {
+      throw new ApiException(new Error(ErrorCode.QUERY_INVALID_PAGE_CURSOR, value));
+    }
+    try {
+      return new LeaderboardCursor(
+        Integer.parseInt(value.substring(0, separatorIndex)),
+        Integer.parseInt(value.substring(separatorIndex + 1))
+      );
+    } catch (NumberFormatException e) {
+      throw new ApiException(new Error(ErrorCode.QUERY_INVALID_PAGE_CURSOR, value));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(rating) + SEPARATOR + playerId;
+  }
+}
@@ -0,0 +1,98 @@
+package com.faforever.api.leaderboard;
+
+import com.faforever.api.leaderboard.LeaderboardRanking.RankedEntry;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Writes leaderboard pages as JSON:API documents directly to an output stream. Other than building a {@link
+ * com.yahoo.elide.jsonapi.models.JsonApiDocument}, this doesn't create any intermediate objects per entry, which keeps
+ * the memory footprint of large pages low.
+ */
+@Component
+public class LeaderboardJsonApiWriter {
+
+  static final String GLOBAL_LEADERBOARD_ENTRY = "globalLeaderboardEntry";
+  static final String LADDER_1V1_LEADERBOARD_ENTRY = "ladder1v1LeaderboardEntry";
+
+  private final JsonFactory jsonFactory;
+
+  public LeaderboardJsonApiWriter(ObjectMapper objectMapper) {
+    this.jsonFactory = objectMapper.getFactory();
+  }
+
+  void writeLadder1v1(List<RankedEntry<Ladder1v1LeaderboardEntry>> entries, @Nullable LeaderboardCursor nextCursor, OutputStream outputStream) throws IOException {
+    write(LADDER_1V1_LEADERBOARD_ENTRY, entries, nextCursor, outputStream, Ladder1v1LeaderboardEntry::getId, (rankedEntry, generator) -> {
+      Ladder1v1LeaderboardEntry entry = rankedEntry.getPayload();
+      generator.writeStringField("name", entry.getPlayerName());
+      generator.writeNumberField("mean", entry.getMean());
+      generator.writeNumberField("deviation", entry.getDeviation());
+      generator.writeFieldName("numGames");
+      generator.writeNumber(entry.getNumGames());
+      generator.writeFieldName("wonGames");
+      generator.writeNumber(entry.getWonGames());
+      writeRankAndRating(generator, rankedEntry.getRank(), entry.getMean(), entry.getDeviation());
+    });
+  }
+
+  void writeGlobal(List<RankedEntry<GlobalLeaderboardEntry>> entries, @Nullable LeaderboardCursor nextCursor, OutputStream outputStream) throws IOException {
+    write(GLOBAL_LEADERBOARD_ENTRY, entries, nextCursor, outputStream, GlobalLeaderboardEntry::getId, (rankedEntry, generator) -> {
+      GlobalLeaderboardEntry entry = rankedEntry.getPayload();
+      generator.writeStringField("name", entry.getPlayerName());
+      generator.writeNumberField("mean", entry.getMean());
+      generator.writeNumberField("deviation", entry.getDeviation());
+      generator.writeFieldName("numGames");
+      generator.writeNumber(entry.getNumGames());
+      writeRankAndRating(generator, rankedEntry.getRank(), entry.getMean(), entry.getDeviation());
+    });
+  }
+
+  private <T> void write(String type, List<RankedEntry<T>> entries, @Nullable LeaderboardCursor nextCursor, OutputStream outputStream,
+                         ToIntFunction<T> idGetter, AttributesWriter<T> attributesWriter) throws IOException {
+    try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+      // The servlet container is responsible for the response stream
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("data");
+      for (RankedEntry<T> rankedEntry : entries) {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeStringField("id", String.valueOf(idGetter.applyAsInt(rankedEntry.getPayload())));
+        generator.writeObjectFieldStart("attributes");
+        attributesWriter.write(rankedEntry, generator);
+        generator.writeEndObject();
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+
+      if (nextCursor != null) {
+        generator.writeObjectFieldStart("meta");
+        generator.writeObjectFieldStart("page");
+        generator.writeStringField("cursor", nextCursor.toString());
+        generator.writeEndObject();
+        generator.writeEndObject();
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  private static void writeRankAndRating(JsonGenerator generator, int rank, float mean, float deviation) throws IOException {
+    generator.writeNumberField("rank", rank);
+    generator.writeNumberField("rating", (int) (mean - 3 * deviation));
+  }
+
+  @FunctionalInterface
+  private interface AttributesWriter<T> {
+    void write(RankedEntry<T> rankedEntry, JsonGenerator generator) throws IOException;
+  }
+}
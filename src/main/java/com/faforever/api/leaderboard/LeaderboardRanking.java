@@ -0,0 +1,300 @@
+package com.faforever.api.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory order-statistic index over leaderboard entries. Entries are ordered by rating (descending) and player ID
+ * (ascending) in case of equal ratings.
+ * <p>
+ * Ratings are integral and bucketed; a Fenwick tree over the bucket sizes allows to compute the rank of a player and
+ * to seek to an arbitrary offset in {@code O(log r)} where {@code r} is the number of distinct rating values in range.
+ * Within a bucket, player IDs are kept in a sorted {@code int[]}.
+ * </p>
+ * This class is thread safe.
+ *
+ * @param <T> the type of the payload that is stored alongside each player
+ */
+class LeaderboardRanking<T> {
+
+  /** Additional rating values that are reserved on either side whenever the rating range has to be extended. */
+  private static final int RANGE_MARGIN = 500;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Integer, Slot<T>> slotsByPlayerId = new HashMap<>();
+
+  /** The highest rating that fits into the current range; bucket {@code 0} holds players with this rating. */
+  private int maxRating;
+  private PlayerIds[] buckets = new PlayerIds[0];
+  /** 1-based Fenwick tree over the sizes of {@link #buckets}. */
+  private int[] tree = new int[1];
+
+  /**
+   * Adds the specified player to the ranking or updates its rating and payload if it is already ranked.
+   */
+  void put(int playerId, int rating, T payload) {
+    lock.writeLock().lock();
+    try {
+      Slot<T> existing = slotsByPlayerId.get(playerId);
+      if (existing != null) {
+        if (existing.rating == rating) {
+          slotsByPlayerId.put(playerId, new Slot<>(rating, payload));
+          return;
+        }
+        removeFromBucket(playerId, existing.rating);
+      }
+      ensureRange(rating);
+      int bucketIndex = bucketIndex(rating);
+      if (buckets[bucketIndex] == null) {
+        buckets[bucketIndex] = new PlayerIds();
+      }
+      buckets[bucketIndex].add(playerId);
+      add(bucketIndex, 1);
+      slotsByPlayerId.put(playerId, new Slot<>(rating, payload));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the specified player from the ranking, if present.
+   */
+  void remove(int playerId) {
+    lock.writeLock().lock();
+    try {
+      Slot<T> existing = slotsByPlayerId.remove(playerId);
+      if (existing != null) {
+        removeFromBucket(playerId, existing.rating);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return slotsByPlayerId.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the ranked entry of the specified player, or {@code null} if the player is not ranked.
+   */
+  RankedEntry<T> get(int playerId) {
+    lock.readLock().lock();
+    try {
+      Slot<T> slot = slotsByPlayerId.get(playerId);
+      if (slot == null) {
+        return null;
+      }
+      int bucketIndex = bucketIndex(slot.rating);
+      int rank = prefixSum(bucketIndex) + buckets[bucketIndex].indexOf(playerId) + 1;
+      return new RankedEntry<>(rank, slot.payload);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} entries, starting at the zero-based {@code offset}, in ranking order.
+   */
+  List<RankedEntry<T>> getRange(int offset, int limit) {
+    lock.readLock().lock();
+    try {
+      int size = slotsByPlayerId.size();
+      if (offset < 0 || offset >= size || limit <= 0) {
+        return new ArrayList<>(0);
+      }
+
+      List<RankedEntry<T>> result = new ArrayList<>(Math.min(limit, size - offset));
+      int bucketCount = buckets.length;
+
+      // Fenwick descent: find the bucket containing the entry at "offset" and the position within that bucket
+      int bucketIndex = 0;
+      int remaining = offset;
+      for (int step = Integer.highestOneBit(bucketCount); step > 0; step >>= 1) {
+        int next = bucketIndex + step;
+        if (next <= bucketCount && tree[next] <= remaining) {
+          bucketIndex = next;
+          remaining -= tree[next];
+        }
+      }
+
+      int rank = offset + 1;
+      int position = remaining;
+      for (; bucketIndex < bucketCount && result.size() < limit; bucketIndex++, position = 0) {
+        PlayerIds bucket = buckets[bucketIndex];
+        if (bucket == null) {
+          continue;
+        }
+        for (; position < bucket.size && result.size() < limit; position++) {
+          result.add(new RankedEntry<>(rank++, slotsByPlayerId.get(bucket.ids[position]).payload));
+        }
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} entries that come after the position of the specified rating and player ID in ranking
+   * order. The specified player itself does not need to be ranked (anymore).
+   */
+  List<RankedEntry<T>> getRangeAfter(int rating, int playerId, int limit) {
+    lock.readLock().lock();
+    try {
+      return getRange(countUpTo(rating, playerId), limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Returns the number of entries that are ranked before or at the position of the specified rating and player ID. */
+  private int countUpTo(int rating, int playerId) {
+    int minRating = maxRating - buckets.length + 1;
+    if (buckets.length == 0 || rating > maxRating) {
+      return 0;
+    }
+    if (rating < minRating) {
+      return slotsByPlayerId.size();
+    }
+
+    int bucketIndex = bucketIndex(rating);
+    PlayerIds bucket = buckets[bucketIndex];
+    return prefixSum(bucketIndex) + (bucket == null ? 0 : bucket.countUpTo(playerId));
+  }
+
+  private void removeFromBucket(int playerId, int rating) {
+    int bucketIndex = bucketIndex(rating);
+    buckets[bucketIndex].remove(playerId);
+    add(bucketIndex, -1);
+  }
+
+  private int bucketIndex(int rating) {
+    return maxRating - rating;
+  }
+
+  /**
+   * Extends the rating range (and rebuilds the Fenwick tree) if the specified rating does not fit into it.
+   */
+  private void ensureRange(int rating) {
+    int minRating = maxRating - buckets.length + 1;
+    if (buckets.length > 0 && rating <= maxRating && rating >= minRating) {
+      return;
+    }
+
+    int newMaxRating = buckets.length == 0 ? rating + RANGE_MARGIN : Math.max(maxRating, rating + RANGE_MARGIN);
+    int newMinRating = buckets.length == 0 ? rating - RANGE_MARGIN : Math.min(minRating, rating - RANGE_MARGIN);
+
+    PlayerIds[] newBuckets = new PlayerIds[newMaxRating - newMinRating + 1];
+    int shift = newMaxRating - maxRating;
+    for (int i = 0; i < buckets.length; i++) {
+      newBuckets[i + shift] = buckets[i];
+    }
+
+    maxRating = newMaxRating;
+    buckets = newBuckets;
+    tree = new int[buckets.length + 1];
+    for (int i = 0; i < buckets.length; i++) {
+      if (buckets[i] != null) {
+        tree[i + 1] += buckets[i].size;
+      }
+      int parent = (i + 1) + Integer.lowestOneBit(i + 1);
+      if (parent <= buckets.length) {
+        tree[parent] += tree[i + 1];
+      }
+    }
+  }
+
+  /** Adds {@code delta} to the size of the bucket with the specified zero-based index. */
+  private void add(int bucketIndex, int delta) {
+    for (int i = bucketIndex + 1; i < tree.length; i += Integer.lowestOneBit(i)) {
+      tree[i] += delta;
+    }
+  }
+
+  /** Returns the number of entries in all buckets before the bucket with the specified zero-based index. */
+  private int prefixSum(int bucketIndex) {
+    int sum = 0;
+    for (int i = bucketIndex; i > 0; i -= Integer.lowestOneBit(i)) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+  static class RankedEntry<T> {
+    private final int rank;
+    private final T payload;
+
+    RankedEntry(int rank, T payload) {
+      this.rank = rank;
+      this.payload = payload;
+    }
+
+    int getRank() {
+      return rank;
+    }
+
+    T getPayload() {
+      return payload;
+    }
+  }
+
+  private static class Slot<T> {
+    private final int rating;
+    private final T payload;
+
+    private Slot(int rating, T payload) {
+      this.rating = rating;
+      this.payload = payload;
+    }
+  }
+
+  /** Sorted, growable array of player IDs. */
+  private static class PlayerIds {
+    private int[] ids = new int[4];
+    private int size;
+
+    private void add(int playerId) {
+      int index = Arrays.binarySearch(ids, 0, size, playerId);
+      if (index >= 0) {
+        return;
+      }
+      int insertionPoint = -index - 1;
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      System.arraycopy(ids, insertionPoint, ids, insertionPoint + 1, size - insertionPoint);
+      ids[insertionPoint] = playerId;
+      size++;
+    }
+
+    private void remove(int playerId) {
+      int index = Arrays.binarySearch(ids, 0, size, playerId);
+      if (index < 0) {
+        return;
+      }
+      System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+      size--;
+    }
+
+    private int indexOf(int playerId) {
+      return Arrays.binarySearch(ids, 0, size, playerId);
+    }
+
+    /** Returns the number of IDs that are less than or equal to the specified one. */
+    private int countUpTo(int playerId) {
+      int index = Arrays.binarySearch(ids, 0, size, playerId);
+      return index >= 0 ? index + 1 : -index - 1;
+    }
+  }
+}
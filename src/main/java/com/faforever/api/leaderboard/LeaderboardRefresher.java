@@ -0,0 +1,96 @@
+package com.faforever.api.leaderboard;
+
+import com.faforever.api.ban.BanRepository;
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.game.GamePlayerStatsRepository;
+import com.faforever.api.user.NameRecordRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps the rankings of {@link LeaderboardService} current. Instead of reloading all entries, it periodically polls
+ * for players whose rating, ban status or name changed since the last refresh and only reloads those. A full reload
+ * is still done occasionally to pick up changes that can't be detected this way, like deactivated ratings.
+ */
+@Component
+@Slf4j
+public class LeaderboardRefresher {
+
+  private final LeaderboardService leaderboardService;
+  private final GamePlayerStatsRepository gamePlayerStatsRepository;
+  private final BanRepository banRepository;
+  private final NameRecordRepository nameRecordRepository;
+  private final FafApiProperties properties;
+
+  public LeaderboardRefresher(LeaderboardService leaderboardService, GamePlayerStatsRepository gamePlayerStatsRepository,
+                              BanRepository banRepository, NameRecordRepository nameRecordRepository,
+                              FafApiProperties properties, MeterRegistry meterRegistry) {
+    this.leaderboardService = leaderboardService;
+    this.gamePlayerStatsRepository = gamePlayerStatsRepository;
+    this.banRepository = banRepository;
+    this.nameRecordRepository = nameRecordRepository;
+    this.properties = properties;
+
+    Gauge.builder("faf.leaderboard.refresh.lag", this, LeaderboardRefresher::getLagSeconds)
+      .description("Seconds since the leaderboards have last been brought up to date")
+      .baseUnit("seconds")
+      .register(meterRegistry);
+    Gauge.builder("faf.leaderboard.refresh.last", this, LeaderboardRefresher::getLastRefreshedAtEpochSeconds)
+      .description("Time at which the leaderboards have last been brought up to date")
+      .baseUnit("seconds")
+      .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${faf-api.leaderboard.refresh-interval:PT30S}", initialDelayString = "${faf-api.leaderboard.refresh-interval:PT30S}")
+  public void pollChanges() {
+    Instant lastRefreshedAt = leaderboardService.getLastRefreshedAt();
+    if (lastRefreshedAt == null) {
+      // Not loaded yet, the first access will load everything
+      return;
+    }
+
+    Instant now = Instant.now();
+    OffsetDateTime since = OffsetDateTime.ofInstant(lastRefreshedAt.minus(properties.getLeaderboard().getChangeDetectionOverlap()), ZoneOffset.UTC);
+    OffsetDateTime until = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+
+    Set<Integer> changedPlayerIds = new HashSet<>();
+    changedPlayerIds.addAll(gamePlayerStatsRepository.findPlayerIdsScoredSince(since));
+    changedPlayerIds.addAll(banRepository.findPlayerIdsChangedBetween(since, until));
+    changedPlayerIds.addAll(nameRecordRepository.findPlayerIdsChangedSince(since));
+
+    log.trace("Found {} player(s) with leaderboard changes since {}", changedPlayerIds.size(), since);
+    leaderboardService.update(changedPlayerIds, now);
+  }
+
+  @Scheduled(fixedDelayString = "${faf-api.leaderboard.full-reload-interval:PT1H}", initialDelayString = "${faf-api.leaderboard.full-reload-interval:PT1H}")
+  public void reload() {
+    log.debug("Reloading leaderboards");
+    leaderboardService.refresh();
+  }
+
+  private double getLagSeconds() {
+    Instant lastRefreshedAt = leaderboardService.getLastRefreshedAt();
+    if (lastRefreshedAt == null) {
+      return Double.NaN;
+    }
+    return Duration.between(lastRefreshedAt, Instant.now()).toMillis() / 1000d;
+  }
+
+  private double getLastRefreshedAtEpochSeconds() {
+    Instant lastRefreshedAt = leaderboardService.getLastRefreshedAt();
+    if (lastRefreshedAt == null) {
+      return Double.NaN;
+    }
+    return lastRefreshedAt.toEpochMilli() / 1000d;
+  }
+}
@@ -1,46 +1,228 @@
 package com.faforever.api.leaderboard;
 
+import com.faforever.api.config.datasource.ReplicaReads;
+import com.faforever.api.leaderboard.LeaderboardRanking.RankedEntry;
+import com.google.common.collect.Iterables;
+import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Serves the leaderboards from in-memory rankings, so that neither pages nor the rank of a single player require a
+ * database query. The rankings are loaded on first access and then kept current by {@link LeaderboardRefresher}.
+ */
 @Service
+@Slf4j
 public class LeaderboardService {
 
-  public static final String LEADERBOARD_RANKED_1V1_CACHE_NAME = "LeaderboardService.leaderboard1v1";
-  public static final String LEADERBOARD_GLOBAL_CACHE_NAME = "LeaderboardService.leaderboardGlobal";
   private static final int MAX_RESULTS = 10_000;
+  /** Page size of keyset pagination if none is specified. */
+  private static final int DEFAULT_CURSOR_PAGE_SIZE = 100;
+  /** Maximum number of players to reload with a single query. */
+  private static final int UPDATE_CHUNK_SIZE = 1000;
 
   private final GlobalLeaderboardRepository globalLeaderboardRepository;
   private final Ladder1v1LeaderboardRepository ladder1v1LeaderboardRepository;
 
+  private volatile LeaderboardRanking<GlobalLeaderboardEntry> globalRanking;
+  private volatile LeaderboardRanking<Ladder1v1LeaderboardEntry> ladder1v1Ranking;
+  private volatile Instant lastRefreshedAt;
+
   public LeaderboardService(GlobalLeaderboardRepository globalLeaderboardRepository, Ladder1v1LeaderboardRepository ladder1v1LeaderboardRepository) {
     this.globalLeaderboardRepository = globalLeaderboardRepository;
     this.ladder1v1LeaderboardRepository = ladder1v1LeaderboardRepository;
   }
 
-  @Cacheable(LEADERBOARD_RANKED_1V1_CACHE_NAME)
-  public Page<Ladder1v1LeaderboardEntry> getLadder1v1Leaderboard(@Nullable Integer page, @Nullable Integer pageSize) {
-    return ladder1v1LeaderboardRepository.getLeaderboardByPage(getPageable(page, pageSize));
+  /**
+   * Returns a page of the ladder1v1 leaderboard. The payloads are the instances held by the ranking and must not be
+   * modified; this avoids copying every entry of large pages.
+   */
+  List<RankedEntry<Ladder1v1LeaderboardEntry>> getLadder1v1Leaderboard(@Nullable Integer page, @Nullable Integer pageSize) {
+    Pageable pageable = getPageable(page, pageSize);
+    return getLadder1v1Ranking().getRange((int) pageable.getOffset(), pageable.getPageSize());
+  }
+
+  /**
+   * Returns a page of the global leaderboard. The payloads are the instances held by the ranking and must not be
+   * modified; this avoids copying every entry of large pages.
+   */
+  List<RankedEntry<GlobalLeaderboardEntry>> getGlobalLeaderboard(@Nullable Integer page, @Nullable Integer pageSize) {
+    Pageable pageable = getPageable(page, pageSize);
+    return getGlobalRanking().getRange((int) pageable.getOffset(), pageable.getPageSize());
+  }
+
+  /**
+   * Returns the page of the ladder1v1 leaderboard that follows the specified cursor, or the first page if the cursor is
+   * {@code null}. Unlike offset-based pages, this costs the same for every page.
+   */
+  List<RankedEntry<Ladder1v1LeaderboardEntry>> getLadder1v1LeaderboardAfter(@Nullable LeaderboardCursor cursor, @Nullable Integer pageSize) {
+    return getRangeAfter(getLadder1v1Ranking(), cursor, pageSize);
   }
 
-  @Cacheable(LEADERBOARD_GLOBAL_CACHE_NAME)
-  public Page<GlobalLeaderboardEntry> getGlobalLeaderboard(@Nullable Integer page, @Nullable Integer pageSize) {
-    return globalLeaderboardRepository.getLeaderboardByPage(getPageable(page, pageSize));
+  /**
+   * Returns the page of the global leaderboard that follows the specified cursor, or the first page if the cursor is
+   * {@code null}. Unlike offset-based pages, this costs the same for every page.
+   */
+  List<RankedEntry<GlobalLeaderboardEntry>> getGlobalLeaderboardAfter(@Nullable LeaderboardCursor cursor, @Nullable Integer pageSize) {
+    return getRangeAfter(getGlobalRanking(), cursor, pageSize);
   }
 
+  @Nullable
   public GlobalLeaderboardEntry getGlobalEntry(int playerId) {
-    return globalLeaderboardRepository.findByPlayerId(playerId);
+    return Optional.ofNullable(getGlobalRanking().get(playerId))
+      .map(LeaderboardService::toGlobalEntry)
+      .orElse(null);
   }
 
+  @Nullable
   public Ladder1v1LeaderboardEntry getLadder1v1Entry(int playerId) {
-    return ladder1v1LeaderboardRepository.findByPlayerId(playerId);
+    return Optional.ofNullable(getLadder1v1Ranking().get(playerId))
+      .map(LeaderboardService::toLadder1v1Entry)
+      .orElse(null);
+  }
+
+  /**
+   * Reloads both rankings from the database. Readers keep using the previous rankings until the new ones are complete.
+   */
+  public synchronized void refresh() {
+    Instant start = Instant.now();
+    globalRanking = loadGlobalRanking();
+    ladder1v1Ranking = loadLadder1v1Ranking();
+    lastRefreshedAt = start;
+  }
+
+  /**
+   * Reloads the entries of the specified players and updates their positions in the rankings. Players who are no
+   * longer eligible for a leaderboard are removed from it. Does nothing if the rankings have not been loaded yet.
+   *
+   * @param changedUntil the time up to which all changes of these players are known to be reflected in the database
+   */
+  public synchronized void update(Collection<Integer> playerIds, Instant changedUntil) {
+    if (lastRefreshedAt == null) {
+      return;
+    }
+
+    for (List<Integer> chunk : Iterables.partition(playerIds, UPDATE_CHUNK_SIZE)) {
+      Set<Integer> removedPlayerIds = new HashSet<>(chunk);
+      globalLeaderboardRepository.findAllActiveByIdIn(chunk).forEach(entry -> {
+        globalRanking.put(entry.getId(), computeRating(entry.getMean(), entry.getDeviation()), entry);
+        removedPlayerIds.remove(entry.getId());
+      });
+      removedPlayerIds.forEach(globalRanking::remove);
+
+      removedPlayerIds.clear();
+      removedPlayerIds.addAll(chunk);
+      ladder1v1LeaderboardRepository.findAllActiveByIdIn(chunk).forEach(entry -> {
+        ladder1v1Ranking.put(entry.getId(), computeRating(entry.getMean(), entry.getDeviation()), entry);
+        removedPlayerIds.remove(entry.getId());
+      });
+      removedPlayerIds.forEach(ladder1v1Ranking::remove);
+    }
+    log.debug("Updated {} player(s) in leaderboards", playerIds.size());
+
+    if (changedUntil.isAfter(lastRefreshedAt)) {
+      lastRefreshedAt = changedUntil;
+    }
+  }
+
+  /**
+   * Returns the time up to which changes are reflected in the rankings, or {@code null} if they have not been loaded
+   * yet.
+   */
+  @Nullable
+  public Instant getLastRefreshedAt() {
+    return lastRefreshedAt;
+  }
+
+  private LeaderboardRanking<GlobalLeaderboardEntry> getGlobalRanking() {
+    ensureLoaded();
+    return globalRanking;
+  }
+
+  private LeaderboardRanking<Ladder1v1LeaderboardEntry> getLadder1v1Ranking() {
+    ensureLoaded();
+    return ladder1v1Ranking;
+  }
+
+  private void ensureLoaded() {
+    if (lastRefreshedAt == null) {
+      synchronized (this) {
+        if (lastRefreshedAt == null) {
+          refresh();
+        }
+      }
+    }
+  }
+
+  private LeaderboardRanking<GlobalLeaderboardEntry> loadGlobalRanking() {
+    LeaderboardRanking<GlobalLeaderboardEntry> ranking = new LeaderboardRanking<>();
+    ReplicaReads.call(globalLeaderboardRepository::findAllActive)
+      .forEach(entry -> ranking.put(entry.getId(), computeRating(entry.getMean(), entry.getDeviation()), entry));
+    log.debug("Loaded global leaderboard with {} entries", ranking.size());
+    return ranking;
+  }
+
+  private LeaderboardRanking<Ladder1v1LeaderboardEntry> loadLadder1v1Ranking() {
+    LeaderboardRanking<Ladder1v1LeaderboardEntry> ranking = new LeaderboardRanking<>();
+    ReplicaReads.call(ladder1v1LeaderboardRepository::findAllActive)
+      .forEach(entry -> ranking.put(entry.getId(), computeRating(entry.getMean(), entry.getDeviation()), entry));
+    log.debug("Loaded ladder1v1 leaderboard with {} entries", ranking.size());
+    return ranking;
+  }
+
+  /**
+   * Computes the value players are ranked by, which is {@code round(mean - 3 * deviation)}.
+   */
+  static int computeRating(float mean, float deviation) {
+    return (int) Math.round(mean - 3d * deviation);
+  }
+
+  /**
+   * Returns the cursor that points to the specified entry, so that the next page starts after it.
+   */
+  static LeaderboardCursor cursorOf(int playerId, float mean, float deviation) {
+    return new LeaderboardCursor(computeRating(mean, deviation), playerId);
+  }
+
+  private static GlobalLeaderboardEntry toGlobalEntry(RankedEntry<GlobalLeaderboardEntry> rankedEntry) {
+    GlobalLeaderboardEntry entry = rankedEntry.getPayload();
+    return new GlobalLeaderboardEntry()
+      .setId(entry.getId())
+      .setPlayerName(entry.getPlayerName())
+      .setMean(entry.getMean())
+      .setDeviation(entry.getDeviation())
+      .setNumGames(entry.getNumGames())
+      .setRank(rankedEntry.getRank());
+  }
+
+  private static Ladder1v1LeaderboardEntry toLadder1v1Entry(RankedEntry<Ladder1v1LeaderboardEntry> rankedEntry) {
+    Ladder1v1LeaderboardEntry entry = rankedEntry.getPayload();
+    return new Ladder1v1LeaderboardEntry()
+      .setId(entry.getId())
+      .setPlayerName(entry.getPlayerName())
+      .setMean(entry.getMean())
+      .setDeviation(entry.getDeviation())
+      .setNumGames(entry.getNumGames())
+      .setWonGames(entry.getWonGames())
+      .setRank(rankedEntry.getRank());
+  }
+
+  private static <T> List<RankedEntry<T>> getRangeAfter(LeaderboardRanking<T> ranking, @Nullable LeaderboardCursor cursor, @Nullable Integer pageSize) {
+    int limit = Math.min(Optional.ofNullable(pageSize).orElse(DEFAULT_CURSOR_PAGE_SIZE), MAX_RESULTS);
+    if (cursor == null) {
+      return ranking.getRange(0, limit);
+    }
+    return ranking.getRangeAfter(cursor.getRating(), cursor.getPlayerId(), limit);
   }
 
   @NotNull
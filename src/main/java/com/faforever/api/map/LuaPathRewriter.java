@@ -0,0 +1,84 @@
+package com.faforever.api.map;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces paths to a map folder, like {@code /maps/old/old_save.lua}, with paths to another folder. The pattern is
+ * compiled once per upload and files are streamed through a fixed size buffer, so large {@code _save.lua} files are
+ * neither loaded at once nor matched line by line.
+ */
+final class LuaPathRewriter {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Pattern oldPathPattern;
+  private final String newPath;
+  private final Charset charset;
+  /** Number of characters a match may span beyond the buffered ones if it starts at the end of the buffer. */
+  private final int overlap;
+
+  LuaPathRewriter(String oldFolderName, String newFolderName, Charset charset) {
+    String oldPath = "/maps/" + oldFolderName;
+    this.oldPathPattern = Pattern.compile(Pattern.quote(oldPath), Pattern.CASE_INSENSITIVE);
+    this.newPath = "/maps/" + newFolderName;
+    this.charset = charset;
+    this.overlap = oldPath.length() - 1;
+  }
+
+  /**
+   * Writes the content of the specified input stream to the specified output stream with all paths replaced. Neither
+   * stream is closed.
+   *
+   * @return the number of replaced paths
+   */
+  int rewrite(InputStream inputStream, OutputStream outputStream) throws IOException {
+    Reader reader = new InputStreamReader(inputStream, charset);
+    Writer writer = new OutputStreamWriter(outputStream, charset);
+    char[] buffer = new char[BUFFER_SIZE + overlap];
+    Matcher matcher = oldPathPattern.matcher("");
+    int replacements = 0;
+    int length = 0;
+    boolean endOfInput = false;
+
+    while (!endOfInput) {
+      int read = reader.read(buffer, length, buffer.length - length);
+      if (read < 0) {
+        endOfInput = true;
+      } else {
+        length += read;
+        if (length < buffer.length) {
+          continue;
+        }
+      }
+
+      // Matches starting in the last few characters may continue in the next chunk, so they're left for it
+      int safeEnd = endOfInput ? length : length - overlap;
+      int position = 0;
+      matcher.reset(CharBuffer.wrap(buffer, 0, length));
+      while (matcher.find() && matcher.start() < safeEnd) {
+        writer.write(buffer, position, matcher.start() - position);
+        writer.write(newPath);
+        position = matcher.end();
+        replacements++;
+      }
+
+      int processedEnd = Math.max(position, safeEnd);
+      writer.write(buffer, position, processedEnd - position);
+      length -= processedEnd;
+      System.arraycopy(buffer, processedEnd, buffer, 0, length);
+    }
+
+    writer.flush();
+    return replacements;
+  }
+}
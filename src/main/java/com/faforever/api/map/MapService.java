@@ -8,28 +8,29 @@ import com.faforever.api.data.domain.Player;
 import com.faforever.api.error.ApiException;
 import com.faforever.api.error.Error;
 import com.faforever.api.error.ErrorCode;
-import com.faforever.api.error.ProgrammingError;
 import com.faforever.api.utils.FilePermissionUtil;
 import com.faforever.api.utils.NameUtil;
-import com.faforever.commons.io.Unzipper;
-import com.faforever.commons.io.Zipper;
 import com.faforever.commons.lua.LuaLoader;
 import com.faforever.commons.map.PreviewGenerator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.Data;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.luaj.vm2.LuaValue;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.FileSystemUtils;
 
+import javax.annotation.PreDestroy;
 import javax.imageio.ImageIO;
 import javax.inject.Inject;
 import java.awt.image.BufferedImage;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -37,9 +38,21 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -57,23 +70,40 @@ public class MapService {
   private static final Charset MAP_CHARSET = StandardCharsets.ISO_8859_1;
   private static final String STUPID_MAP_FOLDER_PREFIX = "maps/";
   public static final int MAP_DISPLAY_NAME_MAX_LENGTH = 100;
+  private static final int PREVIEW_ENCODING_THREADS = 2;
+  private static final int PREVIEW_ENCODING_QUEUE_CAPACITY = 16;
   private final FafApiProperties fafApiProperties;
   private final MapRepository mapRepository;
   private final ContentService contentService;
+  private final ExecutorService previewEncodingExecutor;
 
   @Inject
   public MapService(FafApiProperties fafApiProperties, MapRepository mapRepository, ContentService contentService) {
+    this(fafApiProperties, mapRepository, contentService, new ThreadPoolExecutor(
+      PREVIEW_ENCODING_THREADS, PREVIEW_ENCODING_THREADS, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(PREVIEW_ENCODING_QUEUE_CAPACITY),
+      new ThreadFactoryBuilder().setNameFormat("MapPreviewEncoding-%d").setDaemon(true).build(),
+      // If concurrent uploads fill the queue, the uploading thread encodes the preview itself
+      new ThreadPoolExecutor.CallerRunsPolicy()));
+  }
+
+  MapService(FafApiProperties fafApiProperties, MapRepository mapRepository, ContentService contentService,
+             ExecutorService previewEncodingExecutor) {
     this.fafApiProperties = fafApiProperties;
     this.mapRepository = mapRepository;
     this.contentService = contentService;
+    this.previewEncodingExecutor = previewEncodingExecutor;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    previewEncodingExecutor.shutdownNow();
   }
 
   @Transactional
   @SneakyThrows
-  @CacheEvict(value = {Map.TYPE_NAME, MapVersion.TYPE_NAME}, allEntries = true)
-  public void uploadMap(byte[] mapData, String mapFilename, Player author, boolean isRanked) {
+  public void uploadMap(InputStream mapDataInputStream, String mapFilename, Player author, boolean isRanked) {
     Assert.notNull(author, "'author' must not be null");
-    Assert.isTrue(mapData.length > 0, "'mapData' must not be empty");
 
     MapUploadData progressData = new MapUploadData()
       .setBaseDir(contentService.createTempDir())
@@ -82,11 +112,10 @@ public class MapService {
       .setRanked(isRanked);
 
     progressData.setUploadedFile(progressData.getBaseDir().resolve(mapFilename));
-    copyToTemporaryDirectory(mapData, progressData);
 
     try {
-      unzipFile(progressData);
-      postProcessZipFiles(progressData);
+      copyToTemporaryDirectory(mapDataInputStream, progressData);
+      extractMapFiles(progressData);
 
       parseScenarioLua(progressData);
       checkLua(progressData);
@@ -94,62 +123,105 @@ public class MapService {
 
       updateMapEntities(progressData);
 
-      renameFolderNameAndCorrectPathInLuaFiles(progressData);
       generatePreview(progressData);
 
-      zipMapData(progressData);
+      repackageZip(progressData);
     } finally {
       cleanup(progressData);
     }
   }
 
+  /**
+   * Streams the uploaded file to disk, so that it never needs to be held in memory as a whole.
+   */
   @SneakyThrows
-  private Path copyToTemporaryDirectory(byte[] mapData, MapUploadData progressData) {
-    return Files.write(progressData.getUploadedFile(), mapData);
-  }
-
-  @SneakyThrows
-  private void unzipFile(MapUploadData mapData) {
-      Unzipper.from(mapData.getUploadedFile())
-        .to(mapData.getBaseDir())
-        .unzip();
+  private void copyToTemporaryDirectory(InputStream mapDataInputStream, MapUploadData progressData) {
+    long size = Files.copy(mapDataInputStream, progressData.getUploadedFile());
+    Assert.isTrue(size > 0, "'mapData' must not be empty");
   }
 
+  /**
+   * Checks the structure of the uploaded zip and extracts the files of the map folder that are needed to validate the
+   * map and to generate its preview. The zip isn't extracted as a whole since the final zip is created from the
+   * uploaded one (see {@link #repackageZip(MapUploadData)}).
+   */
   @SneakyThrows
-  private void postProcessZipFiles(MapUploadData mapUploadData) {
-    Optional<Path> mapFolder;
-    try (Stream<Path> mapFolderStream = Files.list(mapUploadData.getBaseDir())) {
-      mapFolder = mapFolderStream
-        .filter(path -> Files.isDirectory(path))
-        .findFirst();
-    }
-
-    if (!mapFolder.isPresent()) {
-      throw new ApiException(new Error(ErrorCode.MAP_MISSING_MAP_FOLDER_INSIDE_ZIP));
-    }
+  private void extractMapFiles(MapUploadData mapUploadData) {
+    try (ZipFile zipFile = new ZipFile(mapUploadData.getUploadedFile().toFile())) {
+      List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntriesInPhysicalOrder());
+
+      String mapFolderName = null;
+      Set<String> rootNames = new HashSet<>();
+      for (ZipArchiveEntry entry : entries) {
+        // Entry names are copied into the final zip, which must be safe to extract
+        if (!isSafeEntryName(entry.getName())) {
+          throw new ApiException(new Error(ErrorCode.MAP_INVALID_ZIP));
+        }
+        int separatorIndex = entry.getName().indexOf('/');
+        rootNames.add(separatorIndex < 0 ? entry.getName() : entry.getName().substring(0, separatorIndex));
+        if (mapFolderName == null && separatorIndex >= 0) {
+          mapFolderName = entry.getName().substring(0, separatorIndex);
+        }
+        if (!zipFile.canReadEntryData(entry)) {
+          throw new ApiException(new Error(ErrorCode.MAP_INVALID_ZIP));
+        }
+      }
 
-    try (Stream<Path> mapFolderStream = Files.list(mapUploadData.getBaseDir())) {
-      if (mapFolderStream.count() != 2) {
+      if (mapFolderName == null) {
+        throw new ApiException(new Error(ErrorCode.MAP_MISSING_MAP_FOLDER_INSIDE_ZIP));
+      }
+      if (rootNames.size() != 1) {
         throw new ApiException(new Error(ErrorCode.MAP_INVALID_ZIP));
       }
-    }
 
-    mapUploadData.setOriginalMapFolder(mapFolder.get());
-    mapUploadData.setUploadFolderName(mapUploadData.getOriginalMapFolder().getFileName().toString());
+      mapUploadData.setUploadFolderName(mapFolderName);
+      mapUploadData.setOriginalMapFolder(Files.createDirectory(mapUploadData.getBaseDir().resolve(mapFolderName)));
+
+      String mapFolderPrefix = mapFolderName + "/";
+      Set<String> fileNames = new HashSet<>();
+      for (ZipArchiveEntry entry : entries) {
+        // Like a file named like the map folder, next to it
+        if (!entry.getName().startsWith(mapFolderPrefix)) {
+          throw new ApiException(new Error(ErrorCode.MAP_INVALID_ZIP));
+        }
+        String relativeName = entry.getName().substring(mapFolderPrefix.length());
+        int separatorIndex = relativeName.indexOf('/');
+        String fileName = separatorIndex < 0 ? relativeName : relativeName.substring(0, separatorIndex);
+        if (fileName.isEmpty()) {
+          continue;
+        }
+        fileNames.add(fileName);
+
+        String lowerCaseFileName = fileName.toLowerCase();
+        if (separatorIndex < 0 && !entry.isDirectory()
+          && (lowerCaseFileName.endsWith(".lua") || lowerCaseFileName.endsWith(".scmap"))) {
+          try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            Files.copy(inputStream, mapUploadData.getOriginalMapFolder().resolve(fileName));
+          }
+        }
+      }
 
-    List<Path> filePaths = new ArrayList<>();
-    try (Stream<Path> mapFileStream = Files.list(mapUploadData.getOriginalMapFolder())) {
-      mapFileStream.forEach(filePaths::add);
       Arrays.stream(REQUIRED_FILES)
         .forEach(filePattern -> {
-          if (filePaths.stream()
-            .noneMatch(filePath -> filePath.toString().endsWith(filePattern))) {
+          if (fileNames.stream().noneMatch(fileName -> fileName.endsWith(filePattern))) {
             throw new ApiException(new Error(ErrorCode.MAP_FILE_INSIDE_ZIP_MISSING, filePattern));
           }
         });
     }
   }
 
+  /**
+   * Returns whether the specified zip entry name stays within the directory the zip is extracted to, that is whether it
+   * is relative, contains no {@code ..} or empty segments and no backslashes, which some tools treat as separators.
+   */
+  static boolean isSafeEntryName(String name) {
+    if (name.startsWith("/") || name.contains("\\")) {
+      return false;
+    }
+    String path = name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+    return Arrays.stream(path.split("/", -1)).noneMatch(segment -> segment.isEmpty() || segment.equals(".."));
+  }
+
   @SneakyThrows
   private void parseScenarioLua(MapUploadData progressData) {
     try (Stream<Path> mapFilesStream = Files.list(progressData.getOriginalMapFolder())) {
@@ -288,70 +360,66 @@ public class MapService {
     mapRepository.save(map);
   }
 
+  /**
+   * Renders the preview once in the largest configured size and scales it down to all other sizes.
+   */
   @SneakyThrows
-  private void renameFolderNameAndCorrectPathInLuaFiles(MapUploadData progressData) {
-    progressData.setNewMapFolder(progressData.getBaseDir().resolve(progressData.getNewFolderName()));
-    Files.move(progressData.getOriginalMapFolder(), progressData.getNewMapFolder());
-    updateLuaFiles(progressData);
-  }
+  private void generatePreview(MapUploadData mapData) {
+    FafApiProperties.Map mapProperties = fafApiProperties.getMap();
+    String previewFilename = mapData.getNewFolderName() + ".png";
 
-  @SneakyThrows
-  private void updateLuaFiles(MapUploadData mapData) {
-    String oldNameFolder = "/maps/" + mapData.getUploadFolderName();
-    String newNameFolder = "/maps/" + mapData.getNewFolderName();
-    try (Stream<Path> mapFileStream = Files.list(mapData.getNewMapFolder())) {
-      mapFileStream
-        .filter(path -> path.toString().toLowerCase().endsWith(".lua"))
-        .forEach(path -> noCatch(() -> {
-          List<String> lines = Files.readAllLines(path, MAP_CHARSET).stream()
-            .map(line -> line.replaceAll("(?i)" + oldNameFolder, newNameFolder))
-            .collect(Collectors.toList());
-          Files.write(path, lines, MAP_CHARSET);
-        }));
+    SortedMap<Integer, List<Path>> targetsBySize = new TreeMap<>(Comparator.reverseOrder());
+    targetsBySize.computeIfAbsent(mapProperties.getPreviewSizeSmall(), size -> new ArrayList<>())
+      .add(mapProperties.getDirectoryPreviewPathSmall().resolve(previewFilename));
+    targetsBySize.computeIfAbsent(mapProperties.getPreviewSizeLarge(), size -> new ArrayList<>())
+      .add(mapProperties.getDirectoryPreviewPathLarge().resolve(previewFilename));
+    mapProperties.getAdditionalPreviewDirectories().forEach((previewSize, directory) ->
+      targetsBySize.computeIfAbsent(previewSize, size -> new ArrayList<>()).add(directory.resolve(previewFilename)));
+
+    int renderSize = targetsBySize.firstKey();
+    BufferedImage image = PreviewGenerator.generatePreview(mapData.getOriginalMapFolder(), renderSize, renderSize);
+
+    java.util.Map<Path, BufferedImage> previews = new LinkedHashMap<>();
+    for (java.util.Map.Entry<Integer, List<Path>> entry : targetsBySize.entrySet()) {
+      // Each size is scaled down from the next larger one
+      image = PreviewScaler.scale(image, entry.getKey(), entry.getKey());
+      for (Path target : entry.getValue()) {
+        previews.put(target, image);
+      }
     }
-  }
 
-
-  @SneakyThrows
-  private void generatePreview(MapUploadData mapData) {
-    String previewFilename = mapData.getNewFolderName() + ".png";
-    generateImage(
-      fafApiProperties.getMap().getDirectoryPreviewPathSmall().resolve(previewFilename),
-      mapData.getNewMapFolder(),
-      fafApiProperties.getMap().getPreviewSizeSmall());
-
-    generateImage(
-      fafApiProperties.getMap().getDirectoryPreviewPathLarge().resolve(previewFilename),
-      mapData.getNewMapFolder(),
-      fafApiProperties.getMap().getPreviewSizeLarge());
+    // Encoding PNGs takes as long as scaling, but can be done independently
+    List<Future<?>> writes = new ArrayList<>();
+    previews.forEach((target, preview) ->
+      writes.add(previewEncodingExecutor.submit(() -> writeImage(target, preview))));
+    try {
+      for (Future<?> write : writes) {
+        write.get();
+      }
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    } finally {
+      writes.forEach(write -> write.cancel(true));
+    }
   }
 
+  /**
+   * Creates the final zip from the uploaded one, with the map folder renamed and the paths in its Lua files corrected.
+   */
   @SneakyThrows
-  private void zipMapData(MapUploadData progressData) {
-    cleanupBaseDir(progressData);
+  private void repackageZip(MapUploadData progressData) {
     Path finalZipFile = progressData.getFinalZipFile();
     Files.createDirectories(finalZipFile.getParent(), FilePermissionUtil.directoryPermissionFileAttributes());
-    Zipper
-      .contentOf(progressData.getBaseDir())
-      .to(finalZipFile)
-      .zip();
+    try (ZipFile zipFile = new ZipFile(progressData.getUploadedFile().toFile())) {
+      MapZipRepackager.repackage(zipFile, progressData.getUploadFolderName(), progressData.getNewFolderName(),
+        MAP_CHARSET, finalZipFile);
+    }
     // TODO if possible, this should be done using umask instead
     FilePermissionUtil.setDefaultFilePermission(finalZipFile);
   }
 
   @SneakyThrows
-  private void cleanupBaseDir(MapUploadData progressData) {
-    Files.delete(progressData.getUploadedFile());
-    try (Stream<Path> stream = Files.list(progressData.getBaseDir())) {
-      if (stream.count() != 1) {
-        throw new ProgrammingError("Folder containing unknown data: " + progressData.getBaseDir());
-      }
-    }
-  }
-
-  @SneakyThrows
-  private void generateImage(Path target, Path baseDir, int size) {
-    BufferedImage image = PreviewGenerator.generatePreview(baseDir, size, size);
+  private void writeImage(Path target, BufferedImage image) {
     if (target.getNameCount() > 0) {
       Files.createDirectories(target.getParent(), FilePermissionUtil.directoryPermissionFileAttributes());
     }
@@ -370,7 +438,6 @@ public class MapService {
     private Path uploadedFile;
     private Path baseDir;
     private Path originalMapFolder;
-    private Path newMapFolder;
     private Path finalZipFile;
     private LuaValue luaRoot;
     private Map mapEntity;
@@ -0,0 +1,68 @@
+package com.faforever.api.map;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Collections;
+
+/**
+ * Writes the final zip of an uploaded map in a single pass over the uploaded zip: the map folder is renamed, paths to
+ * it are corrected in {@code .lua} files, and all other entries are copied with their compressed data as is, without
+ * inflating and deflating them again.
+ */
+@Slf4j
+final class MapZipRepackager {
+
+  private static final String LUA_EXTENSION = ".lua";
+
+  private MapZipRepackager() {
+    // Utility class
+  }
+
+  /**
+   * @param source the uploaded zip, which must contain nothing but the map folder
+   * @param oldFolderName the name of the map folder in the uploaded zip
+   * @param newFolderName the name of the map folder in the final zip
+   * @param charset the charset of {@code .lua} files
+   * @param target the final zip file
+   */
+  static void repackage(ZipFile source, String oldFolderName, String newFolderName, Charset charset,
+                        Path target) throws IOException {
+    LuaPathRewriter luaPathRewriter = new LuaPathRewriter(oldFolderName, newFolderName, charset);
+    try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(target.toFile())) {
+      for (ZipArchiveEntry entry : Collections.list(source.getEntriesInPhysicalOrder())) {
+        String newName = newFolderName + entry.getName().substring(oldFolderName.length());
+
+        if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(LUA_EXTENSION)) {
+          ZipArchiveEntry newEntry = new ZipArchiveEntry(newName);
+          newEntry.setMethod(ZipArchiveEntry.DEFLATED);
+          newEntry.setTime(entry.getTime());
+          outputStream.putArchiveEntry(newEntry);
+          try (InputStream inputStream = source.getInputStream(entry)) {
+            int replacements = luaPathRewriter.rewrite(inputStream, outputStream);
+            log.debug("Replaced {} map paths in '{}'", replacements, entry.getName());
+          }
+          outputStream.closeArchiveEntry();
+          continue;
+        }
+
+        ZipArchiveEntry newEntry = new ZipArchiveEntry(newName);
+        newEntry.setMethod(entry.getMethod());
+        newEntry.setCrc(entry.getCrc());
+        newEntry.setSize(entry.getSize());
+        newEntry.setCompressedSize(entry.getCompressedSize());
+        newEntry.setTime(entry.getTime());
+        newEntry.setExternalAttributes(entry.getExternalAttributes());
+        try (InputStream rawInputStream = source.getRawInputStream(entry)) {
+          outputStream.addRawArchiveEntry(newEntry, rawInputStream);
+        }
+      }
+    }
+  }
+}
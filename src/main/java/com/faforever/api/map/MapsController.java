@@ -2,18 +2,26 @@ package com.faforever.api.map;
 
 import com.faforever.api.config.FafApiProperties;
 import com.faforever.api.data.domain.Player;
+import com.faforever.api.data.domain.UploadJob;
+import com.faforever.api.data.domain.UploadJobType;
 import com.faforever.api.error.ApiException;
 import com.faforever.api.error.Error;
 import com.faforever.api.error.ErrorCode;
+import com.faforever.api.error.NotFoundApiException;
 import com.faforever.api.player.PlayerService;
+import com.faforever.api.upload.UploadJobService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.Files;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -22,6 +30,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
 
@@ -30,27 +39,32 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
 @Slf4j
 public class MapsController {
   private final MapService mapService;
+  /** Only available if uploads are queued, otherwise they're processed within their request. */
+  private final ObjectProvider<UploadJobService> uploadJobService;
   private final FafApiProperties fafApiProperties;
   private final ObjectMapper objectMapper;
   private final PlayerService playerService;
 
   @Inject
-  public MapsController(MapService mapService, FafApiProperties fafApiProperties, ObjectMapper objectMapper, PlayerService playerService) {
+  public MapsController(MapService mapService, ObjectProvider<UploadJobService> uploadJobService,
+                        FafApiProperties fafApiProperties, ObjectMapper objectMapper, PlayerService playerService) {
     this.mapService = mapService;
+    this.uploadJobService = uploadJobService;
     this.fafApiProperties = fafApiProperties;
     this.objectMapper = objectMapper;
     this.playerService = playerService;
   }
 
-  @ApiOperation("Upload a map")
+  @ApiOperation("Upload a map, which is processed in the background if uploads are queued")
   @ApiResponses(value = {
     @ApiResponse(code = 200, message = "Success"),
+    @ApiResponse(code = 202, message = "Accepted"),
     @ApiResponse(code = 401, message = "Unauthorized"),
     @ApiResponse(code = 500, message = "Failure")})
   @RequestMapping(path = "/upload", method = RequestMethod.POST, produces = APPLICATION_JSON_UTF8_VALUE)
-  public void uploadMap(@RequestParam("file") MultipartFile file,
-                        @RequestParam("metadata") String jsonString,
-                        Authentication authentication) throws IOException {
+  public ResponseEntity<JsonApiDocument> uploadMap(@RequestParam("file") MultipartFile file,
+                                                   @RequestParam("metadata") String jsonString,
+                                                   Authentication authentication) throws IOException {
     if (file == null) {
       throw new ApiException(new Error(ErrorCode.UPLOAD_FILE_MISSING));
     }
@@ -70,6 +84,29 @@ public class MapsController {
     }
 
     Player player = playerService.getPlayer(authentication);
-    mapService.uploadMap(file.getBytes(), file.getOriginalFilename(), player, ranked);
+    UploadJobService jobService = uploadJobService.getIfAvailable();
+    try (InputStream mapDataInputStream = file.getInputStream()) {
+      if (jobService == null) {
+        mapService.uploadMap(mapDataInputStream, file.getOriginalFilename(), player, ranked);
+        return ResponseEntity.ok().build();
+      }
+      UploadJob job = jobService.enqueueMap(mapDataInputStream, file.getOriginalFilename(), player, ranked);
+      return ResponseEntity.accepted().body(jobService.toJsonApiDocument(job));
+    }
+  }
+
+  @ApiOperation("Get the processing status of an uploaded map")
+  @ApiResponses(value = {
+    @ApiResponse(code = 200, message = "Success"),
+    @ApiResponse(code = 401, message = "Unauthorized"),
+    @ApiResponse(code = 404, message = "Not found")})
+  @RequestMapping(path = "/upload/{jobId}", method = RequestMethod.GET, produces = APPLICATION_JSON_UTF8_VALUE)
+  public JsonApiDocument getUploadStatus(@PathVariable("jobId") int jobId, Authentication authentication) {
+    UploadJobService jobService = uploadJobService.getIfAvailable();
+    if (jobService == null) {
+      throw new NotFoundApiException(new Error(ErrorCode.UPLOAD_JOB_NOT_FOUND, jobId));
+    }
+    Player player = playerService.getPlayer(authentication);
+    return jobService.toJsonApiDocument(jobService.getJob(jobId, UploadJobType.MAP, player));
   }
 }
@@ -0,0 +1,40 @@
+package com.faforever.api.map;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Scales map previews down. Images are halved in bilinear steps until the target size is reached, which keeps the
+ * quality close to area averaging while still being fast; a single bilinear step would skip most source pixels.
+ */
+final class PreviewScaler {
+
+  private PreviewScaler() {
+    // Utility class
+  }
+
+  static BufferedImage scale(BufferedImage image, int width, int height) {
+    BufferedImage result = image;
+    while (result.getWidth() != width || result.getHeight() != height) {
+      int stepWidth = result.getWidth() > 2 * width ? result.getWidth() / 2 : width;
+      int stepHeight = result.getHeight() > 2 * height ? result.getHeight() / 2 : height;
+      result = scaleStep(result, stepWidth, stepHeight);
+    }
+    return result;
+  }
+
+  private static BufferedImage scaleStep(BufferedImage image, int width, int height) {
+    BufferedImage result = new BufferedImage(width, height,
+      image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = result.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(image, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return result;
+  }
+}
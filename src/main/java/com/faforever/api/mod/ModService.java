@@ -1,5 +1,6 @@
 package com.faforever.api.mod;
 
+import com.faforever.api.cache.ResponseDependencyIndex;
 import com.faforever.api.config.FafApiProperties;
 import com.faforever.api.data.domain.Mod;
 import com.faforever.api.data.domain.ModType;
@@ -16,7 +17,6 @@ import com.google.common.primitives.Ints;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.stereotype.Service;
@@ -44,16 +44,18 @@ public class ModService {
   private final FafApiProperties properties;
   private final ModRepository modRepository;
   private final ModVersionRepository modVersionRepository;
+  private final ResponseDependencyIndex responseDependencyIndex;
 
-  public ModService(FafApiProperties properties, ModRepository modRepository, ModVersionRepository modVersionRepository) {
+  public ModService(FafApiProperties properties, ModRepository modRepository, ModVersionRepository modVersionRepository,
+                    ResponseDependencyIndex responseDependencyIndex) {
     this.properties = properties;
     this.modRepository = modRepository;
     this.modVersionRepository = modVersionRepository;
+    this.responseDependencyIndex = responseDependencyIndex;
   }
 
   @SneakyThrows
   @Transactional
-  @CacheEvict(value = {Mod.TYPE_NAME, ModVersion.TYPE_NAME}, allEntries = true)
   public void processUploadedMod(Path uploadedFile, Player uploader) {
     log.debug("Player '{}' uploaded a mod", uploader);
 
@@ -257,5 +259,9 @@ public class ModService {
 
     mod = modRepository.save(mod);
     modRepository.insertModStats(mod.getDisplayName());
+
+    responseDependencyIndex.evictCollections(Mod.TYPE_NAME);
+    responseDependencyIndex.evictCollections(ModVersion.TYPE_NAME);
+    responseDependencyIndex.evictResource(Mod.TYPE_NAME, mod.getId());
   }
 }
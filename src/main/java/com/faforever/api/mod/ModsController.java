@@ -1,13 +1,22 @@
 package com.faforever.api.mod;
 
 import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.data.domain.Player;
+import com.faforever.api.data.domain.UploadJob;
+import com.faforever.api.data.domain.UploadJobType;
 import com.faforever.api.error.ApiException;
 import com.faforever.api.error.Error;
 import com.faforever.api.error.ErrorCode;
+import com.faforever.api.error.NotFoundApiException;
 import com.faforever.api.player.PlayerService;
+import com.faforever.api.upload.UploadJobService;
 import com.google.common.io.Files;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -15,6 +24,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
@@ -25,17 +35,22 @@ public class ModsController {
 
   private final PlayerService playerService;
   private final ModService modService;
+  /** Only available if uploads are queued, otherwise they're processed within their request. */
+  private final ObjectProvider<UploadJobService> uploadJobService;
   private final FafApiProperties fafApiProperties;
 
-  public ModsController(PlayerService playerService, ModService modService, FafApiProperties fafApiProperties) {
+  public ModsController(PlayerService playerService, ModService modService,
+                        ObjectProvider<UploadJobService> uploadJobService, FafApiProperties fafApiProperties) {
     this.playerService = playerService;
     this.modService = modService;
+    this.uploadJobService = uploadJobService;
     this.fafApiProperties = fafApiProperties;
   }
 
-  @ApiOperation("Upload a mod")
+  @ApiOperation("Upload a mod, which is processed in the background if uploads are queued")
   @RequestMapping(path = "/upload", method = RequestMethod.POST, produces = APPLICATION_JSON_UTF8_VALUE)
-  public void uploadMod(@RequestParam("file") MultipartFile file, Authentication authentication) throws IOException {
+  public ResponseEntity<JsonApiDocument> uploadMod(@RequestParam("file") MultipartFile file,
+                                                   Authentication authentication) throws IOException {
     if (file == null) {
       throw new ApiException(new Error(ErrorCode.UPLOAD_FILE_MISSING));
     }
@@ -45,9 +60,29 @@ public class ModsController {
       throw new ApiException(new Error(ErrorCode.UPLOAD_INVALID_FILE_EXTENSIONS, fafApiProperties.getMod().getAllowedExtensions()));
     }
 
-    Path tempFile = java.nio.file.Files.createTempFile("mod", ".tmp");
-    file.transferTo(tempFile.getFileName().toFile());
+    Player player = playerService.getPlayer(authentication);
+    UploadJobService jobService = uploadJobService.getIfAvailable();
+    if (jobService == null) {
+      Path tempFile = java.nio.file.Files.createTempFile("mod", ".tmp");
+      file.transferTo(tempFile.toFile());
+      modService.processUploadedMod(tempFile, player);
+      return ResponseEntity.ok().build();
+    }
 
-    modService.processUploadedMod(tempFile, playerService.getPlayer(authentication));
+    try (InputStream modDataInputStream = file.getInputStream()) {
+      UploadJob job = jobService.enqueueMod(modDataInputStream, file.getOriginalFilename(), player);
+      return ResponseEntity.accepted().body(jobService.toJsonApiDocument(job));
+    }
+  }
+
+  @ApiOperation("Get the processing status of an uploaded mod")
+  @RequestMapping(path = "/upload/{jobId}", method = RequestMethod.GET, produces = APPLICATION_JSON_UTF8_VALUE)
+  public JsonApiDocument getUploadStatus(@PathVariable("jobId") int jobId, Authentication authentication) {
+    UploadJobService jobService = uploadJobService.getIfAvailable();
+    if (jobService == null) {
+      throw new NotFoundApiException(new Error(ErrorCode.UPLOAD_JOB_NOT_FOUND, jobId));
+    }
+    Player player = playerService.getPlayer(authentication);
+    return jobService.toJsonApiDocument(jobService.getJob(jobId, UploadJobType.MOD, player));
   }
 }
@@ -12,8 +12,8 @@ public class FafUserDetails extends org.springframework.security.core.userdetail
 
   private final int id;
 
-  public FafUserDetails(User user, Collection<? extends GrantedAuthority> authorities) {
-    this(user.getId(), user.getLogin(), user.getPassword(), !user.isGlobalBanned(), authorities);
+  public FafUserDetails(User user, boolean accountNonLocked, Collection<? extends GrantedAuthority> authorities) {
+    this(user.getId(), user.getLogin(), user.getPassword(), accountNonLocked, authorities);
   }
 
   public FafUserDetails(int id, String username, String password, boolean accountNonLocked, Collection<? extends GrantedAuthority> authorities) {
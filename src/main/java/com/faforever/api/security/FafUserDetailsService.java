@@ -1,5 +1,6 @@
 package com.faforever.api.security;
 
+import com.faforever.api.ban.BanService;
 import com.faforever.api.data.domain.LegacyAccessLevel;
 import com.faforever.api.data.domain.User;
 import com.faforever.api.user.UserRepository;
@@ -19,10 +20,12 @@ import java.util.ArrayList;
 public class FafUserDetailsService implements UserDetailsService {
 
   private final UserRepository userRepository;
+  private final BanService banService;
 
   @Inject
-  public FafUserDetailsService(UserRepository userRepository) {
+  public FafUserDetailsService(UserRepository userRepository, BanService banService) {
     this.userRepository = userRepository;
+    this.banService = banService;
   }
 
   @Override
@@ -36,6 +39,6 @@ public class FafUserDetailsService implements UserDetailsService {
     if (user.getLobbyGroup() != null) {
       authorities.add(user.getLobbyGroup().getAccessLevel());
     }
-    return new FafUserDetails(user, authorities);
+    return new FafUserDetails(user, !banService.hasActiveGlobalBan(user.getId()), authorities);
   }
 }
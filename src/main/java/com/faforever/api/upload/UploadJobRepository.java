@@ -0,0 +1,104 @@
+package com.faforever.api.upload;
+
+import com.faforever.api.data.domain.UploadJob;
+import com.faforever.api.data.domain.UploadJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadJobRepository extends JpaRepository<UploadJob, Integer> {
+
+  long countByStatusIn(Collection<UploadJobStatus> statuses);
+
+  long countByStatusAndIdLessThan(UploadJobStatus status, int id);
+
+  List<UploadJob> findAllByStatusInOrderById(Collection<UploadJobStatus> statuses);
+
+  /**
+   * Marks a queued job as being processed by the specified owner until the lease expires. Only one instance can claim
+   * a job, so a job can't be processed twice. A job can only be claimed by the instance that accepted it, unless its
+   * lease has expired.
+   *
+   * @return the number of claimed jobs, which is 0 if the job isn't queued anymore or still reserved for another owner
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE UploadJob job SET job.status = com.faforever.api.data.domain.UploadJobStatus.PROCESSING,"
+    + " job.owner = :owner, job.leaseExpiresAt = :leaseExpiresAt, job.updateTime = :now"
+    + " WHERE job.id = :id AND job.status = com.faforever.api.data.domain.UploadJobStatus.QUEUED"
+    + " AND (job.owner = :owner OR job.leaseExpiresAt IS NULL OR job.leaseExpiresAt < :now)")
+  int claim(@Param("id") int id,
+            @Param("owner") String owner,
+            @Param("leaseExpiresAt") OffsetDateTime leaseExpiresAt,
+            @Param("now") OffsetDateTime now);
+
+  /**
+   * Loads a job within a read-write transaction, so that it is read from the primary database and reflects its claim.
+   */
+  @Transactional
+  @Query("SELECT job FROM UploadJob job WHERE job.id = :id")
+  Optional<UploadJob> findClaimedJob(@Param("id") int id);
+
+  /**
+   * Stores the result of a job, but only if it is still being processed by the specified owner.
+   *
+   * @return the number of finished jobs, which is 0 if the job has been taken over by another owner or deleted
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE UploadJob job SET job.status = :status, job.errors = :errors, job.updateTime = :updateTime"
+    + " WHERE job.id = :id AND job.owner = :owner"
+    + " AND job.status = com.faforever.api.data.domain.UploadJobStatus.PROCESSING")
+  int finish(@Param("id") int id,
+             @Param("owner") String owner,
+             @Param("status") UploadJobStatus status,
+             @Param("errors") String errors,
+             @Param("updateTime") OffsetDateTime updateTime);
+
+  /**
+   * Extends the leases of the specified jobs, but only of those that are still queued at or being processed by the
+   * specified owner.
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE UploadJob job SET job.leaseExpiresAt = :leaseExpiresAt"
+    + " WHERE job.id IN :ids AND job.owner = :owner AND job.status IN ("
+    + "com.faforever.api.data.domain.UploadJobStatus.QUEUED, com.faforever.api.data.domain.UploadJobStatus.PROCESSING)")
+  int renewLeases(@Param("ids") Collection<Integer> ids,
+                  @Param("owner") String owner,
+                  @Param("leaseExpiresAt") OffsetDateTime leaseExpiresAt);
+
+  /**
+   * Queues all jobs again whose lease has expired, since their owner stopped processing them. The owner and the
+   * expired lease are kept, so the jobs may be claimed by any instance.
+   *
+   * @return the number of queued jobs
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE UploadJob job SET job.status = com.faforever.api.data.domain.UploadJobStatus.QUEUED,"
+    + " job.updateTime = :now"
+    + " WHERE job.status = com.faforever.api.data.domain.UploadJobStatus.PROCESSING AND job.leaseExpiresAt < :now")
+  int requeueExpiredJobs(@Param("now") OffsetDateTime now);
+
+  /**
+   * Lets the leases of all jobs queued at the specified owner expire, so that other instances may claim them.
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE UploadJob job SET job.leaseExpiresAt = :now"
+    + " WHERE job.owner = :owner AND job.status = com.faforever.api.data.domain.UploadJobStatus.QUEUED")
+  int releaseQueuedJobs(@Param("owner") String owner, @Param("now") OffsetDateTime now);
+
+  @Transactional
+  long deleteByStatusInAndUpdateTimeBefore(Collection<UploadJobStatus> statuses, OffsetDateTime updateTime);
+}
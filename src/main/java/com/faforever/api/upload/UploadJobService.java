@@ -0,0 +1,333 @@
+package com.faforever.api.upload;
+
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.data.domain.Player;
+import com.faforever.api.data.domain.UploadJob;
+import com.faforever.api.data.domain.UploadJobStatus;
+import com.faforever.api.data.domain.UploadJobType;
+import com.faforever.api.error.ApiException;
+import com.faforever.api.error.Error;
+import com.faforever.api.error.ErrorCode;
+import com.faforever.api.error.ErrorResult;
+import com.faforever.api.error.NotFoundApiException;
+import com.faforever.api.error.ProgrammingError;
+import com.faforever.api.map.MapService;
+import com.faforever.api.mod.ModService;
+import com.faforever.api.player.PlayerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yahoo.elide.jsonapi.models.Data;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.jsonapi.models.Resource;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts uploaded maps and mods into a queue and processes them in the background, so that uploads neither hold a
+ * request thread nor a database connection while they're being validated and stored. Queued jobs are persisted
+ * together with their uploaded file and are resumed after a restart.
+ * <p>
+ * Several instances may share the queue. A job is leased to the instance that accepted the upload, since its file may
+ * only exist on that instance, and is processed there. The instance renews the lease while the job is queued or being
+ * processed. Jobs whose lease expired, for instance because their instance has been stopped, may be claimed by any
+ * instance that can read their file, which requires the {@link FafApiProperties.Upload#getDirectory() directory} to
+ * be shared.
+ * </p>
+ * Only available if {@link FafApiProperties.Upload#isEnabled() enabled}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "faf-api.upload", name = "enabled", havingValue = "true")
+@Slf4j
+public class UploadJobService {
+
+  public static final String TYPE_NAME = "uploadJob";
+  private static final Set<UploadJobStatus> PENDING_STATUSES =
+    EnumSet.of(UploadJobStatus.QUEUED, UploadJobStatus.PROCESSING);
+  private static final Set<UploadJobStatus> FINISHED_STATUSES =
+    EnumSet.of(UploadJobStatus.DONE, UploadJobStatus.FAILED);
+
+  private final FafApiProperties properties;
+  private final UploadJobRepository uploadJobRepository;
+  private final PlayerRepository playerRepository;
+  private final MapService mapService;
+  private final ModService modService;
+  private final ObjectMapper objectMapper;
+  private final TaskExecutor uploadJobExecutor;
+  /** Identifies this instance as the owner of the jobs it processes. */
+  private final String instanceId = UUID.randomUUID().toString();
+  /** Jobs that have been submitted to the executor and haven't been processed yet, whose leases need to be renewed. */
+  private final Set<Integer> submittedJobs = ConcurrentHashMap.newKeySet();
+  /** Makes counting the pending jobs and adding a new one atomic, so that concurrent uploads can't exceed capacity. */
+  private final Object enqueueLock = new Object();
+
+  public UploadJobService(FafApiProperties properties, UploadJobRepository uploadJobRepository,
+                          PlayerRepository playerRepository, MapService mapService, ModService modService,
+                          ObjectMapper objectMapper, @Qualifier("uploadJobExecutor") TaskExecutor uploadJobExecutor) {
+    this.properties = properties;
+    this.uploadJobRepository = uploadJobRepository;
+    this.playerRepository = playerRepository;
+    this.mapService = mapService;
+    this.modService = modService;
+    this.objectMapper = objectMapper;
+    this.uploadJobExecutor = uploadJobExecutor;
+  }
+
+  public UploadJob enqueueMap(InputStream mapDataInputStream, String mapFilename, Player uploader, boolean ranked) {
+    return enqueue(UploadJobType.MAP, mapDataInputStream, mapFilename, uploader, ranked);
+  }
+
+  public UploadJob enqueueMod(InputStream modDataInputStream, String modFilename, Player uploader) {
+    return enqueue(UploadJobType.MOD, modDataInputStream, modFilename, uploader, false);
+  }
+
+  /**
+   * Returns the specified job if it is of the specified type and has been uploaded by the specified player.
+   *
+   * @throws NotFoundApiException if there is no such job
+   */
+  public UploadJob getJob(int jobId, UploadJobType type, Player uploader) {
+    return uploadJobRepository.findById(jobId)
+      .filter(job -> job.getType() == type && job.getUploaderId() == uploader.getId())
+      .orElseThrow(() -> new NotFoundApiException(new Error(ErrorCode.UPLOAD_JOB_NOT_FOUND, jobId)));
+  }
+
+  @SneakyThrows
+  public JsonApiDocument toJsonApiDocument(UploadJob job) {
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    attributes.put("status", job.getStatus());
+    attributes.put("filename", job.getFilename());
+    if (job.getStatus() == UploadJobStatus.QUEUED) {
+      long queuePosition = uploadJobRepository.countByStatusAndIdLessThan(UploadJobStatus.QUEUED, job.getId()) + 1;
+      attributes.put("queuePosition", queuePosition);
+    }
+    if (job.getErrors() != null) {
+      attributes.put("errors", objectMapper.readTree(job.getErrors()));
+    }
+    attributes.put("createTime", job.getCreateTime());
+    attributes.put("updateTime", job.getUpdateTime());
+
+    return new JsonApiDocument(new Data<>(
+      new Resource(TYPE_NAME, String.valueOf(job.getId()), attributes, null, null, null)));
+  }
+
+  /**
+   * Queues jobs again whose lease expired, and submits the queued jobs this instance may claim but hasn't submitted
+   * yet. These are jobs that were queued before a restart, or by an instance that has been stopped since. Since jobs
+   * are claimed before they are processed, a job submitted by several instances is still only processed once.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "PT1M", initialDelayString = "PT1M")
+  public void resumePendingJobs() {
+    OffsetDateTime now = OffsetDateTime.now();
+    int requeuedJobs = uploadJobRepository.requeueExpiredJobs(now);
+    if (requeuedJobs > 0) {
+      log.info("Queued {} upload job(s) again whose processing lease has expired", requeuedJobs);
+    }
+
+    uploadJobRepository.findAllByStatusInOrderById(EnumSet.of(UploadJobStatus.QUEUED)).stream()
+      .filter(job -> isClaimable(job, now))
+      .forEach(job -> submit(job.getId()));
+  }
+
+  /**
+   * Renews the leases of the jobs this instance has submitted, so that they aren't taken over by other instances.
+   */
+  @Scheduled(fixedDelayString = "PT1M", initialDelayString = "PT1M")
+  public void renewLeases() {
+    if (submittedJobs.isEmpty()) {
+      return;
+    }
+    OffsetDateTime leaseExpiresAt = OffsetDateTime.now().plus(properties.getUpload().getProcessingLease());
+    uploadJobRepository.renewLeases(new ArrayList<>(submittedJobs), instanceId, leaseExpiresAt);
+  }
+
+  /**
+   * Lets other instances take over the jobs this instance hasn't started processing yet, if they can read their files.
+   */
+  @PreDestroy
+  public void releaseQueuedJobs() {
+    uploadJobRepository.releaseQueuedJobs(instanceId, OffsetDateTime.now());
+  }
+
+  @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1H")
+  public void deleteFinishedJobs() {
+    OffsetDateTime finishedBefore = OffsetDateTime.now().minus(properties.getUpload().getFinishedJobTimeToLive());
+    long deletedJobs = uploadJobRepository.deleteByStatusInAndUpdateTimeBefore(FINISHED_STATUSES, finishedBefore);
+    log.debug("Deleted {} upload job(s) finished before {}", deletedJobs, finishedBefore);
+  }
+
+  @SneakyThrows
+  private UploadJob enqueue(UploadJobType type, InputStream inputStream, String filename, Player uploader,
+                            boolean ranked) {
+    // Rejects uploads to a full queue before copying them; checked again when the job is added
+    checkQueueCapacity();
+
+    Path directory = properties.getUpload().getDirectory();
+    Files.createDirectories(directory);
+    Path uploadedFile = Files.createTempFile(directory, "upload", ".tmp");
+    try {
+      Files.copy(inputStream, uploadedFile, StandardCopyOption.REPLACE_EXISTING);
+
+      OffsetDateTime now = OffsetDateTime.now();
+      UploadJob job = new UploadJob();
+      job.setType(type);
+      job.setStatus(UploadJobStatus.QUEUED);
+      job.setUploaderId(uploader.getId());
+      job.setFilename(filename);
+      job.setFilePath(uploadedFile.toAbsolutePath().toString());
+      job.setRanked(ranked);
+      job.setOwner(instanceId);
+      job.setLeaseExpiresAt(now.plus(properties.getUpload().getProcessingLease()));
+      job.setCreateTime(now);
+      job.setUpdateTime(now);
+      UploadJob savedJob;
+      synchronized (enqueueLock) {
+        checkQueueCapacity();
+        savedJob = uploadJobRepository.save(job);
+      }
+
+      log.debug("Player '{}' uploaded '{}' as {} upload job {}", uploader, filename, type, savedJob.getId());
+      submit(savedJob.getId());
+      return savedJob;
+    } catch (Exception e) {
+      Files.deleteIfExists(uploadedFile);
+      throw e;
+    }
+  }
+
+  private void checkQueueCapacity() {
+    long pendingJobs = uploadJobRepository.countByStatusIn(PENDING_STATUSES);
+    if (pendingJobs >= properties.getUpload().getQueueCapacity()) {
+      throw new ApiException(new Error(ErrorCode.UPLOAD_QUEUE_FULL, pendingJobs));
+    }
+  }
+
+  /**
+   * Returns whether the specified job is reserved for this instance, or may be taken over by it since its lease expired
+   * and the uploaded file can be read.
+   */
+  private boolean isClaimable(UploadJob job, OffsetDateTime now) {
+    if (instanceId.equals(job.getOwner())) {
+      return true;
+    }
+    if (job.getLeaseExpiresAt() != null && !job.getLeaseExpiresAt().isBefore(now)) {
+      return false;
+    }
+    if (!Files.isReadable(Paths.get(job.getFilePath()))) {
+      log.debug("Upload job {} can't be taken over, since its file isn't available to this instance", job.getId());
+      return false;
+    }
+    return true;
+  }
+
+  private void submit(int jobId) {
+    if (!submittedJobs.add(jobId)) {
+      return;
+    }
+    uploadJobExecutor.execute(() -> {
+      try {
+        process(jobId);
+      } finally {
+        submittedJobs.remove(jobId);
+      }
+    });
+  }
+
+  void process(int jobId) {
+    OffsetDateTime startTime = OffsetDateTime.now();
+    OffsetDateTime leaseExpiresAt = startTime.plus(properties.getUpload().getProcessingLease());
+    if (uploadJobRepository.claim(jobId, instanceId, leaseExpiresAt, startTime) == 0) {
+      log.debug("Upload job {} is no longer queued", jobId);
+      return;
+    }
+    processClaimedJob(jobId);
+  }
+
+  private void processClaimedJob(int jobId) {
+    Path uploadedFile = null;
+    UploadJobStatus status;
+    String errors;
+    try {
+      UploadJob job = uploadJobRepository.findClaimedJob(jobId)
+        .orElseThrow(() -> new ProgrammingError("Upload job has been deleted while processing: " + jobId));
+      uploadedFile = Paths.get(job.getFilePath());
+
+      Player uploader = playerRepository.findById(job.getUploaderId())
+        .orElseThrow(() -> new ProgrammingError("Uploader does not exist: " + job.getUploaderId()));
+      switch (job.getType()) {
+        case MAP:
+          try (InputStream mapDataInputStream = Files.newInputStream(uploadedFile)) {
+            mapService.uploadMap(mapDataInputStream, job.getFilename(), uploader, job.isRanked());
+          }
+          break;
+        case MOD:
+          modService.processUploadedMod(uploadedFile, uploader);
+          break;
+        default:
+          throw new ProgrammingError("Uncovered upload job type: " + job.getType());
+      }
+      status = UploadJobStatus.DONE;
+      errors = null;
+      log.debug("Upload job {} has been processed", jobId);
+    } catch (ApiException e) {
+      log.debug("Upload job {} is invalid: {}", jobId, e.getMessage());
+      status = UploadJobStatus.FAILED;
+      errors = toJson(e.getErrors());
+    } catch (Exception e) {
+      log.warn("Upload job {} could not be processed", jobId, e);
+      status = UploadJobStatus.FAILED;
+      errors = toJson(new Error[]{new Error(ErrorCode.UPLOAD_PROCESSING_FAILED)});
+    } finally {
+      if (uploadedFile != null) {
+        deleteUploadedFile(uploadedFile);
+      }
+    }
+
+    if (uploadJobRepository.finish(jobId, instanceId, status, errors, OffsetDateTime.now()) == 0) {
+      log.warn("Upload job {} has been taken over by another instance or deleted while processing", jobId);
+    }
+  }
+
+  @SneakyThrows
+  private String toJson(Error[] errors) {
+    List<ErrorResult> errorResults = Arrays.stream(errors)
+      .map(error -> ErrorResult.of(error, HttpStatus.UNPROCESSABLE_ENTITY))
+      .collect(Collectors.toList());
+    return objectMapper.writeValueAsString(errorResults);
+  }
+
+  private void deleteUploadedFile(Path uploadedFile) {
+    try {
+      // Mods are moved to their target directory when they're valid
+      Files.deleteIfExists(uploadedFile);
+    } catch (IOException e) {
+      log.warn("Could not delete uploaded file '{}'", uploadedFile, e);
+    }
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains classes for processing uploaded maps and mods in the background.
+ */
+package com.faforever.api.upload;
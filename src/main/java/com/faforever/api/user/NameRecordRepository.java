@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigInteger;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface NameRecordRepository extends JpaRepository<NameRecord, Integer> {
@@ -14,4 +16,7 @@ public interface NameRecordRepository extends JpaRepository<NameRecord, Integer>
 
   @Query(value = "SELECT user_id FROM name_history WHERE previous_name = :name AND now() > date_add(change_time, INTERVAL :months MONTH) ORDER BY change_time DESC LIMIT 1", nativeQuery = true)
   Optional<Integer> getLastUsernameOwnerWithinMonths(@Param("name") String name, @Param("months") Integer months);
+
+  @Query("SELECT DISTINCT n.player.id FROM NameRecord n WHERE n.changeTime > :since")
+  List<Integer> findPlayerIdsChangedSince(@Param("since") OffsetDateTime since);
 }
@@ -0,0 +1,195 @@
+package com.faforever.api.voting;
+
+import com.faforever.api.data.domain.Vote;
+import com.faforever.api.data.domain.VotingAnswer;
+import com.faforever.api.data.domain.VotingChoice;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tallies alternative (ranked) votes by instant-runoff: as long as more than one choice remains, all choices with the
+ * fewest votes are eliminated and their ballots are transferred to the next choice ranked on them that is still in
+ * the running. If all remaining choices have the same number of votes, they all win (draw).
+ * <p>
+ * Choices are identified by their index and ballots are arrays of choice indices in order of preference, so that a
+ * tally doesn't depend on entities and can also be used to preview results. Each ballot only ever moves forward over
+ * its ranks, which makes each round linear in the number of ballots moved plus the number of choices.
+ * </p>
+ */
+public final class InstantRunoffTally {
+
+  private static final int[] NO_BALLOTS = new int[0];
+
+  private InstantRunoffTally() {
+    // Utility class
+  }
+
+  /**
+   * Converts the answers to the specified choices of a question into ballots for {@link #tally(int, int[][])}, with
+   * each choice identified by its index in the list. A ballot ranks the voter's answers by their alternative ordinal,
+   * starting with 0, and ends at the first rank the voter left blank or didn't fill in.
+   */
+  public static int[][] ballotsOf(List<VotingChoice> choices) {
+    // Votes are grouped by identity since their equality is based on attributes that aren't necessarily set
+    Map<Vote, int[]> ranksByVote = new IdentityHashMap<>();
+    for (int choiceIndex = 0; choiceIndex < choices.size(); choiceIndex++) {
+      for (VotingAnswer answer : choices.get(choiceIndex).getVotingAnswers()) {
+        Integer ordinal = answer.getAlternativeOrdinal();
+        if (ordinal == null || ordinal < 0) {
+          continue;
+        }
+        int[] ranks = ranksByVote.get(answer.getVote());
+        if (ranks == null || ranks.length <= ordinal) {
+          ranks = ranks == null ? newRanks(ordinal + 1) : grow(ranks, ordinal + 1);
+          ranksByVote.put(answer.getVote(), ranks);
+        }
+        if (ranks[ordinal] < 0) {
+          ranks[ordinal] = choiceIndex;
+        }
+      }
+    }
+
+    int[][] ballots = new int[ranksByVote.size()][];
+    int ballotIndex = 0;
+    for (int[] ranks : ranksByVote.values()) {
+      int length = 0;
+      while (length < ranks.length && ranks[length] >= 0) {
+        length++;
+      }
+      ballots[ballotIndex++] = length == ranks.length ? ranks : Arrays.copyOf(ranks, length);
+    }
+    return ballots;
+  }
+
+  /**
+   * Tallies the specified ballots.
+   *
+   * @param choiceCount the number of choices, all of which are in the running initially
+   * @param ballots the ballots, each containing choice indices in order of preference; empty ballots aren't counted
+   */
+  public static Result tally(int choiceCount, int[][] ballots) {
+    int[] position = new int[ballots.length];
+    int[][] piles = new int[choiceCount][];
+    int[] pileSizes = new int[choiceCount];
+    boolean[] eliminated = new boolean[choiceCount];
+    Arrays.fill(piles, NO_BALLOTS);
+
+    for (int ballot = 0; ballot < ballots.length; ballot++) {
+      if (ballots[ballot].length > 0) {
+        addToPile(piles, pileSizes, ballots[ballot][0], ballot);
+      }
+    }
+
+    List<Round> rounds = new ArrayList<>();
+    int remaining = choiceCount;
+    while (remaining > 1) {
+      int min = Integer.MAX_VALUE;
+      for (int choice = 0; choice < choiceCount; choice++) {
+        if (!eliminated[choice]) {
+          min = Math.min(min, pileSizes[choice]);
+        }
+      }
+
+      int[] toEliminate = new int[remaining];
+      int eliminationCount = 0;
+      for (int choice = 0; choice < choiceCount; choice++) {
+        if (!eliminated[choice] && pileSizes[choice] == min) {
+          toEliminate[eliminationCount++] = choice;
+        }
+      }
+
+      if (eliminationCount == remaining) {
+        // Eliminating the remaining choices would leave none, so they share the win
+        rounds.add(new Round(pileSizes.clone(), new int[0]));
+        return new Result(Arrays.copyOf(toEliminate, eliminationCount), rounds);
+      }
+
+      toEliminate = Arrays.copyOf(toEliminate, eliminationCount);
+      rounds.add(new Round(pileSizes.clone(), toEliminate));
+
+      // All choices of this round are marked first, so that no ballot is transferred to one of them
+      for (int choice : toEliminate) {
+        eliminated[choice] = true;
+      }
+      for (int choice : toEliminate) {
+        int[] pile = piles[choice];
+        for (int i = 0; i < pileSizes[choice]; i++) {
+          int ballot = pile[i];
+          int[] ranks = ballots[ballot];
+          int next = position[ballot] + 1;
+          while (next < ranks.length && eliminated[ranks[next]]) {
+            next++;
+          }
+          position[ballot] = next;
+          if (next < ranks.length) {
+            addToPile(piles, pileSizes, ranks[next], ballot);
+          }
+        }
+        piles[choice] = NO_BALLOTS;
+        pileSizes[choice] = 0;
+      }
+      remaining -= eliminationCount;
+    }
+
+    for (int choice = 0; choice < choiceCount; choice++) {
+      if (!eliminated[choice]) {
+        rounds.add(new Round(pileSizes.clone(), new int[0]));
+        return new Result(new int[]{choice}, rounds);
+      }
+    }
+    return new Result(new int[0], rounds);
+  }
+
+  private static void addToPile(int[][] piles, int[] pileSizes, int choice, int ballot) {
+    int[] pile = piles[choice];
+    if (pileSizes[choice] == pile.length) {
+      pile = Arrays.copyOf(pile, Math.max(8, pile.length * 2));
+      piles[choice] = pile;
+    }
+    pile[pileSizes[choice]++] = ballot;
+  }
+
+  private static int[] newRanks(int length) {
+    int[] ranks = new int[length];
+    Arrays.fill(ranks, -1);
+    return ranks;
+  }
+
+  private static int[] grow(int[] ranks, int length) {
+    int[] grown = newRanks(length);
+    System.arraycopy(ranks, 0, grown, 0, ranks.length);
+    return grown;
+  }
+
+  @Getter
+  public static final class Result {
+    /** Indices of the winning choices; more than one in case of a draw, none if there were no choices. */
+    private final int[] winners;
+    /** The rounds of the tally in the order they were counted; the last one contains the final counts. */
+    private final List<Round> rounds;
+
+    private Result(int[] winners, List<Round> rounds) {
+      this.winners = winners;
+      this.rounds = Collections.unmodifiableList(rounds);
+    }
+  }
+
+  @Getter
+  public static final class Round {
+    /** Number of ballots per choice index at the start of the round; 0 for choices eliminated earlier. */
+    private final int[] counts;
+    /** Indices of the choices that were eliminated in this round. */
+    private final int[] eliminated;
+
+    private Round(int[] counts, int[] eliminated) {
+      this.counts = counts;
+      this.eliminated = eliminated;
+    }
+  }
+}
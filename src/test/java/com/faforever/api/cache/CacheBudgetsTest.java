@@ -0,0 +1,35 @@
+package com.faforever.api.cache;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CacheBudgetsTest {
+
+  @Test
+  public void distributeEvenly() throws Exception {
+    Map<String, Long> budgets = CacheBudgets.distribute(300, Collections.emptyMap(), Arrays.asList("map", "mod", "clan"));
+
+    assertThat(budgets, is(ImmutableMap.of("map", 100L, "mod", 100L, "clan", 100L)));
+  }
+
+  @Test
+  public void distributeWithExplicitBudgets() throws Exception {
+    Map<String, Long> budgets = CacheBudgets.distribute(300,
+      ImmutableMap.of("map", 200L, "unknown", 1000L),
+      Arrays.asList("map", "mod", "clan"));
+
+    assertThat(budgets, is(ImmutableMap.of("map", 200L, "mod", 50L, "clan", 50L)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void distributeExceedingExplicitBudgets() throws Exception {
+    CacheBudgets.distribute(300, ImmutableMap.of("map", 200L, "mod", 200L), Arrays.asList("map", "mod"));
+  }
+}
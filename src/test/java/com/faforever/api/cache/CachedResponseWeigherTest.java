@@ -0,0 +1,36 @@
+package com.faforever.api.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CachedResponseWeigherTest {
+
+  private CachedResponseWeigher instance;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new CachedResponseWeigher();
+  }
+
+  @Test
+  public void weighCompressibleResponse() throws Exception {
+    String content = new String(new char[800]);
+
+    // 2 bytes per char of key and content, plus an eighth of the content for its compressed form
+    assertThat(instance.weigh("key", ResponseEntity.ok(new CompressibleResponseBody(content))), is(6 + 1600 + 100));
+  }
+
+  @Test
+  public void weighStringResponse() throws Exception {
+    assertThat(instance.weigh("key", ResponseEntity.ok("body")), is(6 + 8));
+  }
+
+  @Test
+  public void weighUnknownValue() throws Exception {
+    assertThat(instance.weigh("key", new Object()), is(6 + 1024));
+  }
+}
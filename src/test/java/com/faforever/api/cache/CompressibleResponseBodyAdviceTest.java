@@ -0,0 +1,74 @@
+package com.faforever.api.cache;
+
+import com.google.common.base.Strings;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+
+import static com.faforever.api.cache.CompressibleResponseBodyAdvice.MIN_COMPRESSED_LENGTH;
+import static com.faforever.api.cache.CompressibleResponseBodyAdvice.acceptsGzip;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class CompressibleResponseBodyAdviceTest {
+
+  private static final CompressibleResponseBody LARGE_BODY = new CompressibleResponseBody(Strings.repeat("a", MIN_COMPRESSED_LENGTH));
+
+  private CompressibleResponseBodyAdvice instance;
+  private MockHttpServletRequest request;
+  private ServletServerHttpResponse response;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new CompressibleResponseBodyAdvice();
+    request = new MockHttpServletRequest();
+    response = new ServletServerHttpResponse(new MockHttpServletResponse());
+  }
+
+  @Test
+  public void beforeBodyWriteGzipAccepted() throws Exception {
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip");
+
+    instance.beforeBodyWrite(LARGE_BODY, null, null, null, new ServletServerHttpRequest(request), response);
+
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+    assertThat(response.getHeaders().getFirst(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  @Test
+  public void beforeBodyWriteGzipNotAccepted() throws Exception {
+    instance.beforeBodyWrite(LARGE_BODY, null, null, null, new ServletServerHttpRequest(request), response);
+
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+    assertThat(response.getHeaders().getFirst(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  @Test
+  public void beforeBodyWriteSmallBody() throws Exception {
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+    instance.beforeBodyWrite(new CompressibleResponseBody("{}"), null, null, null, new ServletServerHttpRequest(request), response);
+
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+    assertThat(response.getHeaders().getFirst(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  @Test
+  public void testAcceptsGzip() throws Exception {
+    assertThat(acceptsGzip(null), is(false));
+    assertThat(acceptsGzip(Collections.singletonList("gzip")), is(true));
+    assertThat(acceptsGzip(Collections.singletonList("deflate, GZIP;q=0.5")), is(true));
+    assertThat(acceptsGzip(Collections.singletonList("*")), is(true));
+    assertThat(acceptsGzip(Collections.singletonList("identity")), is(false));
+    assertThat(acceptsGzip(Collections.singletonList("gzip;q=0")), is(false));
+    assertThat(acceptsGzip(Collections.singletonList("gzip;q=0, *")), is(false));
+    assertThat(acceptsGzip(Collections.singletonList("*;q=0")), is(false));
+  }
+}
@@ -0,0 +1,61 @@
+package com.faforever.api.cache;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class CompressibleResponseBodyHttpMessageConverterTest {
+
+  private static final String CONTENT = "{\"data\":[{\"type\":\"map\",\"id\":\"1\",\"attributes\":{\"displayName\":\"Seton's Clutch \u2665\"}}]}";
+
+  private CompressibleResponseBodyHttpMessageConverter instance;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new CompressibleResponseBodyHttpMessageConverter();
+  }
+
+  @Test
+  public void writePlain() throws Exception {
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+    instance.write(new CompressibleResponseBody(CONTENT), MediaType.APPLICATION_JSON, outputMessage);
+
+    assertThat(outputMessage.getBodyAsString(UTF_8), is(CONTENT));
+    assertThat(outputMessage.getHeaders().getContentLength(), is((long) CONTENT.getBytes(UTF_8).length));
+  }
+
+  @Test
+  public void writeGzipped() throws Exception {
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+    outputMessage.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+    instance.write(new CompressibleResponseBody(CONTENT), MediaType.APPLICATION_JSON, outputMessage);
+
+    byte[] uncompressed = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(outputMessage.getBodyAsBytes())));
+    assertThat(new String(uncompressed, UTF_8), is(CONTENT));
+  }
+
+  @Test
+  public void gzippedIsComputedOnce() throws Exception {
+    CompressibleResponseBody body = new CompressibleResponseBody(CONTENT);
+
+    assertThat(body.getGzipped(), sameInstance(body.getGzipped()));
+  }
+
+  @Test
+  public void cannotRead() throws Exception {
+    assertThat(instance.canRead(CompressibleResponseBody.class, MediaType.APPLICATION_JSON), is(false));
+  }
+}
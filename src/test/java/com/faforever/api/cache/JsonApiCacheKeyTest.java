@@ -0,0 +1,75 @@
+package com.faforever.api.cache;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+public class JsonApiCacheKeyTest {
+
+  @Test
+  public void paramsAreOrdered() throws Exception {
+    assertThat(
+      JsonApiCacheKey.of("/map", ImmutableMap.of("sort", "-createTime", "include", "versions")),
+      is("/map?include=versions&sort=-createTime")
+    );
+  }
+
+  @Test
+  public void listsAreSortedAndDeduplicated() throws Exception {
+    assertThat(
+      JsonApiCacheKey.of("/map", ImmutableMap.of("include", "versions, author,versions", "fields[map]", "displayName,author")),
+      is(JsonApiCacheKey.of("/map", ImmutableMap.of("fields[map]", "author,displayName", "include", "author,versions")))
+    );
+  }
+
+  @Test
+  public void irrelevantParamsAreIgnored() throws Exception {
+    assertThat(
+      JsonApiCacheKey.of("/map", ImmutableMap.of("include", "versions", "access_token", "abc", "_", "1528371")),
+      is("/map?include=versions")
+    );
+  }
+
+  @Test
+  public void filterIsNormalized() throws Exception {
+    assertThat(
+      JsonApiCacheKey.of("/map", ImmutableMap.of("filter", "displayName=='Seton*';author.id=in=(5,3)")),
+      is(JsonApiCacheKey.of("/map", ImmutableMap.of("filter", "author.id=in=(\"3\",5);displayName==\"Seton*\"")))
+    );
+  }
+
+  @Test
+  public void filterArgumentsAreQuoted() throws Exception {
+    assertThat(
+      JsonApiCacheKey.of("/map", ImmutableMap.of("filter[map]", "displayName==Seton")),
+      is("/map?filter[map]=displayName==\"Seton\"")
+    );
+  }
+
+  @Test
+  public void invalidFilterIsKept() throws Exception {
+    assertThat(
+      JsonApiCacheKey.of("/map", ImmutableMap.of("filter", "displayName=foo=")),
+      is("/map?filter=displayName=foo=")
+    );
+  }
+
+  @Test
+  public void sortOrderIsSignificant() throws Exception {
+    assertThat(
+      JsonApiCacheKey.of("/map", ImmutableMap.of("sort", "displayName,-createTime")),
+      is(not(JsonApiCacheKey.of("/map", ImmutableMap.of("sort", "-createTime,displayName"))))
+    );
+  }
+
+  @Test
+  public void pageParamsAreNormalized() throws Exception {
+    assertThat(
+      JsonApiCacheKey.of("/map", ImmutableMap.of("page[size]", "010", "page[number]", " 2")),
+      is("/map?page[number]=2&page[size]=10")
+    );
+  }
+}
@@ -0,0 +1,40 @@
+package com.faforever.api.cache;
+
+import com.faforever.api.cache.JsonApiDocumentScanner.ScanResult;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+public class JsonApiDocumentScannerTest {
+
+  @Test
+  public void scanCollection() throws Exception {
+    ScanResult result = JsonApiDocumentScanner.scan("{\"data\":[" +
+      "{\"type\":\"map\",\"id\":\"1\",\"attributes\":{\"displayName\":\"Foo\",\"tags\":[{\"type\":\"x\",\"id\":\"9\"}]}," +
+      "\"relationships\":{\"latestVersion\":{\"data\":{\"type\":\"mapVersion\",\"id\":\"5\"}}}}," +
+      "{\"id\":\"2\",\"type\":\"map\"}" +
+      "],\"included\":[{\"type\":\"mapVersion\",\"id\":\"5\",\"attributes\":{}}],\"meta\":{\"page\":{\"totalRecords\":2}}}");
+
+    assertThat(result.isCollection(), is(true));
+    assertThat(result.getResourceIds(), containsInAnyOrder("map:1", "map:2", "mapVersion:5"));
+  }
+
+  @Test
+  public void scanSingleResource() throws Exception {
+    ScanResult result = JsonApiDocumentScanner.scan("{\"data\":{\"type\":\"mod\",\"id\":\"3\",\"attributes\":{\"name\":\"Bar\"}}}");
+
+    assertThat(result.isCollection(), is(false));
+    assertThat(result.getResourceIds(), containsInAnyOrder("mod:3"));
+  }
+
+  @Test
+  public void scanErrors() throws Exception {
+    ScanResult result = JsonApiDocumentScanner.scan("{\"errors\":[{\"detail\":\"Unknown collection\"}]}");
+
+    assertThat(result.isCollection(), is(false));
+    assertThat(result.getResourceIds(), is(empty()));
+  }
+}
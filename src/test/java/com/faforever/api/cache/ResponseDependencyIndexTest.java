@@ -0,0 +1,118 @@
+package com.faforever.api.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ResponseDependencyIndexTest {
+
+  private static final String MAP_1 = "{\"data\":{\"type\":\"map\",\"id\":\"1\"},\"included\":[{\"type\":\"mapVersion\",\"id\":\"10\"}]}";
+  private static final String MAPS = "{\"data\":[{\"type\":\"map\",\"id\":\"1\"},{\"type\":\"map\",\"id\":\"2\"}]}";
+  private static final String MAP_2 = "{\"data\":{\"type\":\"map\",\"id\":\"2\"}}";
+
+  private ResponseDependencyIndex instance;
+  private ScheduledExecutorService scheduler;
+  private Cache cache;
+
+  @Before
+  public void setUp() throws Exception {
+    scheduler = mock(ScheduledExecutorService.class);
+    instance = new ResponseDependencyIndex(Duration.ofSeconds(10), scheduler);
+    cache = new DependencyTrackingCache(new CaffeineCache("map", newBuilder().build()), instance);
+
+    cache.put("map1", ResponseEntity.ok(MAP_1));
+    cache.put("maps", ResponseEntity.ok(new CompressibleResponseBody(MAPS)));
+    cache.put("map2", ResponseEntity.ok(MAP_2));
+  }
+
+  @Test
+  public void evictResource() throws Exception {
+    instance.evictResource("map", 1);
+
+    assertThat(cache.get("map1"), is(nullValue()));
+    assertThat(cache.get("maps"), is(nullValue()));
+    assertThat(cache.get("map2"), is(notNullValue()));
+  }
+
+  @Test
+  public void evictionIsRepeatedAfterReadYourWritesWindow() throws Exception {
+    instance.evictResource("map", 2);
+    // Recomputed from a lagging replica
+    cache.put("map2", ResponseEntity.ok(MAP_2));
+
+    ArgumentCaptor<Runnable> repeatedEviction = ArgumentCaptor.forClass(Runnable.class);
+    verify(scheduler).schedule(repeatedEviction.capture(), anyLong(), any(TimeUnit.class));
+    repeatedEviction.getValue().run();
+
+    assertThat(cache.get("map2"), is(nullValue()));
+    assertThat(cache.get("map1"), is(notNullValue()));
+  }
+
+  @Test
+  public void evictIncludedResource() throws Exception {
+    instance.evictResource("mapVersion", 10);
+
+    assertThat(cache.get("map1"), is(nullValue()));
+    assertThat(cache.get("maps"), is(notNullValue()));
+    assertThat(cache.get("map2"), is(notNullValue()));
+  }
+
+  @Test
+  public void evictCollections() throws Exception {
+    instance.evictCollections("map");
+
+    assertThat(cache.get("map1"), is(notNullValue()));
+    assertThat(cache.get("maps"), is(nullValue()));
+    assertThat(cache.get("map2"), is(notNullValue()));
+  }
+
+  @Test
+  public void replacedResponseIsTrackedByNewContent() throws Exception {
+    cache.put("map1", ResponseEntity.ok(MAP_2));
+
+    instance.evictResource("map", 1);
+    assertThat(cache.get("map1"), is(notNullValue()));
+
+    instance.evictResource("map", 2);
+    assertThat(cache.get("map1"), is(nullValue()));
+  }
+
+  @Test
+  public void untrackIgnoresReplacedValue() throws Exception {
+    Object oldValue = cache.get("map2").get();
+    ResponseEntity<String> newValue = ResponseEntity.ok(MAP_2);
+    cache.put("map2", newValue);
+
+    instance.untrack("map", "map2", oldValue);
+    instance.evictResource("map", 2);
+
+    assertThat(cache.get("map2"), is(nullValue()));
+  }
+
+  @Test
+  public void evictedResponseIsNoLongerTracked() throws Exception {
+    cache.evict("map1");
+    cache.put("map1", "not a response");
+
+    instance.evictResource("map", 1);
+
+    assertThat(cache.get("map1"), is(notNullValue()));
+  }
+}
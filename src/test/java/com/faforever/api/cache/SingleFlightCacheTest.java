@@ -0,0 +1,110 @@
+package com.faforever.api.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class SingleFlightCacheTest {
+
+  private static final int THREADS = 8;
+
+  private SingleFlightCache instance;
+  private ExecutorService executorService;
+  private MeterRegistry meterRegistry;
+
+  @Before
+  public void setUp() throws Exception {
+    meterRegistry = new SimpleMeterRegistry();
+    instance = new SingleFlightCache(new CaffeineCache("test", newBuilder().build()), meterRegistry);
+    executorService = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void concurrentMissesAreLoadedOnce() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loadStarted = new CountDownLatch(1);
+    CountDownLatch releaseLoad = new CountDownLatch(1);
+
+    Future<String> first = executorService.submit(() -> instance.get("key", () -> {
+      loads.incrementAndGet();
+      loadStarted.countDown();
+      releaseLoad.await();
+      return "value";
+    }));
+    loadStarted.await();
+
+    List<Future<String>> others = new ArrayList<>();
+    for (int i = 1; i < THREADS; i++) {
+      others.add(executorService.submit(() -> instance.get("key", () -> {
+        loads.incrementAndGet();
+        return "other value";
+      })));
+    }
+    releaseLoad.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS), is("value"));
+    for (Future<String> other : others) {
+      assertThat(other.get(5, TimeUnit.SECONDS), is("value"));
+    }
+    assertThat(loads.get(), is(1));
+    assertThat(instance.get("key").get(), is("value"));
+    assertThat(meterRegistry.get("faf.cache.gets").tag("result", "miss").counter().count(), is(1.0));
+  }
+
+  @Test
+  public void cachedValueIsNotLoaded() throws Exception {
+    instance.put("key", "cached");
+
+    assertThat(instance.get("key", () -> {
+      throw new IllegalStateException("Must not be called");
+    }), is("cached"));
+  }
+
+  @Test
+  public void hitRatio() throws Exception {
+    instance.get("key", () -> "value");
+    instance.get("key", () -> "value");
+    instance.get("key", () -> "value");
+    instance.get("other", () -> "value");
+
+    assertThat(meterRegistry.get("faf.cache.hit.ratio").tag("cache", "test").gauge().value(), is(0.5));
+  }
+
+  @Test
+  public void failedLoadIsNotCached() throws Exception {
+    try {
+      instance.get("key", () -> {
+        throw new IllegalStateException("Failed");
+      });
+      fail("Exception expected");
+    } catch (ValueRetrievalException e) {
+      assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+    }
+
+    assertThat(instance.get("key", () -> "value"), is("value"));
+  }
+}
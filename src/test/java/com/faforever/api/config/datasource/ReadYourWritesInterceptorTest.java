@@ -0,0 +1,116 @@
+package com.faforever.api.config.datasource;
+
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.config.datasource.ReplicaRoutingDataSource.Target;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ReadYourWritesInterceptorTest {
+
+  private ReadYourWritesInterceptor instance;
+  private ReplicaRoutingDataSource routingDataSource;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new ReadYourWritesInterceptor(new FafApiProperties());
+    routingDataSource = new ReplicaRoutingDataSource();
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    SecurityContextHolder.clearContext();
+    ReadYourWrites.deactivate();
+  }
+
+  @Test
+  public void readOnlyRequestsUseReplica() throws Exception {
+    authenticate("junit");
+
+    handle("GET", 200);
+
+    assertThat(ReplicaReads.call(routingDataSource::determineCurrentLookupKey), is(Target.REPLICA));
+  }
+
+  @Test
+  public void readWriteTransactionsUsePrimary() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+    assertThat(routingDataSource.determineCurrentLookupKey(), is(Target.PRIMARY));
+  }
+
+  @Test
+  public void readOnlyTransactionsUsePrimaryUnlessReplicaReadsAreAllowed() throws Exception {
+    assertThat(routingDataSource.determineCurrentLookupKey(), is(Target.PRIMARY));
+  }
+
+  @Test
+  public void readsAfterWriteUsePrimary() throws Exception {
+    authenticate("junit");
+    handle("PATCH", 204);
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/data/map");
+    instance.preHandle(request, new MockHttpServletResponse(), null);
+
+    assertThat(ReplicaReads.call(routingDataSource::determineCurrentLookupKey), is(Target.PRIMARY));
+  }
+
+  @Test
+  public void readsOfOtherUsersAfterWriteUseReplica() throws Exception {
+    authenticate("junit");
+    handle("PATCH", 204);
+    authenticate("other");
+
+    instance.preHandle(new MockHttpServletRequest("GET", "/data/map"), new MockHttpServletResponse(), null);
+
+    assertThat(ReplicaReads.call(routingDataSource::determineCurrentLookupKey), is(Target.REPLICA));
+  }
+
+  @Test
+  public void failedWritesAreIgnored() throws Exception {
+    authenticate("junit");
+    handle("PATCH", 403);
+
+    instance.preHandle(new MockHttpServletRequest("GET", "/data/map"), new MockHttpServletResponse(), null);
+
+    assertThat(ReplicaReads.call(routingDataSource::determineCurrentLookupKey), is(Target.REPLICA));
+  }
+
+  @Test
+  public void asyncRequestsReleaseThread() throws Exception {
+    authenticate("junit");
+    handle("PATCH", 204);
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/data/map");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    instance.preHandle(request, response, null);
+    instance.afterConcurrentHandlingStarted(request, response, null);
+
+    assertThat(ReadYourWrites.isActive(), is(false));
+  }
+
+  private void handle(String method, int status) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/data/map");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    response.setStatus(status);
+    instance.preHandle(request, response, null);
+    instance.afterCompletion(request, response, null, null);
+  }
+
+  private static void authenticate(String userName) {
+    SecurityContextHolder.getContext().setAuthentication(
+      new UsernamePasswordAuthenticationToken(userName, null, Collections.emptyList()));
+  }
+}
@@ -0,0 +1,69 @@
+package com.faforever.api.config.elide;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SqlStatisticsTest {
+
+  private static final String SELECT_NAMES = "select * from name_history where user_id=?";
+  private static final String SELECT_CLANS = "select * from clan where id in (?, ?, ?)";
+
+  private final SqlStatisticsStatementInspector inspector = new SqlStatisticsStatementInspector();
+
+  @After
+  public void tearDown() throws Exception {
+    SqlStatistics current;
+    while ((current = SqlStatistics.current()) != null) {
+      current.stop();
+    }
+  }
+
+  @Test
+  public void statementsAreCountedByShape() throws Exception {
+    SqlStatistics statistics = SqlStatistics.start();
+
+    for (int i = 0; i < 3; i++) {
+      inspector.inspect(SELECT_NAMES);
+    }
+    inspector.inspect(SELECT_CLANS);
+    inspector.inspect("select * from clan where id in (?,?)");
+
+    assertThat(statistics.getStatementCount(), is(5));
+    assertThat(statistics.getRepeatedStatements(2), is(ImmutableMap.of(
+      SELECT_NAMES, 3,
+      "select * from clan where id in (?)", 2
+    )));
+    assertThat(statistics.getRepeatedStatements(3), is(ImmutableMap.of(SELECT_NAMES, 3)));
+  }
+
+  @Test
+  public void stoppedStatisticsIgnoreStatements() throws Exception {
+    SqlStatistics statistics = SqlStatistics.start();
+    statistics.stop();
+
+    inspector.inspect(SELECT_NAMES);
+
+    assertThat(statistics.getStatementCount(), is(0));
+    assertThat(SqlStatistics.current(), is(nullValue()));
+  }
+
+  @Test
+  public void nestedStatisticsRestorePrevious() throws Exception {
+    SqlStatistics outer = SqlStatistics.start();
+    SqlStatistics inner = SqlStatistics.start();
+
+    inspector.inspect(SELECT_NAMES);
+    inner.stop();
+    inspector.inspect(SELECT_NAMES);
+
+    assertThat(inner.getStatementCount(), is(1));
+    assertThat(outer.getStatementCount(), is(1));
+    assertThat(SqlStatistics.current(), sameInstance(outer));
+  }
+}
@@ -0,0 +1,119 @@
+package com.faforever.api.data;
+
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.config.FafApiProperties.PageTotalsMode;
+import com.faforever.api.data.domain.Game;
+import com.faforever.api.data.domain.Map;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.yahoo.elide.ElideResponse;
+import com.yahoo.elide.core.EntityDictionary;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ApproximatePageTotalsTest {
+
+  private static final String FILTER = "displayName==Seton*";
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private ApproximatePageTotals instance;
+  private FafApiProperties properties;
+  private ObjectMapper objectMapper;
+  private List<java.util.Map<String, String>> executedParams;
+
+  @Before
+  public void setUp() {
+    EntityDictionary dictionary = new EntityDictionary(new HashMap<>());
+    dictionary.bindEntity(Game.class);
+    dictionary.bindEntity(Map.class);
+
+    properties = new FafApiProperties();
+    properties.getDataQuery().setPageTotals(PageTotalsMode.APPROXIMATE);
+    properties.getDataQuery().setEstimatedTotalsTypes(Collections.singleton("game"));
+    objectMapper = new ObjectMapper();
+    executedParams = new ArrayList<>();
+
+    instance = new ApproximatePageTotals(properties, dictionary, jdbcTemplate, objectMapper);
+  }
+
+  @Test
+  public void totalsAreCountedInExactMode() {
+    properties.getDataQuery().setPageTotals(PageTotalsMode.EXACT);
+    java.util.Map<String, String> params = ImmutableMap.of("filter", FILTER, "page[totals]", "");
+
+    instance.get("/map", params, this::countingQuery);
+    instance.get("/map", params, this::countingQuery);
+
+    assertThat(executedParams.get(1), is(params));
+  }
+
+  @Test
+  public void countedTotalsAreReused() throws Exception {
+    java.util.Map<String, String> params = ImmutableMap.of("filter", FILTER, "page[totals]", "", "page[size]", "10");
+
+    ElideResponse first = instance.get("/map", params, this::countingQuery);
+    ElideResponse second = instance.get("/map", ImmutableMap.<String, String>builder()
+      .putAll(params).put("page[number]", "2").build(), this::countingQuery);
+
+    assertThat(executedParams.get(0), hasKey("page[totals]"));
+    assertThat(meta(first).has("approximate"), is(false));
+    assertThat(executedParams.get(1), not(hasKey("page[totals]")));
+    assertThat(meta(second).get("totalRecords").asLong(), is(42L));
+    assertThat(meta(second).get("totalPages").asLong(), is(5L));
+    assertThat(meta(second).get("approximate").asBoolean(), is(true));
+  }
+
+  @Test
+  public void unfilteredTotalsOfLargeTablesAreEstimated() throws Exception {
+    when(jdbcTemplate.query(eq("EXPLAIN SELECT * FROM game_stats"), any(ResultSetExtractor.class))).thenReturn(1_000_000L);
+
+    ElideResponse response = instance.get("/game", ImmutableMap.of("page[totals]", ""), this::countingQuery);
+
+    assertThat(executedParams.get(0), not(hasKey("page[totals]")));
+    assertThat(meta(response).get("totalRecords").asLong(), is(1_000_000L));
+    assertThat(meta(response).get("totalPages").asLong(), is(2000L));
+  }
+
+  @Test
+  public void filteredTotalsOfLargeTablesAreCounted() {
+    instance.get("/game", ImmutableMap.of("filter", "id==1", "page[totals]", ""), this::countingQuery);
+
+    assertThat(executedParams.get(0), hasKey("page[totals]"));
+    verifyZeroInteractions(jdbcTemplate);
+  }
+
+  private ElideResponse countingQuery(java.util.Map<String, String> params) {
+    executedParams.add(params);
+    String page = params.containsKey("page[totals]")
+      ? "{\"number\":1,\"limit\":" + params.getOrDefault("page[size]", "500") + ",\"totalRecords\":42,\"totalPages\":5}"
+      : "{\"number\":1,\"limit\":" + params.getOrDefault("page[size]", "500") + "}";
+    return new ElideResponse(200, "{\"data\":[],\"meta\":{\"page\":" + page + "}}");
+  }
+
+  private JsonNode meta(ElideResponse response) throws Exception {
+    return objectMapper.readTree(response.getBody()).path("meta").path("page");
+  }
+}
@@ -0,0 +1,103 @@
+package com.faforever.api.data;
+
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.data.domain.Map;
+import com.faforever.api.data.domain.MapVersion;
+import com.faforever.api.data.domain.Player;
+import com.faforever.api.error.ApiExceptionWithCode;
+import com.faforever.api.error.ErrorCode;
+import com.google.common.collect.ImmutableMap;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.filter.dialect.CaseSensitivityStrategy;
+import com.yahoo.elide.core.filter.dialect.RSQLFilterDialect;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.HashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class QueryCostGuardTest {
+
+  private static final String EXPENSIVE_FILTER = "displayName==*a*;versions.description==*b*";
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private QueryCostGuard instance;
+  private FafApiProperties properties;
+
+  @Before
+  public void setUp() {
+    EntityDictionary dictionary = new EntityDictionary(new HashMap<>());
+    dictionary.bindEntity(Map.class);
+    dictionary.bindEntity(MapVersion.class);
+    dictionary.bindEntity(Player.class);
+
+    properties = new FafApiProperties();
+    properties.getDataQuery().setMaxCost(20_000);
+    properties.getDataQuery().setMinPageSize(10);
+
+    instance = new QueryCostGuard(dictionary,
+      new RSQLFilterDialect(dictionary, new CaseSensitivityStrategy.UseColumnCollation()), properties);
+  }
+
+  @Test
+  public void cheapRequestIsUnchanged() {
+    java.util.Map<String, String> params = ImmutableMap.of("include", "author", "filter", "displayName==Seton*");
+
+    assertThat(instance.check("/map", params), sameInstance(params));
+  }
+
+  @Test
+  public void expensiveRequestWithDefaultPageSizeIsDownPaged() {
+    // 1 + 10 for the unindexed match + 10 * 10 for the unindexed match over a to-many join
+    java.util.Map<String, String> params = instance.check("/map", ImmutableMap.of("filter", EXPENSIVE_FILTER));
+
+    assertThat(params.get("page[size]"), is(String.valueOf(20_000 / 111)));
+    assertThat(params.get("filter"), is(EXPENSIVE_FILTER));
+  }
+
+  @Test
+  public void includesAreChargedPerRelationship() {
+    properties.getDataQuery().setMaxCost(1000);
+
+    // 1 + 2 for the author + 10 for the versions + 10 * 2 for the versions' maps
+    java.util.Map<String, String> params = instance.check("/map", ImmutableMap.of("include", "author,versions.map"));
+
+    assertThat(params.get("page[size]"), is(String.valueOf(1000 / 33)));
+  }
+
+  @Test
+  public void expensiveRequestWithExplicitPageSizeIsRejected() {
+    expectedException.expect(ApiExceptionWithCode.apiExceptionWithCode(ErrorCode.QUERY_TOO_EXPENSIVE));
+
+    instance.check("/map", ImmutableMap.of("filter", EXPENSIVE_FILTER, "page[size]", "500"));
+  }
+
+  @Test
+  public void requestTooExpensiveForMinimumPageSizeIsRejected() {
+    properties.getDataQuery().setMaxCost(1000);
+    expectedException.expect(ApiExceptionWithCode.apiExceptionWithCode(ErrorCode.QUERY_TOO_EXPENSIVE));
+
+    instance.check("/map", ImmutableMap.of("filter", EXPENSIVE_FILTER));
+  }
+
+  @Test
+  public void singleResourceIsNotPaged() {
+    java.util.Map<String, String> params = ImmutableMap.of("include", "versions");
+
+    assertThat(instance.check("/map/1", params), sameInstance(params));
+  }
+
+  @Test
+  public void unknownTypeIsLeftToElide() {
+    java.util.Map<String, String> params = ImmutableMap.of("filter", EXPENSIVE_FILTER);
+
+    assertThat(instance.check("/doesNotExist", params), sameInstance(params));
+  }
+}
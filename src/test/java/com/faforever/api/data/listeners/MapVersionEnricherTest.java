@@ -0,0 +1,80 @@
+package com.faforever.api.data.listeners;
+
+import com.faforever.api.cache.EntityCacheEvictor;
+import com.faforever.api.cache.ResponseDependencyIndex;
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.data.domain.Map;
+import com.faforever.api.data.domain.MapVersion;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class MapVersionEnricherTest {
+
+  private MapVersionEnricher instance;
+  private FafApiProperties fafApiProperties;
+  private ResponseDependencyIndex responseDependencyIndex;
+
+  @Before
+  public void setUp() {
+    fafApiProperties = new FafApiProperties();
+    fafApiProperties.getMap().setDownloadUrlFormat("http://example.com/maps/%s");
+    fafApiProperties.getMap().setSmallPreviewsUrlFormat("http://example.com/small/%s");
+    fafApiProperties.getMap().setLargePreviewsUrlFormat("http://example.com/large/%s");
+
+    responseDependencyIndex = mock(ResponseDependencyIndex.class);
+
+    instance = new MapVersionEnricher();
+    instance.init(fafApiProperties, responseDependencyIndex, mock(EntityCacheEvictor.class));
+  }
+
+  @Test
+  public void enhance() {
+    MapVersion mapVersion = new MapVersion();
+    mapVersion.setFilename("maps/scmp_001.v0001.zip");
+
+    instance.enhance(mapVersion);
+
+    assertThat(mapVersion.getDownloadUrl(), is("http://example.com/maps/scmp_001.v0001.zip"));
+    assertThat(mapVersion.getThumbnailUrlSmall(), is("http://example.com/small/scmp_001.v0001.png"));
+    assertThat(mapVersion.getThumbnailUrlLarge(), is("http://example.com/large/scmp_001.v0001.png"));
+    assertThat(mapVersion.getFolderName(), is("scmp_001.v0001"));
+  }
+
+  @Test
+  public void computedAttributesAreComputedOnFirstAccess() {
+    MapVersion mapVersion = new MapVersion();
+    mapVersion.setFilename("maps/scmp_001.v0001.zip");
+
+    instance.enhance(mapVersion);
+    fafApiProperties.getMap().setDownloadUrlFormat("http://example.org/maps/%s");
+
+    assertThat(mapVersion.getDownloadUrl(), is("http://example.org/maps/scmp_001.v0001.zip"));
+    fafApiProperties.getMap().setDownloadUrlFormat("http://example.com/maps/%s");
+    assertThat(mapVersion.getDownloadUrl(), is("http://example.org/maps/scmp_001.v0001.zip"));
+  }
+
+  @Test
+  public void computedAttributesOfNewMapVersionsAreNull() {
+    assertThat(new MapVersion().getDownloadUrl(), nullValue());
+  }
+
+  @Test
+  public void changedMapVersionEvictsCollections() {
+    Map map = new Map();
+    map.setId(1);
+    MapVersion mapVersion = new MapVersion();
+    mapVersion.setId(10);
+    mapVersion.setMap(map);
+
+    instance.mapVersionChanged(mapVersion);
+
+    verify(responseDependencyIndex).evictResource(MapVersion.TYPE_NAME, 10);
+    verify(responseDependencyIndex).evictCollections(MapVersion.TYPE_NAME);
+  }
+}
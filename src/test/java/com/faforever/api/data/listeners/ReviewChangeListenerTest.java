@@ -0,0 +1,57 @@
+package com.faforever.api.data.listeners;
+
+import com.faforever.api.cache.EntityCacheEvictor;
+import com.faforever.api.cache.ResponseDependencyIndex;
+import com.faforever.api.data.domain.Game;
+import com.faforever.api.data.domain.GameReview;
+import com.faforever.api.data.domain.GameReviewsSummary;
+import com.faforever.api.data.domain.MapVersion;
+import com.faforever.api.data.domain.MapVersionReview;
+import com.faforever.api.data.domain.MapVersionReviewsSummary;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ReviewChangeListenerTest {
+
+  private ReviewChangeListener instance;
+  private ResponseDependencyIndex responseDependencyIndex;
+  private EntityCacheEvictor entityCacheEvictor;
+
+  @Before
+  public void setUp() {
+    responseDependencyIndex = mock(ResponseDependencyIndex.class);
+    entityCacheEvictor = mock(EntityCacheEvictor.class);
+
+    instance = new ReviewChangeListener();
+    instance.init(responseDependencyIndex, entityCacheEvictor);
+  }
+
+  @Test
+  public void changedMapVersionReviewEvictsSummary() {
+    MapVersion mapVersion = new MapVersion();
+    mapVersion.setId(10);
+    MapVersionReview review = new MapVersionReview();
+    review.setMapVersion(mapVersion);
+
+    instance.reviewChanged(review);
+
+    verify(entityCacheEvictor).evict(MapVersionReviewsSummary.class, 10);
+    verify(responseDependencyIndex).evictResource(MapVersionReviewsSummary.TYPE_NAME, 10);
+  }
+
+  @Test
+  public void changedGameReviewEvictsSummary() {
+    Game game = new Game();
+    game.setId(20);
+    GameReview review = new GameReview();
+    review.setGame(game);
+
+    instance.reviewChanged(review);
+
+    verify(entityCacheEvictor).evict(GameReviewsSummary.class, 20);
+    verify(responseDependencyIndex).evictResource(GameReviewsSummary.TYPE_NAME, 20);
+  }
+}
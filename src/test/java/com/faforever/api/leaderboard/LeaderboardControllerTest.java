@@ -1,22 +1,23 @@
 package com.faforever.api.leaderboard;
 
-import com.yahoo.elide.jsonapi.models.JsonApiDocument;
-import com.yahoo.elide.jsonapi.models.Resource;
+import com.faforever.api.leaderboard.LeaderboardRanking.RankedEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.concurrent.CompletableFuture;
+import java.util.Collections;
 
+import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.CoreMatchers.notNullValue;
-import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -30,74 +31,75 @@ public class LeaderboardControllerTest {
 
   @Before
   public void setUp() throws Exception {
-    instance = new LeaderboardController(leaderboardService);
+    instance = new LeaderboardController(leaderboardService, new LeaderboardJsonApiWriter(new ObjectMapper()));
   }
 
   @Test
   public void getLadder1v1() throws Exception {
-    when(leaderboardService.getLadder1v1Leaderboard(1, 100)).thenReturn(new PageImpl<>(Arrays.asList(
-      new Ladder1v1LeaderboardEntry().setId(14).setPlayerName("JUnit 14").setMean(1500f).setDeviation(51f).setNumGames((short) 514).setRank(1).setWonGames((short) 270),
-      new Ladder1v1LeaderboardEntry().setId(5).setPlayerName("JUnit 5").setMean(1400f).setDeviation(67f).setNumGames((short) 65).setRank(2).setWonGames((short) 32)
-    )));
-
-    CompletableFuture<JsonApiDocument> result = instance.getLadder1v1(1, 100);
-    assertThat(result.get(), is(notNullValue()));
-
-    Collection<Resource> resources = result.get().getData().get();
-    assertThat(resources, hasSize(2));
-
-    Iterator<Resource> iterator = resources.iterator();
-    Resource firstEntry = iterator.next();
-    assertThat(firstEntry.getId(), is("14"));
-    assertThat(firstEntry.getAttributes().get("name"), is("JUnit 14"));
-    assertThat(firstEntry.getAttributes().get("mean"), is(1500f));
-    assertThat(firstEntry.getAttributes().get("deviation"), is(51f));
-    assertThat(firstEntry.getAttributes().get("numGames"), is((short) 514));
-    assertThat(firstEntry.getAttributes().get("wonGames"), is((short) 270));
-    assertThat(firstEntry.getAttributes().get("rank"), is(1));
-    assertThat(firstEntry.getAttributes().get("rating"), is(1347));
-
-    Resource secondEntry = iterator.next();
-    assertThat(secondEntry.getId(), is("5"));
-    assertThat(secondEntry.getAttributes().get("name"), is("JUnit 5"));
-    assertThat(secondEntry.getAttributes().get("mean"), is(1400f));
-    assertThat(secondEntry.getAttributes().get("deviation"), is(67f));
-    assertThat(secondEntry.getAttributes().get("numGames"), is((short) 65));
-    assertThat(secondEntry.getAttributes().get("wonGames"), is((short) 32));
-    assertThat(secondEntry.getAttributes().get("rank"), is(2));
-    assertThat(secondEntry.getAttributes().get("rating"), is(1199));
+    when(leaderboardService.getLadder1v1Leaderboard(1, 100)).thenReturn(Arrays.asList(
+      new RankedEntry<>(1, new Ladder1v1LeaderboardEntry().setId(14).setPlayerName("JUnit 14").setMean(1500f).setDeviation(51f).setNumGames((short) 514).setWonGames((short) 270)),
+      new RankedEntry<>(2, new Ladder1v1LeaderboardEntry().setId(5).setPlayerName("JUnit 5").setMean(1400f).setDeviation(67f).setNumGames((short) 65).setWonGames((short) 32))
+    ));
+
+    String result = write(instance.getLadder1v1(1, 100, null));
+
+    assertThat(result, is("{\"data\":[" +
+      "{\"type\":\"ladder1v1LeaderboardEntry\",\"id\":\"14\",\"attributes\":{\"name\":\"JUnit 14\",\"mean\":1500.0,\"deviation\":51.0,\"numGames\":514,\"wonGames\":270,\"rank\":1,\"rating\":1347}}," +
+      "{\"type\":\"ladder1v1LeaderboardEntry\",\"id\":\"5\",\"attributes\":{\"name\":\"JUnit 5\",\"mean\":1400.0,\"deviation\":67.0,\"numGames\":65,\"wonGames\":32,\"rank\":2,\"rating\":1199}}" +
+      "]}"));
   }
 
   @Test
   public void getGlobal() throws Exception {
-    when(leaderboardService.getGlobalLeaderboard(1, 100)).thenReturn(new PageImpl<>(Arrays.asList(
-      new GlobalLeaderboardEntry().setId(14).setPlayerName("JUnit 14").setMean(1500f).setDeviation(51f).setNumGames((short) 514).setRank(1),
-      new GlobalLeaderboardEntry().setId(5).setPlayerName("JUnit 5").setMean(1400f).setDeviation(67f).setNumGames((short) 65).setRank(2)
-    )));
-
-    CompletableFuture<JsonApiDocument> result = instance.getGlobal(1, 100);
-    assertThat(result.get(), is(notNullValue()));
-
-    Collection<Resource> resources = result.get().getData().get();
-    assertThat(resources, hasSize(2));
-
-    Iterator<Resource> iterator = resources.iterator();
-    Resource firstEntry = iterator.next();
-    assertThat(firstEntry.getId(), is("14"));
-    assertThat(firstEntry.getAttributes().get("name"), is("JUnit 14"));
-    assertThat(firstEntry.getAttributes().get("mean"), is(1500f));
-    assertThat(firstEntry.getAttributes().get("deviation"), is(51f));
-    assertThat(firstEntry.getAttributes().get("numGames"), is((short) 514));
-    assertThat(firstEntry.getAttributes().get("rank"), is(1));
-    assertThat(firstEntry.getAttributes().get("rating"), is(1347));
-
-    Resource secondEntry = iterator.next();
-    assertThat(secondEntry.getId(), is("5"));
-    assertThat(secondEntry.getAttributes().get("name"), is("JUnit 5"));
-    assertThat(secondEntry.getAttributes().get("mean"), is(1400f));
-    assertThat(secondEntry.getAttributes().get("deviation"), is(67f));
-    assertThat(secondEntry.getAttributes().get("numGames"), is((short) 65));
-    assertThat(secondEntry.getAttributes().get("rank"), is(2));
-    assertThat(secondEntry.getAttributes().get("rating"), is(1199));
+    when(leaderboardService.getGlobalLeaderboard(1, 100)).thenReturn(Arrays.asList(
+      new RankedEntry<>(1, new GlobalLeaderboardEntry().setId(14).setPlayerName("JUnit 14").setMean(1500f).setDeviation(51f).setNumGames((short) 514)),
+      new RankedEntry<>(2, new GlobalLeaderboardEntry().setId(5).setPlayerName("JUnit 5").setMean(1400f).setDeviation(67f).setNumGames((short) 65))
+    ));
+
+    String result = write(instance.getGlobal(1, 100, null));
+
+    assertThat(result, is("{\"data\":[" +
+      "{\"type\":\"globalLeaderboardEntry\",\"id\":\"14\",\"attributes\":{\"name\":\"JUnit 14\",\"mean\":1500.0,\"deviation\":51.0,\"numGames\":514,\"rank\":1,\"rating\":1347}}," +
+      "{\"type\":\"globalLeaderboardEntry\",\"id\":\"5\",\"attributes\":{\"name\":\"JUnit 5\",\"mean\":1400.0,\"deviation\":67.0,\"numGames\":65,\"rank\":2,\"rating\":1199}}" +
+      "]}"));
+  }
+
+  @Test
+  public void getLadder1v1WithCursor() throws Exception {
+    when(leaderboardService.getLadder1v1LeaderboardAfter(new LeaderboardCursor(1347, 14), 1)).thenReturn(Collections.singletonList(
+      new RankedEntry<>(2, new Ladder1v1LeaderboardEntry().setId(5).setPlayerName("JUnit 5").setMean(1400f).setDeviation(67f).setNumGames((short) 65).setWonGames((short) 32))
+    ));
+
+    String result = write(instance.getLadder1v1(null, 1, "1347:14"));
+
+    assertThat(result, is("{\"data\":[" +
+      "{\"type\":\"ladder1v1LeaderboardEntry\",\"id\":\"5\",\"attributes\":{\"name\":\"JUnit 5\",\"mean\":1400.0,\"deviation\":67.0,\"numGames\":65,\"wonGames\":32,\"rank\":2,\"rating\":1199}}" +
+      "],\"meta\":{\"page\":{\"cursor\":\"1199:5\"}}}"));
+  }
+
+  @Test
+  public void getGlobalWithEmptyCursor() throws Exception {
+    when(leaderboardService.getGlobalLeaderboardAfter(null, null)).thenReturn(Collections.singletonList(
+      new RankedEntry<>(1, new GlobalLeaderboardEntry().setId(14).setPlayerName("JUnit 14").setMean(1500f).setDeviation(51f).setNumGames((short) 514))
+    ));
+
+    String result = write(instance.getGlobal(null, null, ""));
+
+    assertThat(result, endsWith("\"meta\":{\"page\":{\"cursor\":\"1347:14\"}}}"));
+  }
+
+  @Test
+  public void getGlobalWithCursorAtEnd() throws Exception {
+    when(leaderboardService.getGlobalLeaderboardAfter(new LeaderboardCursor(1199, 5), null)).thenReturn(Collections.emptyList());
+
+    String result = write(instance.getGlobal(null, null, "1199:5"));
+
+    assertThat(result, is("{\"data\":[]}"));
+  }
+
+  private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    response.getBody().writeTo(outputStream);
+    return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
   }
 }
@@ -0,0 +1,48 @@
+package com.faforever.api.leaderboard;
+
+import com.faforever.api.error.ErrorCode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.faforever.api.error.ApiExceptionWithCode.apiExceptionWithCode;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LeaderboardCursorTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void parse() throws Exception {
+    LeaderboardCursor cursor = LeaderboardCursor.parse("1140:42");
+
+    assertThat(cursor.getRating(), is(1140));
+    assertThat(cursor.getPlayerId(), is(42));
+  }
+
+  @Test
+  public void parseNegativeRating() throws Exception {
+    assertThat(LeaderboardCursor.parse("-20:7"), is(new LeaderboardCursor(-20, 7)));
+  }
+
+  @Test
+  public void toStringCanBeParsed() throws Exception {
+    LeaderboardCursor cursor = new LeaderboardCursor(930, 3);
+
+    assertThat(LeaderboardCursor.parse(cursor.toString()), is(cursor));
+  }
+
+  @Test
+  public void parseWithoutSeparator() throws Exception {
+    expectedException.expect(apiExceptionWithCode(ErrorCode.QUERY_INVALID_PAGE_CURSOR));
+    LeaderboardCursor.parse("1140");
+  }
+
+  @Test
+  public void parseNonNumeric() throws Exception {
+    expectedException.expect(apiExceptionWithCode(ErrorCode.QUERY_INVALID_PAGE_CURSOR));
+    LeaderboardCursor.parse("abc:42");
+  }
+}
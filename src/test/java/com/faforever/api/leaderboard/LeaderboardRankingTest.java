@@ -0,0 +1,114 @@
+package com.faforever.api.leaderboard;
+
+import com.faforever.api.leaderboard.LeaderboardRanking.RankedEntry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+public class LeaderboardRankingTest {
+
+  private LeaderboardRanking<String> instance;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new LeaderboardRanking<>();
+  }
+
+  @Test
+  public void orderedByRatingDescendingThenId() throws Exception {
+    instance.put(3, 1000, "c");
+    instance.put(1, 1500, "a");
+    instance.put(4, 1000, "d");
+    instance.put(2, 1200, "b");
+
+    assertThat(payloads(instance.getRange(0, 10)), contains("a", "b", "c", "d"));
+    assertThat(instance.get(4).getRank(), is(4));
+    assertThat(instance.get(1).getRank(), is(1));
+  }
+
+  @Test
+  public void getRange() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      instance.put(i, 100 * i, String.valueOf(i));
+    }
+
+    List<RankedEntry<String>> result = instance.getRange(5, 3);
+
+    assertThat(payloads(result), contains("14", "13", "12"));
+    assertThat(result.get(0).getRank(), is(6));
+    assertThat(instance.getRange(20, 10), is(empty()));
+  }
+
+  @Test
+  public void ratingOutsideOfInitialRange() throws Exception {
+    instance.put(1, 0, "a");
+    instance.put(2, 100_000, "b");
+    instance.put(3, -100_000, "c");
+
+    assertThat(payloads(instance.getRange(0, 10)), contains("b", "a", "c"));
+  }
+
+  @Test
+  public void updateRating() throws Exception {
+    instance.put(1, 1500, "a");
+    instance.put(2, 1200, "b");
+
+    instance.put(2, 1800, "b2");
+
+    assertThat(payloads(instance.getRange(0, 10)), contains("b2", "a"));
+    assertThat(instance.get(1).getRank(), is(2));
+    assertThat(instance.size(), is(2));
+  }
+
+  @Test
+  public void remove() throws Exception {
+    instance.put(1, 1500, "a");
+    instance.put(2, 1200, "b");
+
+    instance.remove(1);
+
+    assertThat(instance.get(1), is(nullValue()));
+    assertThat(instance.get(2).getRank(), is(1));
+    assertThat(instance.size(), is(1));
+  }
+
+  @Test
+  public void getRangeAfter() throws Exception {
+    instance.put(1, 1500, "a");
+    instance.put(2, 1200, "b");
+    instance.put(3, 1200, "c");
+    instance.put(4, 1000, "d");
+
+    List<RankedEntry<String>> result = instance.getRangeAfter(1200, 2, 10);
+
+    assertThat(payloads(result), contains("c", "d"));
+    assertThat(result.get(0).getRank(), is(3));
+    assertThat(payloads(instance.getRangeAfter(1200, 3, 1)), contains("d"));
+    assertThat(instance.getRangeAfter(1000, 4, 10), is(empty()));
+  }
+
+  @Test
+  public void getRangeAfterPlayerThatIsNoLongerRanked() throws Exception {
+    instance.put(1, 1500, "a");
+    instance.put(2, 1200, "b");
+    instance.put(3, 1000, "c");
+
+    instance.remove(2);
+
+    assertThat(payloads(instance.getRangeAfter(1200, 2, 10)), contains("c"));
+    assertThat(payloads(instance.getRangeAfter(100_000, 1, 10)), contains("a", "c"));
+    assertThat(instance.getRangeAfter(-100_000, 1, 10), is(empty()));
+  }
+
+  private static List<String> payloads(List<RankedEntry<String>> entries) {
+    return entries.stream().map(RankedEntry::getPayload).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,84 @@
+package com.faforever.api.leaderboard;
+
+import com.faforever.api.ban.BanRepository;
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.game.GamePlayerStatsRepository;
+import com.faforever.api.user.NameRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LeaderboardRefresherTest {
+
+  private LeaderboardRefresher instance;
+
+  @Mock
+  private LeaderboardService leaderboardService;
+  @Mock
+  private GamePlayerStatsRepository gamePlayerStatsRepository;
+  @Mock
+  private BanRepository banRepository;
+  @Mock
+  private NameRecordRepository nameRecordRepository;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new LeaderboardRefresher(leaderboardService, gamePlayerStatsRepository, banRepository,
+      nameRecordRepository, new FafApiProperties(), new SimpleMeterRegistry());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void pollChanges() throws Exception {
+    Instant lastRefreshedAt = Instant.parse("2018-01-01T12:00:00Z");
+    when(leaderboardService.getLastRefreshedAt()).thenReturn(lastRefreshedAt);
+    when(gamePlayerStatsRepository.findPlayerIdsScoredSince(any())).thenReturn(Arrays.asList(1, 2));
+    when(banRepository.findPlayerIdsChangedBetween(any(), any())).thenReturn(Collections.singletonList(2));
+    when(nameRecordRepository.findPlayerIdsChangedSince(any())).thenReturn(Collections.singletonList(3));
+
+    instance.pollChanges();
+
+    ArgumentCaptor<OffsetDateTime> sinceCaptor = ArgumentCaptor.forClass(OffsetDateTime.class);
+    verify(gamePlayerStatsRepository).findPlayerIdsScoredSince(sinceCaptor.capture());
+    assertThat(sinceCaptor.getValue().toInstant(), is(Instant.parse("2018-01-01T11:58:00Z")));
+
+    ArgumentCaptor<Collection<Integer>> playerIdsCaptor = ArgumentCaptor.forClass(Collection.class);
+    verify(leaderboardService).update(playerIdsCaptor.capture(), any());
+    assertThat(playerIdsCaptor.getValue(), containsInAnyOrder(1, 2, 3));
+  }
+
+  @Test
+  public void pollChangesBeforeLoaded() throws Exception {
+    instance.pollChanges();
+
+    verifyZeroInteractions(gamePlayerStatsRepository, banRepository, nameRecordRepository);
+    verify(leaderboardService, never()).update(any(), any());
+  }
+
+  @Test
+  public void reload() throws Exception {
+    instance.reload();
+
+    verify(leaderboardService).refresh();
+  }
+}
@@ -1,19 +1,26 @@
 package com.faforever.api.leaderboard;
 
+import com.faforever.api.leaderboard.LeaderboardRanking.RankedEntry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,23 +41,142 @@ public class LeaderboardServiceTest {
 
   @Test
   public void getLadder1v1Leaderboard() throws Exception {
-    Page<Ladder1v1LeaderboardEntry> leaderboard = new PageImpl<>(Collections.emptyList());
-    when(ladder1v1LeaderboardRepository.getLeaderboardByPage(new PageRequest(0, 100))).thenReturn(leaderboard);
+    when(ladder1v1LeaderboardRepository.findAllActive()).thenReturn(Arrays.asList(
+      new Ladder1v1LeaderboardEntry().setId(1).setMean(1000f).setDeviation(100f),
+      new Ladder1v1LeaderboardEntry().setId(2).setMean(1500f).setDeviation(120f),
+      new Ladder1v1LeaderboardEntry().setId(3).setMean(1200f).setDeviation(90f)
+    ));
 
-    List<Ladder1v1LeaderboardEntry> result = instance.getLadder1v1Leaderboard(1, 100).getContent();
+    List<RankedEntry<Ladder1v1LeaderboardEntry>> result = instance.getLadder1v1Leaderboard(2, 2);
 
-    assertThat(result, is(leaderboard.getContent()));
-    verify(ladder1v1LeaderboardRepository).getLeaderboardByPage(new PageRequest(0,100));
+    assertThat(result.size(), is(1));
+    assertThat(result.get(0).getPayload().getId(), is(1));
+    assertThat(result.get(0).getRank(), is(3));
   }
 
   @Test
   public void getGlobalLeaderboard() throws Exception {
-    Page<GlobalLeaderboardEntry> leaderboard = new PageImpl<>(Collections.emptyList());
-    when(globalLeaderboardRepository.getLeaderboardByPage(new PageRequest(0, 100))).thenReturn(leaderboard);
+    when(globalLeaderboardRepository.findAllActive()).thenReturn(Arrays.asList(
+      new GlobalLeaderboardEntry().setId(1).setMean(1000f).setDeviation(100f),
+      new GlobalLeaderboardEntry().setId(2).setMean(1500f).setDeviation(120f),
+      new GlobalLeaderboardEntry().setId(3).setMean(1200f).setDeviation(90f)
+    ));
 
-    List<GlobalLeaderboardEntry> result = instance.getGlobalLeaderboard(1, 100).getContent();
+    List<RankedEntry<GlobalLeaderboardEntry>> result = instance.getGlobalLeaderboard(1, 100);
 
-    assertThat(result, is(leaderboard.getContent()));
-    verify(globalLeaderboardRepository).getLeaderboardByPage(new PageRequest(0,100));
+    assertThat(result.size(), is(3));
+    assertThat(result.get(0).getPayload().getId(), is(2));
+    assertThat(result.get(0).getRank(), is(1));
+    assertThat(result.get(1).getPayload().getId(), is(3));
+    assertThat(result.get(1).getRank(), is(2));
+    assertThat(result.get(2).getPayload().getId(), is(1));
+    assertThat(result.get(2).getRank(), is(3));
+  }
+
+  @Test
+  public void getGlobalLeaderboardAfter() throws Exception {
+    when(globalLeaderboardRepository.findAllActive()).thenReturn(Arrays.asList(
+      new GlobalLeaderboardEntry().setId(1).setMean(1000f).setDeviation(100f),
+      new GlobalLeaderboardEntry().setId(2).setMean(1500f).setDeviation(120f),
+      new GlobalLeaderboardEntry().setId(3).setMean(1200f).setDeviation(90f)
+    ));
+
+    List<RankedEntry<GlobalLeaderboardEntry>> firstPage = instance.getGlobalLeaderboardAfter(null, 2);
+    assertThat(ids(firstPage, GlobalLeaderboardEntry::getId), contains(2, 3));
+
+    GlobalLeaderboardEntry last = firstPage.get(1).getPayload();
+    LeaderboardCursor cursor = LeaderboardService.cursorOf(last.getId(), last.getMean(), last.getDeviation());
+    List<RankedEntry<GlobalLeaderboardEntry>> secondPage = instance.getGlobalLeaderboardAfter(cursor, 2);
+
+    assertThat(secondPage.size(), is(1));
+    assertThat(secondPage.get(0).getPayload().getId(), is(1));
+    assertThat(secondPage.get(0).getRank(), is(3));
+  }
+
+  @Test
+  public void getLadder1v1LeaderboardAfter() throws Exception {
+    when(ladder1v1LeaderboardRepository.findAllActive()).thenReturn(Arrays.asList(
+      new Ladder1v1LeaderboardEntry().setId(1).setMean(1000f).setDeviation(100f),
+      new Ladder1v1LeaderboardEntry().setId(2).setMean(1500f).setDeviation(120f)
+    ));
+
+    List<RankedEntry<Ladder1v1LeaderboardEntry>> result = instance.getLadder1v1LeaderboardAfter(new LeaderboardCursor(1140, 2), null);
+
+    assertThat(result.size(), is(1));
+    assertThat(result.get(0).getPayload().getId(), is(1));
+    assertThat(result.get(0).getRank(), is(2));
+  }
+
+  @Test
+  public void getGlobalEntry() throws Exception {
+    when(globalLeaderboardRepository.findAllActive()).thenReturn(Arrays.asList(
+      new GlobalLeaderboardEntry().setId(1).setPlayerName("JUnit 1").setMean(1000f).setDeviation(100f),
+      new GlobalLeaderboardEntry().setId(2).setPlayerName("JUnit 2").setMean(1500f).setDeviation(120f)
+    ));
+
+    GlobalLeaderboardEntry result = instance.getGlobalEntry(1);
+
+    assertThat(result.getPlayerName(), is("JUnit 1"));
+    assertThat(result.getRank(), is(2));
+    assertThat(instance.getGlobalEntry(3), is(nullValue()));
+  }
+
+  @Test
+  public void rankingIsLoadedOnlyOnce() throws Exception {
+    when(ladder1v1LeaderboardRepository.findAllActive()).thenReturn(Collections.emptyList());
+
+    instance.getLadder1v1Leaderboard(1, 100);
+    instance.getLadder1v1Entry(1);
+
+    verify(ladder1v1LeaderboardRepository, times(1)).findAllActive();
+  }
+
+  @Test
+  public void refresh() throws Exception {
+    when(globalLeaderboardRepository.findAllActive()).thenReturn(Collections.emptyList());
+    when(ladder1v1LeaderboardRepository.findAllActive()).thenReturn(Collections.singletonList(
+      new Ladder1v1LeaderboardEntry().setId(5).setMean(1500f).setDeviation(100f)
+    ));
+
+    instance.refresh();
+
+    assertThat(ids(instance.getLadder1v1Leaderboard(null, null), Ladder1v1LeaderboardEntry::getId), contains(5));
+    verify(globalLeaderboardRepository).findAllActive();
+  }
+
+  @Test
+  public void update() throws Exception {
+    when(globalLeaderboardRepository.findAllActive()).thenReturn(Arrays.asList(
+      new GlobalLeaderboardEntry().setId(1).setMean(1000f).setDeviation(100f),
+      new GlobalLeaderboardEntry().setId(2).setMean(1500f).setDeviation(120f),
+      new GlobalLeaderboardEntry().setId(3).setMean(1200f).setDeviation(90f)
+    ));
+    when(ladder1v1LeaderboardRepository.findAllActive()).thenReturn(Collections.emptyList());
+    instance.refresh();
+
+    when(globalLeaderboardRepository.findAllActiveByIdIn(Arrays.asList(1, 3))).thenReturn(Collections.singletonList(
+      new GlobalLeaderboardEntry().setId(1).setMean(2000f).setDeviation(50f)
+    ));
+    Instant changedUntil = instance.getLastRefreshedAt().plusSeconds(10);
+
+    instance.update(Arrays.asList(1, 3), changedUntil);
+
+    assertThat(ids(instance.getGlobalLeaderboard(1, 100), GlobalLeaderboardEntry::getId), contains(1, 2));
+    assertThat(instance.getLastRefreshedAt(), is(changedUntil));
+  }
+
+  @Test
+  public void updateBeforeLoadedIsIgnored() throws Exception {
+    instance.update(Collections.singletonList(1), Instant.now());
+
+    assertThat(instance.getLastRefreshedAt(), is(nullValue()));
+    verify(globalLeaderboardRepository, never()).findAllActiveByIdIn(any());
+  }
+
+  private static <T> List<Integer> ids(List<RankedEntry<T>> entries, Function<T, Integer> idGetter) {
+    return entries.stream()
+      .map(RankedEntry::getPayload)
+      .map(idGetter)
+      .collect(Collectors.toList());
   }
 }
@@ -0,0 +1,55 @@
+package com.faforever.api.map;
+
+import com.google.common.base.Strings;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class LuaPathRewriterTest {
+
+  private final LuaPathRewriter instance =
+    new LuaPathRewriter("scmp_037.v2", "new_name.v0001", StandardCharsets.ISO_8859_1);
+
+  @Test
+  public void pathsAreReplacedIgnoringCase() throws Exception {
+    assertRewrite("map = '/maps/SCMP_037.V2/SCMP_037.scmap'\nsave = '/maps/scmp_037.v2/scmp_037_save.lua'",
+      "map = '/maps/new_name.v0001/SCMP_037.scmap'\nsave = '/maps/new_name.v0001/scmp_037_save.lua'", 2);
+  }
+
+  @Test
+  public void folderNameIsMatchedLiterally() throws Exception {
+    assertRewrite("map = '/maps/scmp_037xv2/SCMP_037.scmap'", "map = '/maps/scmp_037xv2/SCMP_037.scmap'", 0);
+  }
+
+  @Test
+  public void pathsAcrossBufferBoundariesAreReplaced() throws Exception {
+    StringBuilder content = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int padding = 8170; padding < 8200; padding++) {
+      content.append(Strings.repeat("-", padding)).append("/maps/scmp_037.v2/");
+      expected.append(Strings.repeat("-", padding)).append("/maps/new_name.v0001/");
+    }
+
+    assertRewrite(content.toString(), expected.toString(), 30);
+  }
+
+  @Test
+  public void nonAsciiCharactersArePreserved() throws Exception {
+    assertRewrite("-- Cr\u00e9dits: /maps/scmp_037.v2/", "-- Cr\u00e9dits: /maps/new_name.v0001/", 1);
+  }
+
+  private void assertRewrite(String content, String expected, int expectedReplacements) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    int replacements = instance.rewrite(
+      new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1)), outputStream);
+
+    assertThat(new String(outputStream.toByteArray(), StandardCharsets.ISO_8859_1), is(expected));
+    assertThat(replacements, is(expectedReplacements));
+  }
+}
@@ -9,7 +9,6 @@ import com.faforever.api.error.ApiException;
 import com.faforever.api.error.ApiExceptionWithMultipleCodes;
 import com.faforever.api.error.ErrorCode;
 import com.faforever.commons.io.Unzipper;
-import com.google.common.io.ByteStreams;
 import com.googlecode.zohhak.api.TestWith;
 import com.googlecode.zohhak.api.runners.ZohhakRunner;
 import junitx.framework.FileAssert;
@@ -25,6 +24,8 @@ import org.mockito.Mockito;
 import org.springframework.util.FileSystemUtils;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -33,7 +34,9 @@ import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static com.faforever.api.error.ApiExceptionWithCode.apiExceptionWithCode;
 import static org.junit.Assert.assertEquals;
@@ -91,8 +94,7 @@ public class MapServiceTest {
     when(mapRepository.findOneByDisplayName(any())).thenReturn(Optional.empty());
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
       try {
-        byte[] mapData = ByteStreams.toByteArray(inputStream);
-        instance.uploadMap(mapData, zipFilename, author, true);
+        instance.uploadMap(inputStream, zipFilename, author, true);
         fail();
       } catch (ApiException e) {
         assertThat(e, apiExceptionWithCode(ErrorCode.MAP_NAME_CONFLICT));
@@ -106,8 +108,7 @@ public class MapServiceTest {
     String zipFilename = "empty.zip";
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
       try {
-        byte[] mapData = ByteStreams.toByteArray(inputStream);
-        instance.uploadMap(mapData, zipFilename, author, true);
+        instance.uploadMap(inputStream, zipFilename, author, true);
         fail();
       } catch (ApiException e) {
         assertThat(e, apiExceptionWithCode(ErrorCode.MAP_MISSING_MAP_FOLDER_INSIDE_ZIP));
@@ -129,8 +130,7 @@ public class MapServiceTest {
     when(mapRepository.findOneByDisplayName(any())).thenReturn(Optional.of(map));
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
       try {
-        byte[] mapData = ByteStreams.toByteArray(inputStream);
-        instance.uploadMap(mapData, zipFilename, me, true);
+        instance.uploadMap(inputStream, zipFilename, me, true);
         fail();
       } catch (ApiException e) {
         assertThat(e, apiExceptionWithCode(ErrorCode.MAP_NOT_ORIGINAL_AUTHOR));
@@ -153,8 +153,7 @@ public class MapServiceTest {
     when(mapRepository.findOneByDisplayName(any())).thenReturn(Optional.of(map));
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
       try {
-        byte[] mapData = ByteStreams.toByteArray(inputStream);
-        instance.uploadMap(mapData, zipFilename, me, true);
+        instance.uploadMap(inputStream, zipFilename, me, true);
         fail();
       } catch (ApiException e) {
         assertThat(e, apiExceptionWithCode(ErrorCode.MAP_VERSION_EXISTS));
@@ -167,8 +166,7 @@ public class MapServiceTest {
   public void fileIsMissingInsideZip(String zipFilename) throws IOException {
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
       try {
-        byte[] mapData = ByteStreams.toByteArray(inputStream);
-        instance.uploadMap(mapData, zipFilename, author, true);
+        instance.uploadMap(inputStream, zipFilename, author, true);
         fail();
       } catch (ApiException e) {
         assertThat(e, apiExceptionWithCode(ErrorCode.MAP_FILE_INSIDE_ZIP_MISSING));
@@ -182,9 +180,8 @@ public class MapServiceTest {
     String zipFilename = "wrong_team_name.zip";
     when(mapRepository.findOneByDisplayName(any())).thenReturn(Optional.empty());
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
-      byte[] mapData = ByteStreams.toByteArray(inputStream);
       expectedException.expect(apiExceptionWithCode(ErrorCode.MAP_FIRST_TEAM_FFA));
-      instance.uploadMap(mapData, zipFilename, author, true);
+      instance.uploadMap(inputStream, zipFilename, author, true);
     }
     verify(mapRepository, never()).save(any(com.faforever.api.data.domain.Map.class));
   }
@@ -194,7 +191,6 @@ public class MapServiceTest {
     String zipFilename = "invalid_scenario.zip";
     when(mapRepository.findOneByDisplayName(any())).thenReturn(Optional.empty());
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
-      byte[] mapData = ByteStreams.toByteArray(inputStream);
       expectedException.expect(ApiExceptionWithMultipleCodes.apiExceptionWithCode(
         ErrorCode.MAP_NAME_MISSING,
         ErrorCode.MAP_DESCRIPTION_MISSING,
@@ -202,7 +198,7 @@ public class MapServiceTest {
         ErrorCode.MAP_TYPE_MISSING,
         ErrorCode.MAP_SIZE_MISSING,
         ErrorCode.MAP_VERSION_MISSING));
-      instance.uploadMap(mapData, zipFilename, author, true);
+      instance.uploadMap(inputStream, zipFilename, author, true);
     }
     verify(mapRepository, never()).save(any(com.faforever.api.data.domain.Map.class));
   }
@@ -212,25 +208,54 @@ public class MapServiceTest {
     String zipFilename = "scmp_037_invalid.zip";
     when(mapRepository.findOneByDisplayName(any())).thenReturn(Optional.empty());
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
-      byte[] mapData = ByteStreams.toByteArray(inputStream);
       try {
-        instance.uploadMap(mapData, zipFilename, author, true);
+        instance.uploadMap(inputStream, zipFilename, author, true);
       } catch (ApiException e) {
         assertThat(e, apiExceptionWithCode(ErrorCode.MAP_INVALID_ZIP));
       }
     }
   }
 
+  @Test
+  public void mapWithFileNamedLikeMapFolderInZip() throws IOException {
+    expectedException.expect(apiExceptionWithCode(ErrorCode.MAP_INVALID_ZIP));
+    instance.uploadMap(zipWithEntries("scmp_037/scmp_037_scenario.lua", "scmp_037"), "scmp_037.zip", author, true);
+  }
+
+  @Test
+  public void mapWithEntryOutsideOfExtractionDirectoryInZip() throws IOException {
+    expectedException.expect(apiExceptionWithCode(ErrorCode.MAP_INVALID_ZIP));
+    instance.uploadMap(zipWithEntries("scmp_037/scmp_037_scenario.lua", "scmp_037/../../evil.lua"), "scmp_037.zip",
+      author, true);
+  }
+
+  @Test
+  public void mapWithBackslashInZipEntry() throws IOException {
+    expectedException.expect(apiExceptionWithCode(ErrorCode.MAP_INVALID_ZIP));
+    InputStream zip = zipWithEntries("scmp_037/scmp_037_scenario.lua", "scmp_037/..\\..\\evil.dll");
+    instance.uploadMap(zip, "scmp_037.zip", author, true);
+  }
+
+  @Test
+  public void safeEntryNames() {
+    assertTrue(MapService.isSafeEntryName("scmp_037/"));
+    assertTrue(MapService.isSafeEntryName("scmp_037/scmp_037_scenario.lua"));
+    assertTrue(MapService.isSafeEntryName("scmp_037/env/..decals/decal.dds"));
+    assertFalse(MapService.isSafeEntryName("/scmp_037/scmp_037_scenario.lua"));
+    assertFalse(MapService.isSafeEntryName("scmp_037//scmp_037_scenario.lua"));
+    assertFalse(MapService.isSafeEntryName("scmp_037/../scmp_037_scenario.lua"));
+    assertFalse(MapService.isSafeEntryName("scmp_037/.."));
+    assertFalse(MapService.isSafeEntryName("scmp_037\\scmp_037_scenario.lua"));
+  }
+
   @Test
   public void uploadMapWithInvalidCharactersName() throws IOException {
     String zipFilename = "scmp_037_no_ascii.zip";
     when(mapRepository.findOneByDisplayName(any())).thenReturn(Optional.empty());
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
-      byte[] mapData = ByteStreams.toByteArray(inputStream);
-
       Path tmpDir = temporaryDirectory.getRoot().toPath();
       try {
-        instance.uploadMap(mapData, zipFilename, author, true);
+        instance.uploadMap(inputStream, zipFilename, author, true);
       } catch (ApiException e) {
         assertThat(e, apiExceptionWithCode(ErrorCode.MAP_NAME_INVALID));
       }
@@ -244,10 +269,8 @@ public class MapServiceTest {
     String zipFilename = "scmp_037.zip";
     when(mapRepository.findOneByDisplayName(any())).thenReturn(Optional.empty());
     try (InputStream inputStream = loadMapResourceAsStream(zipFilename)) {
-      byte[] mapData = ByteStreams.toByteArray(inputStream);
-
       Path tmpDir = temporaryDirectory.getRoot().toPath();
-      instance.uploadMap(mapData, zipFilename, author, true);
+      instance.uploadMap(inputStream, zipFilename, author, true);
 
       ArgumentCaptor<com.faforever.api.data.domain.Map> mapCaptor = ArgumentCaptor.forClass(com.faforever.api.data.domain.Map.class);
       verify(mapRepository, Mockito.times(1)).save(mapCaptor.capture());
@@ -299,4 +322,15 @@ public class MapServiceTest {
   private InputStream loadMapResourceAsStream(String filename) {
     return MapServiceTest.class.getResourceAsStream("/maps/" + filename);
   }
+
+  private static InputStream zipWithEntries(String... entryNames) throws IOException {
+    ByteArrayOutputStream zipContent = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(zipContent)) {
+      for (String entryName : entryNames) {
+        zipOutputStream.putNextEntry(new ZipEntry(entryName));
+        zipOutputStream.closeEntry();
+      }
+    }
+    return new ByteArrayInputStream(zipContent.toByteArray());
+  }
 }
@@ -0,0 +1,55 @@
+package com.faforever.api.map;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class MapZipRepackagerTest {
+
+  @Rule
+  public final TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  @Test
+  public void repackage() throws Exception {
+    Path target = temporaryDirectory.getRoot().toPath().resolve("new_name.v0001.zip");
+
+    try (ZipFile source = new ZipFile(new File(MapZipRepackagerTest.class.getResource("/maps/scmp_037.zip").toURI()))) {
+      MapZipRepackager.repackage(source, "scmp_037", "new_name.v0001", StandardCharsets.ISO_8859_1, target);
+
+      try (ZipFile result = new ZipFile(target.toFile())) {
+        assertThat(result.getEntry("scmp_037/SCMP_037.scmap"), nullValue());
+        assertThat(result.getEntry("new_name.v0001/"), notNullValue());
+
+        ZipArchiveEntry originalScmap = source.getEntry("scmp_037/SCMP_037.scmap");
+        ZipArchiveEntry scmap = result.getEntry("new_name.v0001/SCMP_037.scmap");
+        assertThat(scmap.getCompressedSize(), is(originalScmap.getCompressedSize()));
+        assertThat(scmap.getCrc(), is(originalScmap.getCrc()));
+
+        String scenario = read(result, "new_name.v0001/scmp_037_scenario.lua");
+        assertThat(scenario, containsString("'/maps/new_name.v0001/SCMP_037.scmap'"));
+        assertThat(scenario, not(containsString("/maps/scmp_037")));
+      }
+    }
+  }
+
+  private static String read(ZipFile zipFile, String name) throws Exception {
+    try (InputStream inputStream = zipFile.getInputStream(zipFile.getEntry(name))) {
+      return new String(IOUtils.toByteArray(inputStream), StandardCharsets.ISO_8859_1);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.faforever.api.map;
 import com.faforever.api.config.FafApiProperties;
 import com.faforever.api.config.TestWebSecurityConfig;
 import com.faforever.api.player.PlayerService;
+import com.faforever.api.upload.UploadJobService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.ByteStreams;
@@ -21,7 +22,10 @@ import java.io.InputStream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.fileUpload;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -36,6 +40,8 @@ public class MapsControllerTest {
   @MockBean
   private MapService mapService;
   @MockBean
+  private UploadJobService uploadJobService;
+  @MockBean
   private FafApiProperties fafApiProperties;
   @MockBean
   private PlayerService playerService;
@@ -89,8 +95,10 @@ public class MapsControllerTest {
       this.mvc.perform(fileUpload("/maps/upload")
         .file(file)
         .param("metadata", jsonString)
-      ).andExpect(status().isOk());
+      ).andExpect(status().isAccepted());
     }
+
+    verify(uploadJobService).enqueueMap(any(), eq(zipFile), any(), eq(false));
   }
 
   private InputStream loadMapResourceAsStream(String filename) {
@@ -0,0 +1,40 @@
+package com.faforever.api.map;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PreviewScalerTest {
+
+  @Test
+  public void scaleDownAveragesPixels() {
+    BufferedImage image = new BufferedImage(512, 512, BufferedImage.TYPE_INT_RGB);
+    // Alternating black and white columns, which nearest neighbour scaling would turn into a single color
+    Graphics2D graphics = image.createGraphics();
+    graphics.setColor(Color.WHITE);
+    for (int x = 0; x < image.getWidth(); x += 2) {
+      graphics.drawLine(x, 0, x, image.getHeight() - 1);
+    }
+    graphics.dispose();
+
+    BufferedImage result = PreviewScaler.scale(image, 128, 128);
+
+    assertThat(result.getWidth(), is(128));
+    assertThat(result.getHeight(), is(128));
+    int red = new Color(result.getRGB(64, 64)).getRed();
+    assertThat(Math.abs(red - 128) < 16, is(true));
+  }
+
+  @Test
+  public void imageOfTargetSizeIsReturnedAsIs() {
+    BufferedImage image = new BufferedImage(128, 128, BufferedImage.TYPE_INT_ARGB);
+
+    assertThat(PreviewScaler.scale(image, 128, 128), sameInstance(image));
+  }
+}
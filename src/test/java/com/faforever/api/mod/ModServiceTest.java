@@ -1,5 +1,6 @@
 package com.faforever.api.mod;
 
+import com.faforever.api.cache.ResponseDependencyIndex;
 import com.faforever.api.config.FafApiProperties;
 import com.faforever.api.data.domain.Mod;
 import com.faforever.api.data.domain.ModVersion;
@@ -49,6 +50,8 @@ public class ModServiceTest {
   private ModRepository modRepository;
   @Mock
   private ModVersionRepository modVersionRepository;
+  @Mock
+  private ResponseDependencyIndex responseDependencyIndex;
 
   @Before
   public void setUp() throws Exception {
@@ -58,7 +61,7 @@ public class ModServiceTest {
 
     when(modRepository.save(any(Mod.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-    instance = new ModService(properties, modRepository, modVersionRepository);
+    instance = new ModService(properties, modRepository, modVersionRepository, responseDependencyIndex);
   }
 
   @Test
@@ -96,6 +99,8 @@ public class ModServiceTest {
     ArgumentCaptor<Example<ModVersion>> exampleCaptor = ArgumentCaptor.forClass((Class) ModVersion.class);
     verify(modVersionRepository).exists(exampleCaptor.capture());
     verify(modVersionRepository).existsByUid("26778D4E-BA75-5CC2-CBA8-63795BDE74AA");
+    verify(responseDependencyIndex).evictCollections(Mod.TYPE_NAME);
+    verify(responseDependencyIndex).evictCollections(ModVersion.TYPE_NAME);
   }
 
   @Test
@@ -0,0 +1,280 @@
+package com.faforever.api.upload;
+
+import com.faforever.api.config.FafApiProperties;
+import com.faforever.api.data.domain.Player;
+import com.faforever.api.data.domain.UploadJob;
+import com.faforever.api.data.domain.UploadJobStatus;
+import com.faforever.api.data.domain.UploadJobType;
+import com.faforever.api.error.ApiException;
+import com.faforever.api.error.ApiExceptionWithCode;
+import com.faforever.api.error.Error;
+import com.faforever.api.error.ErrorCode;
+import com.faforever.api.map.MapService;
+import com.faforever.api.mod.ModService;
+import com.faforever.api.player.PlayerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UploadJobServiceTest {
+
+  private static final int JOB_ID = 5;
+  private static final int UPLOADER_ID = 42;
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Mock
+  private UploadJobRepository uploadJobRepository;
+  @Mock
+  private PlayerRepository playerRepository;
+  @Mock
+  private MapService mapService;
+  @Mock
+  private ModService modService;
+
+  private UploadJobService instance;
+  private FafApiProperties properties;
+  private Player uploader;
+  private UploadJob savedJob;
+
+  @Before
+  public void setUp() {
+    properties = new FafApiProperties();
+    properties.getUpload().setDirectory(temporaryFolder.getRoot().toPath());
+    properties.getUpload().setQueueCapacity(10);
+
+    uploader = new Player();
+    uploader.setId(UPLOADER_ID);
+
+    // Processes jobs immediately, in the calling thread
+    instance = new UploadJobService(properties, uploadJobRepository, playerRepository, mapService, modService,
+      new ObjectMapper(), Runnable::run);
+  }
+
+  @Test
+  public void enqueueMapProcessesUploadedFile() throws Exception {
+    mockSaveAndProcessing();
+
+    instance.enqueueMap(new ByteArrayInputStream(new byte[]{1, 2, 3}), "map.zip", uploader, true);
+
+    assertThat(verifyFinished(UploadJobStatus.DONE), nullValue());
+    assertThat(savedJob.getType(), is(UploadJobType.MAP));
+    assertThat(savedJob.getUploaderId(), is(UPLOADER_ID));
+    verify(mapService).uploadMap(any(), eq("map.zip"), eq(uploader), eq(true));
+    assertThat(Files.exists(Paths.get(savedJob.getFilePath())), is(false));
+  }
+
+  @Test
+  public void invalidUploadFailsWithErrors() throws Exception {
+    mockSaveAndProcessing();
+    doThrow(new ApiException(new Error(ErrorCode.MOD_NAME_INVALID)))
+      .when(modService).processUploadedMod(any(), eq(uploader));
+
+    instance.enqueueMod(new ByteArrayInputStream(new byte[]{1, 2, 3}), "mod.zip", uploader);
+
+    assertThat(verifyFinished(UploadJobStatus.FAILED),
+      containsString("\"code\":\"" + ErrorCode.MOD_NAME_INVALID.getCode() + "\""));
+  }
+
+  @Test
+  public void unexpectedFailureIsReportedAsProcessingFailure() throws Exception {
+    mockSaveAndProcessing();
+    doThrow(new IllegalStateException("Disk on fire"))
+      .when(mapService).uploadMap(any(), any(), any(), eq(false));
+
+    instance.enqueueMap(new ByteArrayInputStream(new byte[]{1, 2, 3}), "map.zip", uploader, false);
+
+    assertThat(verifyFinished(UploadJobStatus.FAILED),
+      containsString("\"code\":\"" + ErrorCode.UPLOAD_PROCESSING_FAILED.getCode() + "\""));
+  }
+
+  @Test
+  public void failedLookupOfClaimedJobFailsJob() {
+    when(uploadJobRepository.claim(eq(JOB_ID), any(), any(), any())).thenReturn(1);
+    when(uploadJobRepository.findClaimedJob(JOB_ID)).thenThrow(new IllegalStateException("Connection lost"));
+
+    instance.process(JOB_ID);
+
+    assertThat(verifyFinished(UploadJobStatus.FAILED),
+      containsString("\"code\":\"" + ErrorCode.UPLOAD_PROCESSING_FAILED.getCode() + "\""));
+    verifyZeroInteractions(mapService, modService);
+  }
+
+  @Test
+  public void fullQueueRejectsUpload() {
+    when(uploadJobRepository.countByStatusIn(any())).thenReturn(10L);
+    expectedException.expect(ApiExceptionWithCode.apiExceptionWithCode(ErrorCode.UPLOAD_QUEUE_FULL));
+
+    try {
+      instance.enqueueMap(new ByteArrayInputStream(new byte[]{1, 2, 3}), "map.zip", uploader, false);
+    } finally {
+      verify(uploadJobRepository, never()).save(any());
+      assertThat(temporaryFolder.getRoot().list().length, is(0));
+    }
+  }
+
+  @Test
+  public void queueFilledWhileCopyingRejectsUpload() {
+    when(uploadJobRepository.countByStatusIn(any())).thenReturn(9L, 10L);
+    expectedException.expect(ApiExceptionWithCode.apiExceptionWithCode(ErrorCode.UPLOAD_QUEUE_FULL));
+
+    try {
+      instance.enqueueMap(new ByteArrayInputStream(new byte[]{1, 2, 3}), "map.zip", uploader, false);
+    } finally {
+      verify(uploadJobRepository, never()).save(any());
+      assertThat(temporaryFolder.getRoot().list().length, is(0));
+    }
+  }
+
+  @Test
+  public void resumeRequeuesExpiredJobsAndProcessesQueuedJobs() throws Exception {
+    UploadJob job = new UploadJob();
+    job.setId(JOB_ID);
+    job.setType(UploadJobType.MOD);
+    job.setStatus(UploadJobStatus.QUEUED);
+    job.setUploaderId(UPLOADER_ID);
+    job.setFilePath(temporaryFolder.newFile().getAbsolutePath());
+    when(uploadJobRepository.findAllByStatusInOrderById(EnumSet.of(UploadJobStatus.QUEUED)))
+      .thenReturn(Collections.singletonList(job));
+    when(uploadJobRepository.claim(eq(JOB_ID), any(), any(), any())).thenReturn(1);
+    when(uploadJobRepository.findClaimedJob(JOB_ID)).thenReturn(Optional.of(job));
+    when(playerRepository.findById(UPLOADER_ID)).thenReturn(Optional.of(uploader));
+
+    instance.resumePendingJobs();
+
+    verify(uploadJobRepository).requeueExpiredJobs(any());
+    verify(modService).processUploadedMod(any(), eq(uploader));
+    verifyFinished(UploadJobStatus.DONE);
+  }
+
+  @Test
+  public void queuedJobLeasedByOtherInstanceIsNotResumed() {
+    UploadJob job = queuedJobOfOtherInstance(OffsetDateTime.now().plusMinutes(1));
+    when(uploadJobRepository.findAllByStatusInOrderById(EnumSet.of(UploadJobStatus.QUEUED)))
+      .thenReturn(Collections.singletonList(job));
+
+    instance.resumePendingJobs();
+
+    verify(uploadJobRepository, never()).claim(anyInt(), any(), any(), any());
+  }
+
+  @Test
+  public void expiredJobWithoutReadableFileIsNotTakenOver() {
+    UploadJob job = queuedJobOfOtherInstance(OffsetDateTime.now().minusMinutes(1));
+    job.setFilePath(temporaryFolder.getRoot().toPath().resolve("missing.tmp").toString());
+    when(uploadJobRepository.findAllByStatusInOrderById(EnumSet.of(UploadJobStatus.QUEUED)))
+      .thenReturn(Collections.singletonList(job));
+
+    instance.resumePendingJobs();
+
+    verify(uploadJobRepository, never()).claim(anyInt(), any(), any(), any());
+  }
+
+  @Test
+  public void processedJobIsClaimedWithLease() throws Exception {
+    mockSaveAndProcessing();
+    OffsetDateTime before = OffsetDateTime.now();
+
+    instance.enqueueMap(new ByteArrayInputStream(new byte[]{1, 2, 3}), "map.zip", uploader, false);
+
+    ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<OffsetDateTime> leaseExpiresAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+    verify(uploadJobRepository).claim(eq(JOB_ID), owner.capture(), leaseExpiresAt.capture(), any());
+    assertThat(owner.getValue(), notNullValue());
+    assertThat(leaseExpiresAt.getValue().isBefore(before.plus(properties.getUpload().getProcessingLease())), is(false));
+    // The job is reserved for the accepting instance from the start, since only it has the uploaded file
+    assertThat(savedJob.getOwner(), is(owner.getValue()));
+  }
+
+  @Test
+  public void noLeasesAreRenewedIfNothingIsProcessed() {
+    instance.renewLeases();
+
+    verifyZeroInteractions(uploadJobRepository);
+  }
+
+  @Test
+  public void jobAlreadyClaimedIsNotProcessedAgain() {
+    // The status update reports that no queued job has been changed
+    instance.process(JOB_ID);
+
+    verifyZeroInteractions(mapService, modService);
+    verify(uploadJobRepository, never()).finish(anyInt(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void jobOfOtherUploaderIsNotFound() {
+    UploadJob job = new UploadJob();
+    job.setType(UploadJobType.MAP);
+    job.setUploaderId(UPLOADER_ID + 1);
+    when(uploadJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+    expectedException.expect(ApiExceptionWithCode.apiExceptionWithCode(ErrorCode.UPLOAD_JOB_NOT_FOUND));
+
+    instance.getJob(JOB_ID, UploadJobType.MAP, uploader);
+  }
+
+  private static UploadJob queuedJobOfOtherInstance(OffsetDateTime leaseExpiresAt) {
+    UploadJob job = new UploadJob();
+    job.setId(JOB_ID);
+    job.setType(UploadJobType.MAP);
+    job.setStatus(UploadJobStatus.QUEUED);
+    job.setOwner("other-instance");
+    job.setLeaseExpiresAt(leaseExpiresAt);
+    return job;
+  }
+
+  private void mockSaveAndProcessing() {
+    when(uploadJobRepository.countByStatusIn(any())).thenReturn(0L);
+    when(uploadJobRepository.save(any(UploadJob.class))).thenAnswer(invocation -> {
+      savedJob = invocation.getArgument(0);
+      savedJob.setId(JOB_ID);
+      return savedJob;
+    });
+    when(uploadJobRepository.claim(eq(JOB_ID), any(), any(), any())).thenReturn(1);
+    when(uploadJobRepository.findClaimedJob(JOB_ID)).thenAnswer(invocation -> Optional.of(savedJob));
+    when(playerRepository.findById(UPLOADER_ID)).thenReturn(Optional.of(uploader));
+  }
+
+  /**
+   * Verifies that the job has been finished with the specified status, and returns its errors.
+   */
+  private String verifyFinished(UploadJobStatus status) {
+    ArgumentCaptor<String> errors = ArgumentCaptor.forClass(String.class);
+    verify(uploadJobRepository).finish(eq(JOB_ID), notNull(), eq(status), errors.capture(), any());
+    return errors.getValue();
+  }
+}
@@ -0,0 +1,101 @@
+package com.faforever.api.voting;
+
+import com.faforever.api.data.domain.Player;
+import com.faforever.api.data.domain.Vote;
+import com.faforever.api.data.domain.VotingAnswer;
+import com.faforever.api.data.domain.VotingChoice;
+import com.faforever.api.voting.InstantRunoffTally.Result;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class InstantRunoffTallyTest {
+
+  @Test
+  public void majorityWinsInFirstRound() {
+    Result result = InstantRunoffTally.tally(2, new int[][]{{0}, {0}, {1}});
+
+    assertThat(result.getWinners(), is(new int[]{0}));
+    assertThat(result.getRounds(), hasSize(2));
+    assertThat(result.getRounds().get(0).getCounts(), is(new int[]{2, 1}));
+    assertThat(result.getRounds().get(0).getEliminated(), is(new int[]{1}));
+    assertThat(result.getRounds().get(1).getCounts(), is(new int[]{2, 0}));
+  }
+
+  @Test
+  public void ballotsOfEliminatedChoicesAreTransferred() {
+    Result result = InstantRunoffTally.tally(3, new int[][]{{0}, {0}, {1, 0}, {2}, {2}});
+
+    assertThat(result.getWinners(), is(new int[]{0}));
+    assertThat(result.getRounds(), hasSize(3));
+    assertThat(result.getRounds().get(1).getCounts(), is(new int[]{3, 0, 2}));
+    assertThat(result.getRounds().get(1).getEliminated(), is(new int[]{2}));
+  }
+
+  @Test
+  public void choicesEliminatedInTheSameRoundAreSkipped() {
+    Result result = InstantRunoffTally.tally(3, new int[][]{{0, 1, 2}, {1}, {2}, {2}, {2}});
+
+    assertThat(result.getWinners(), is(new int[]{2}));
+    assertThat(result.getRounds().get(0).getEliminated(), is(new int[]{0, 1}));
+    assertThat(result.getRounds().get(1).getCounts(), is(new int[]{0, 0, 4}));
+  }
+
+  @Test
+  public void exhaustedBallotsAreDropped() {
+    Result result = InstantRunoffTally.tally(3, new int[][]{{0}, {0}, {1}, {1}, {2}, {}});
+
+    assertThat(result.getWinners(), is(new int[]{0, 1}));
+    assertThat(result.getRounds().get(1).getCounts(), is(new int[]{2, 2, 0}));
+  }
+
+  @Test
+  public void noChoicesNoWinners() {
+    Result result = InstantRunoffTally.tally(0, new int[0][]);
+
+    assertThat(result.getWinners(), is(new int[0]));
+  }
+
+  @Test
+  public void ballotsOfEndAtFirstMissingRank() {
+    VotingChoice choice0 = new VotingChoice();
+    choice0.setVotingAnswers(new HashSet<>());
+    VotingChoice choice1 = new VotingChoice();
+    choice1.setVotingAnswers(new HashSet<>());
+
+    Vote vote1 = vote(1);
+    answer(vote1, choice0, 0);
+    answer(vote1, choice1, 2);
+    Vote vote2 = vote(2);
+    answer(vote2, choice1, 0);
+    answer(vote2, choice0, 1);
+    Vote vote3 = vote(3);
+    answer(vote3, choice1, 1);
+
+    int[][] ballots = InstantRunoffTally.ballotsOf(Arrays.asList(choice0, choice1));
+
+    assertThat(Arrays.asList(ballots), containsInAnyOrder(new int[]{0}, new int[]{1, 0}, new int[0]));
+  }
+
+  private static Vote vote(int playerId) {
+    Player player = new Player();
+    player.setId(playerId);
+    Vote vote = new Vote();
+    vote.setPlayer(player);
+    return vote;
+  }
+
+  private static void answer(Vote vote, VotingChoice choice, int alternativeOrdinal) {
+    VotingAnswer answer = new VotingAnswer();
+    answer.setVote(vote);
+    answer.setVotingChoice(choice);
+    answer.setAlternativeOrdinal(alternativeOrdinal);
+    choice.getVotingAnswers().add(answer);
+  }
+}